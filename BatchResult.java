@@ -0,0 +1,160 @@
+/**
+ * This class holds the outcome of every level played by a BatchSimulator, along with totals across the whole
+ * batch. Level i of the batch was played with the seed (first seed + i), so any interesting level can be played
+ * again on its own.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class BatchResult {
+	//What each level's last update returned: "QUIT", "ADVANCE", or "CONTINUE" if it ran out of frames.
+	private String[] results;
+	//The number of updates each level ran for.
+	private int[] frames;
+	//The number of pants left in each level when it ended.
+	private int[] pantsLeft;
+	//The seed of the first level in the batch.
+	private long firstSeed;
+	//How long the whole batch took to play in nanoseconds.
+	long elapsedNanos;
+
+	/**
+	 * This constructor initializes a new BatchResult with room for every level of a batch.
+	 *
+	 * @param levelCount is the number of levels in the batch.
+	 * @param firstSeed is the seed of the first level in the batch.
+	 */
+	public BatchResult(int levelCount, long firstSeed) {
+		results = new String[levelCount];
+		frames = new int[levelCount];
+		pantsLeft = new int[levelCount];
+		this.firstSeed = firstSeed;
+	}
+
+	/**
+	 * This method records how one level of the batch ended. Each level is only ever
+	 * recorded by the thread that played it.
+	 *
+	 * @param index is the position of the level in the batch.
+	 * @param result is what the level's last update returned.
+	 * @param frameCount is the number of updates the level ran for.
+	 * @param pantCount is the number of pants left when it ended.
+	 */
+	void record(int index, String result, int frameCount, int pantCount) {
+		results[index] = result;
+		frames[index] = frameCount;
+		pantsLeft[index] = pantCount;
+	}
+
+	/**
+	 * This is an accessor method for the number of levels in the batch.
+	 *
+	 * @return The number of levels.
+	 */
+	public int getLevelCount() {
+		return results.length;
+	}
+
+	/**
+	 * This is an accessor method for the seed a level was played with.
+	 *
+	 * @param index is the position of the level in the batch.
+	 *
+	 * @return The seed of its Random.
+	 */
+	public long getSeed(int index) {
+		return firstSeed + index;
+	}
+
+	/**
+	 * This is an accessor method for what a level's last update returned.
+	 *
+	 * @param index is the position of the level in the batch.
+	 *
+	 * @return "QUIT", "ADVANCE", or "CONTINUE" if it ran out of frames.
+	 */
+	public String getResult(int index) {
+		return results[index];
+	}
+
+	/**
+	 * This is an accessor method for the number of updates a level ran for.
+	 *
+	 * @param index is the position of the level in the batch.
+	 *
+	 * @return The number of updates.
+	 */
+	public int getFrames(int index) {
+		return frames[index];
+	}
+
+	/**
+	 * This is an accessor method for the number of pants left when a level ended.
+	 *
+	 * @param index is the position of the level in the batch.
+	 *
+	 * @return The number of pants.
+	 */
+	public int getPantsLeft(int index) {
+		return pantsLeft[index];
+	}
+
+	/**
+	 * This method counts the levels that ended with a result.
+	 *
+	 * @param result is "QUIT", "ADVANCE" or "CONTINUE".
+	 *
+	 * @return The number of levels whose last update returned that result.
+	 */
+	public int count(String result) {
+		int count = 0;
+		for(int i = 0; i < results.length; i++) {
+			if(result.equals(results[i])) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * This method adds up the number of updates every level ran for.
+	 *
+	 * @return The total number of updates in the batch.
+	 */
+	public long getTotalFrames() {
+		long total = 0;
+		for(int i = 0; i < frames.length; i++) {
+			total += frames[i];
+		}
+		return total;
+	}
+
+	/**
+	 * This is an accessor method for how long the batch took to play.
+	 *
+	 * @return The time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * This method describes the whole batch in a few lines.
+	 *
+	 * @return The number of levels of each result, the average frames and pants left, and the speed.
+	 */
+	public String toString() {
+		long pants = 0;
+		for(int i = 0; i < pantsLeft.length; i++) {
+			pants += pantsLeft[i];
+		}
+		int levels = Math.max(results.length, 1);
+		double seconds = elapsedNanos / 1e9;
+		return String.format("Levels: %d (QUIT %d, ADVANCE %d, unfinished %d)%n"
+				+ "Average frames: %.1f%nAverage pants left: %.2f%n"
+				+ "Time: %.2f s (%.0f levels/s, %.0f frames/s)",
+				results.length, count("QUIT"), count("ADVANCE"), count("CONTINUE"),
+				getTotalFrames() / (double)levels, pants / (double)levels,
+				seconds, results.length / seconds, getTotalFrames() / seconds);
+	}
+}
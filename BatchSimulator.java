@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class plays out large batches of levels headless, spread across every core, for balancing the game.
+ * Each level is its own Level instance with its own seeded Random, NullRenderer and NullInput, so levels share
+ * nothing while they run and a batch gives the same results however many threads play it. Levels are split
+ * between the threads of a ForkJoinPool, which lets idle threads take levels from busy ones, and each level
+ * writes its outcome into its own slot of a BatchResult.
+ *
+ * From the command line:
+ * java -cp out:PantsOnFire.jar BatchSimulator [-bots] [levels] [threads] [level files...]
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class BatchSimulator {
+	//Time passed to each update, the same as the GameEngine's usual frame time.
+	static final int FRAME_TIME = 16;
+
+	//The threads that play the levels.
+	private ForkJoinPool pool;
+	//Levels that have not ended after this many updates are stopped and counted as unfinished.
+	private int maxFrames = 60000;
+	//Whether each level is played by a Bot instead of a NullInput that never presses anything.
+	private boolean useBots = false;
+
+	static {
+		//Fill Graphic's shared image cache before any level is created on another thread.
+		new NullRenderer();
+	}
+
+	/**
+	 * This constructor initializes a new BatchSimulator that uses every core.
+	 */
+	public BatchSimulator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * This constructor initializes a new BatchSimulator.
+	 *
+	 * @param threads is the number of threads to play levels on.
+	 */
+	public BatchSimulator(int threads) {
+		pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * This is a mutator method for the most updates a level may run for.
+	 *
+	 * @param maxFrames is the number of updates after which a level is stopped.
+	 */
+	public void setMaxFrames(int maxFrames) {
+		this.maxFrames = maxFrames;
+	}
+
+	/**
+	 * This is a mutator method for whether levels are played by a Bot, which keeps
+	 * them going for much longer, for soak testing.
+	 *
+	 * @param useBots is true to play every level with its own Bot.
+	 */
+	public void setUseBots(boolean useBots) {
+		this.useBots = useBots;
+	}
+
+	/**
+	 * This method plays a batch of levels until each one ends or runs out of frames.
+	 *
+	 * @param levels are the contents of the level files to play, or "RANDOM" for a
+	 * random level. Level i of the batch uses levels[i % levels.length].
+	 * @param firstSeed is the seed of the first level. Level i is played with a
+	 * Random seeded with firstSeed + i.
+	 * @param count is the number of levels to play.
+	 *
+	 * @return The outcome of every level.
+	 */
+	public BatchResult run(String[] levels, long firstSeed, int count) {
+		BatchResult result = new BatchResult(count, firstSeed);
+		long start = System.nanoTime();
+		pool.invoke(new Batch(levels, result, 0, count));
+		result.elapsedNanos = System.nanoTime() - start;
+		return result;
+	}
+
+	/**
+	 * This method stops the threads once no more batches will be run.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * This method plays one level of a batch from start to finish.
+	 *
+	 * @param level is the contents of the level file, or "RANDOM".
+	 * @param index is the position of the level in the batch.
+	 * @param result is where the level's outcome is recorded.
+	 */
+	void play(String level, int index, BatchResult result) {
+		Input input = useBots ? new Bot() : new NullInput();
+		Level game = new Level(new Random(result.getSeed(index)), level, new NullRenderer(), input);
+		String outcome = "CONTINUE";
+		int frames = 0;
+		while(outcome.equals("CONTINUE") && frames < maxFrames) {
+			outcome = game.update(FRAME_TIME);
+			frames++;
+		}
+		result.record(index, outcome, frames, game.getPantCount());
+	}
+
+	/**
+	 * This task plays a range of the levels in a batch, splitting the range in half
+	 * until each task has a single level.
+	 */
+	private class Batch extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		//The levels being played and where their outcomes go.
+		private String[] levels;
+		private BatchResult result;
+		//The first level of the range, and the level after the last.
+		private int from;
+		private int to;
+
+		Batch(String[] levels, BatchResult result, int from, int to) {
+			this.levels = levels;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if(to - from == 1) {
+				play(levels[from % levels.length], from, result);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Batch(levels, result, from, middle), new Batch(levels, result, middle, to));
+		}
+	}
+
+	/**
+	 * This method plays a batch from the command line and prints a summary of it.
+	 *
+	 * @param args are -bots to play every level with a Bot, the number of levels
+	 * (default 1000), the number of threads (default every core), and any level
+	 * files to play instead of random levels.
+	 *
+	 * @throws IOException if a level file cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean useBots = args.length > 0 && args[0].equals("-bots");
+		if(useBots) {
+			args = Arrays.copyOfRange(args, 1, args.length);
+		}
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		String[] levels = {"RANDOM"};
+		if(args.length > 2) {
+			levels = new String[args.length - 2];
+			for(int i = 2; i < args.length; i++) {
+				levels[i - 2] = new String(Files.readAllBytes(Paths.get(args[i])), StandardCharsets.UTF_8);
+			}
+		}
+
+		BatchSimulator simulator = new BatchSimulator(threads);
+		simulator.setUseBots(useBots);
+		System.out.println(simulator.run(levels, 1, count));
+		simulator.shutdown();
+	}
+}
@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class compiles text level files into a compact binary format and loads them back by memory-mapping the
+ * file, so huge levels can be loaded without reading and splitting hundreds of thousands of lines. The file is
+ * little-endian and laid out as:
+ *
+ * int magic ("PLVL"), int version, int control type,
+ * int 1 if there is a hero (otherwise 0), float hero x, float hero y,
+ * int pant count, int fire count,
+ * float[pant count] pant x, float[pant count] pant y,
+ * float[fire count] fire x, float[fire count] fire y
+ *
+ * Pants and fires keep the order they had in the text file, so a loaded level uses the Random in exactly the
+ * same order as Level.loadLevel would.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class BinaryLevel {
+	//The first four bytes of every binary level file.
+	static final int MAGIC = 0x504C564C;
+	//The version of the format written by this class.
+	static final int VERSION = 1;
+	//Size of the header in bytes, before the coordinate arrays.
+	static final int HEADER_SIZE = 32;
+
+	/**
+	 * This method compiles the contents of a text level file into a binary level file.
+	 *
+	 * @param level is the contents of a text level file, in the format read by Level.loadLevel.
+	 * @param file is where the binary level is written.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void compile(String level, Path file) throws IOException {
+		compile(new StringReader(level), file);
+	}
+
+	/**
+	 * This method compiles a text level file into a binary level file, reading the text a chunk at a time.
+	 *
+	 * @param level is where the text level file is read from, in the format read by Level.loadLevel.
+	 * It is not closed.
+	 * @param file is where the binary level is written.
+	 *
+	 * @throws IOException if either file cannot be used.
+	 * @throws LevelFormatException if a line of the text level is not in the level format.
+	 */
+	public static void compile(Reader level, Path file) throws IOException {
+		Compiler compiled = new Compiler();
+		new LevelParser().parse(level, compiled);
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (compiled.pantCount + compiled.fireCount) * 8);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(compiled.controlType);
+		buffer.putInt(compiled.hasHero ? 1 : 0).putFloat(compiled.heroX).putFloat(compiled.heroY);
+		buffer.putInt(compiled.pantCount).putInt(compiled.fireCount);
+		putCoordinates(buffer, compiled.pants, compiled.pantCount);
+		putCoordinates(buffer, compiled.fires, compiled.fireCount);
+		buffer.flip();
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * This method loads a binary level file by memory-mapping it. The pants and fires
+	 * are copied in bulk straight into the level's EntityStore, which the level then
+	 * uses for its updates.
+	 *
+	 * @param file is the binary level file.
+	 * @param randGen is the only Random number generator that should be used
+	 * throughout the level.
+	 * @param renderer is what every object in the level is drawn with.
+	 * @param input is where the hero reads the keyboard and mouse from.
+	 *
+	 * @return The loaded level, ready to be updated.
+	 *
+	 * @throws IOException if the file cannot be read or is not a binary level file.
+	 */
+	public static Level load(Path file, Random randGen, Renderer renderer, Input input) throws IOException {
+		MappedByteBuffer buffer;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			channel.close();
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException(file + " is not a binary level file.");
+		}
+		if(buffer.getInt(4) != VERSION) {
+			throw new IOException(file + " has unsupported binary level version " + buffer.getInt(4) + ".");
+		}
+		int controlType = buffer.getInt(8);
+		boolean hasHero = buffer.getInt(12) == 1;
+		int pantCount = buffer.getInt(24);
+		int fireCount = buffer.getInt(28);
+		if(pantCount < 0 || fireCount < 0 || buffer.limit() != HEADER_SIZE + (pantCount + fireCount) * 8L) {
+			throw new IOException(file + " is a damaged binary level file.");
+		}
+
+		Level level = new Level(randGen, renderer, input);
+		level.controlType = controlType;
+		if(hasHero) {
+			level.hero = new Hero(buffer.getFloat(16), buffer.getFloat(20), controlType);
+		}
+
+		//The four coordinate arrays follow the header one after another.
+		buffer.position(HEADER_SIZE);
+		FloatBuffer floats = buffer.asFloatBuffer();
+		EntityStore store = new EntityStore(randGen, Math.max(pantCount, fireCount));
+		store.pants.addAll(slice(floats, 0, pantCount), slice(floats, pantCount, pantCount), pantCount);
+		store.fires.addAll(slice(floats, pantCount * 2, fireCount), slice(floats, pantCount * 2 + fireCount,
+				fireCount), fireCount);
+
+		//Give every fire its starting heat and countdown, in the same order Level.loadLevel would.
+		for(int i = 0; i < fireCount; i++) {
+			store.fires.heat[i] = Fire.STARTING_HEAT;
+			store.scheduleFire(i, Fire.nextFireballCountdown(randGen));
+		}
+		level.store = store;
+		return level;
+	}
+
+	/**
+	 * This method compiles a text level file into a binary one from the command line.
+	 *
+	 * @param args are the text level file followed by the binary file to write.
+	 *
+	 * @throws IOException if either file cannot be used.
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length != 2) {
+			System.out.println("Usage: java BinaryLevel <level.txt> <level.plvl>");
+			return;
+		}
+		Reader level = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+		try {
+			compile(level, Paths.get(args[1]));
+		} finally {
+			level.close();
+		}
+	}
+
+	/**
+	 * This method writes the x coordinates of some objects followed by their y coordinates.
+	 *
+	 * @param buffer is where the coordinates are written.
+	 * @param coordinates holds the x and y of each object next to each other.
+	 * @param count is the number of objects.
+	 */
+	private static void putCoordinates(ByteBuffer buffer, float[] coordinates, int count) {
+		for(int i = 0; i < count; i++) {
+			buffer.putFloat(coordinates[i * 2]);
+		}
+		for(int i = 0; i < count; i++) {
+			buffer.putFloat(coordinates[i * 2 + 1]);
+		}
+	}
+
+	/**
+	 * This method returns part of a float buffer as its own buffer.
+	 *
+	 * @param floats is the whole buffer.
+	 * @param start is the index of the first float in the part.
+	 * @param count is the number of floats in the part.
+	 *
+	 * @return A buffer over just that part.
+	 */
+	private static FloatBuffer slice(FloatBuffer floats, int start, int count) {
+		FloatBuffer part = floats.duplicate();
+		part.position(start);
+		part.limit(start + count);
+		return part;
+	}
+
+	/**
+	 * This class collects the lines of a text level while it is compiled, keeping the x and y of each pant and
+	 * fire next to each other in growing arrays.
+	 */
+	private static class Compiler implements LevelHandler {
+		//The values read from the text level so far.
+		int controlType = 0;
+		boolean hasHero = false;
+		float heroX = 0;
+		float heroY = 0;
+		float[] pants = new float[64];
+		int pantCount = 0;
+		float[] fires = new float[64];
+		int fireCount = 0;
+
+		public void controlType(int type) {
+			controlType = type;
+		}
+
+		public void hero(float x, float y) {
+			heroX = x;
+			heroY = y;
+			hasHero = true;
+		}
+
+		public void pant(float x, float y) {
+			if(pantCount * 2 == pants.length) {
+				pants = Arrays.copyOf(pants, pants.length * 2);
+			}
+			pants[pantCount * 2] = x;
+			pants[pantCount * 2 + 1] = y;
+			pantCount++;
+		}
+
+		public void fire(float x, float y) {
+			if(fireCount * 2 == fires.length) {
+				fires = Arrays.copyOf(fires, fires.length * 2);
+			}
+			fires[fireCount * 2] = x;
+			fires[fireCount * 2 + 1] = y;
+			fireCount++;
+		}
+	}
+}
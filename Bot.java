@@ -0,0 +1,272 @@
+/**
+ * This class is a HeroController that plays the game by itself, for soak and load testing. Before every update it
+ * asks the level's fireball grid for the fireballs around the hero, the same grid the level finds collisions with.
+ * Any of them that will pass too close in the next second push the hero out of the way. When the hero is not
+ * dodging, it searches the level's fire grid outwards from the hero, a ring of cells at a time, for the nearest
+ * fire. It walks towards it until the fire is in range of its water, turns to face it, and holds the mouse button
+ * to shoot. It works with all three control types:
+ *
+ * 1. It lines up with the fire along one axis first, then walks along the other axis so the hero faces the fire.
+ * 2. The mouse is kept on the fire, and the keys move the hero.
+ * 3. The mouse is put where the hero should walk to, or just in front of the hero to turn without moving.
+ *
+ * A bot only decides once per update, like a person at the same frame rate, and its choices only depend on the
+ * level, so a level played by a bot plays out the same every time.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class Bot implements HeroController {
+	//How far water goes before it disappears, and how close to a fire the hero gets before shooting.
+	static final float WATER_RANGE = 200;
+	static final float SHOOTING_RANGE = WATER_RANGE * 0.8f;
+	//A fireball that will pass closer than this to the hero is dodged.
+	static final float DANGER_DISTANCE = 48;
+	//Fireballs that will not come close within this many milliseconds are ignored.
+	static final float LOOK_AHEAD = 1000;
+	//How many rings of the level's fireball grid around the hero are searched, enough to see every fireball that
+	//could reach the hero within LOOK_AHEAD.
+	static final int DANGER_RINGS = (int)Math.ceil(Fireball.SPEED * LOOK_AHEAD / Level.COLLISION_CELL_SIZE);
+	//How far from a fire's line the hero can be and still count as lined up with it, in control type 1.
+	static final float LINE_UP_DISTANCE = 6;
+	//How closely the hero has to face a fire to shoot at it, as the cosine of the angle between them.
+	static final float AIM = 0.98f;
+	//How far from the edges of the screen the hero tries to stay.
+	static final float EDGE_MARGIN = 24;
+
+	//The keys the bot holds and where it puts the mouse.
+	private InputSnapshot keys = new InputSnapshot();
+	//The position of the fire found by the last call to findNearestFire.
+	private float nearestX;
+	private float nearestY;
+
+	public boolean isKeyHeld(String key) {
+		return keys.isKeyHeld(key);
+	}
+
+	public boolean isKeyPressed(String key) {
+		return false;
+	}
+
+	public int getMouseX() {
+		return keys.getMouseX();
+	}
+
+	public int getMouseY() {
+		return keys.getMouseY();
+	}
+
+	public void think(Level level) {
+		Graphic hero = level.hero.getGraphic();
+		float x = hero.getX();
+		float y = hero.getY();
+		keys.held = 0;
+		keys.mouseX = (int)x;
+		keys.mouseY = (int)y;
+
+		//Work out which way to dodge, adding up a push away from every fireball that will come too close.
+		float moveX = 0;
+		float moveY = 0;
+		SpatialGrid fireballGrid = level.getFireballGrid();
+		int nearby = fireballGrid.query(x, y, DANGER_RINGS);
+		for(int i = 0; i < nearby; i++) {
+			int f = fireballGrid.getResult(i);
+			float dx;
+			float dy;
+			float vx;
+			float vy;
+			if(level.store != null) {
+				EntityTable fireballs = level.store.fireballs;
+				dx = fireballs.x[f] - x;
+				dy = fireballs.y[f] - y;
+				vx = fireballs.directionX[f] * Fireball.SPEED;
+				vy = fireballs.directionY[f] * Fireball.SPEED;
+			} else {
+				Graphic graphic = level.fireballs.get(f).getGraphic();
+				dx = graphic.getX() - x;
+				dy = graphic.getY() - y;
+				vx = graphic.getDirectionX() * Fireball.SPEED;
+				vy = graphic.getDirectionY() * Fireball.SPEED;
+			}
+			//When the fireball will be closest to the hero if the hero stands still.
+			float time = -(dx * vx + dy * vy) / (vx * vx + vy * vy);
+			if(time < 0 || time > LOOK_AHEAD) {
+				continue;
+			}
+			float missX = dx + vx * time;
+			float missY = dy + vy * time;
+			float miss = (float)Math.sqrt(missX * missX + missY * missY);
+			if(miss >= DANGER_DISTANCE) {
+				continue;
+			}
+			//Step away from where it will pass, or to the side if it is coming straight at the hero.
+			if(miss < 1) {
+				missX = -vy;
+				missY = vx;
+				miss = Fireball.SPEED;
+			}
+			float weight = (DANGER_DISTANCE - miss) / (time + 100);
+			moveX -= missX / miss * weight;
+			moveY -= missY / miss * weight;
+		}
+		boolean isDodging = moveX != 0 || moveY != 0;
+		if(isDodging) {
+			//Never dodge off the screen.
+			if(x < EDGE_MARGIN && moveX < 0 || x > level.renderer.getWidth() - EDGE_MARGIN && moveX > 0) {
+				moveX = -moveX;
+			}
+			if(y < EDGE_MARGIN && moveY < 0 || y > level.renderer.getHeight() - EDGE_MARGIN && moveY > 0) {
+				moveY = -moveY;
+			}
+			steer(level.hero.controlType, x, y, moveX, moveY);
+			return;
+		}
+
+		//Otherwise go after the nearest fire.
+		if(!findNearestFire(level, x, y)) {
+			return;
+		}
+		float fireX = nearestX;
+		float fireY = nearestY;
+		float dx = fireX - x;
+		float dy = fireY - y;
+		float distance = (float)Math.sqrt(dx * dx + dy * dy);
+		boolean inRange = distance < SHOOTING_RANGE;
+		switch(level.hero.controlType) {
+		case 1:
+			//Line up along the shorter axis, then walk along the longer one so the hero faces the fire.
+			if(Math.abs(dx) >= Math.abs(dy)) {
+				if(Math.abs(dy) > LINE_UP_DISTANCE) {
+					keys.held = dy > 0 ? InputSnapshot.S : InputSnapshot.W;
+				} else {
+					keys.held = dx > 0 ? InputSnapshot.D : InputSnapshot.A;
+				}
+			} else {
+				if(Math.abs(dx) > LINE_UP_DISTANCE) {
+					keys.held = dx > 0 ? InputSnapshot.D : InputSnapshot.A;
+				} else {
+					keys.held = dy > 0 ? InputSnapshot.S : InputSnapshot.W;
+				}
+			}
+			break;
+		case 2:
+			keys.mouseX = (int)fireX;
+			keys.mouseY = (int)fireY;
+			if(!inRange) {
+				keys.held = direction(dx, dy);
+			}
+			break;
+		case 3:
+			if(inRange) {
+				//Turn towards the fire without walking, by keeping the mouse close to the hero.
+				keys.mouseX = (int)(x + dx / distance * 10);
+				keys.mouseY = (int)(y + dy / distance * 10);
+			} else {
+				keys.mouseX = (int)fireX;
+				keys.mouseY = (int)fireY;
+			}
+			break;
+		}
+
+		//Shoot when the fire is in range and the hero is facing it.
+		if(inRange && distance > 0 && (hero.getDirectionX() * dx + hero.getDirectionY() * dy) / distance > AIM) {
+			keys.held |= InputSnapshot.MOUSE;
+		}
+	}
+
+	/**
+	 * This method sets the keys and mouse to move the hero in a direction.
+	 *
+	 * @param controlType is the way the hero is controlled.
+	 * @param x is the position of the hero on the x axis.
+	 * @param y is the position of the hero on the y axis.
+	 * @param moveX is how far to move on the x axis, compared to moveY.
+	 * @param moveY is how far to move on the y axis, compared to moveX.
+	 */
+	private void steer(int controlType, float x, float y, float moveX, float moveY) {
+		if(controlType == 3) {
+			//The hero walks towards the mouse, so put it well away from the hero in that direction.
+			float length = (float)Math.sqrt(moveX * moveX + moveY * moveY);
+			keys.mouseX = (int)(x + moveX / length * 100);
+			keys.mouseY = (int)(y + moveY / length * 100);
+		} else {
+			keys.held = direction(moveX, moveY);
+		}
+	}
+
+	/**
+	 * This method picks the movement keys that go closest to a direction, out of
+	 * the eight directions the keys can move in.
+	 *
+	 * @param dx is the direction on the x axis.
+	 * @param dy is the direction on the y axis.
+	 *
+	 * @return The keys to hold.
+	 */
+	private static int direction(float dx, float dy) {
+		//A key is held for an axis when the direction is within 67.5 degrees of it, tan(22.5) being 0.414.
+		int held = 0;
+		if(Math.abs(dx) > Math.abs(dy) * 0.414f) {
+			held |= dx > 0 ? InputSnapshot.D : InputSnapshot.A;
+		}
+		if(Math.abs(dy) > Math.abs(dx) * 0.414f) {
+			held |= dy > 0 ? InputSnapshot.S : InputSnapshot.W;
+		}
+		return held;
+	}
+
+	/**
+	 * This method finds the fire nearest to the hero that is still burning.
+	 *
+	 * @param level is the level being played.
+	 * @param x is the position of the hero on the x axis.
+	 * @param y is the position of the hero on the y axis.
+	 *
+	 * @return Return true if there is a fire, otherwise return false.
+	 */
+	private boolean findNearestFire(Level level, float x, float y) {
+		SpatialGrid fireGrid = level.getFireGrid();
+		float best = Float.MAX_VALUE;
+		int bestIndex = -1;
+		int lastRing = fireGrid.getRingLimit(x, y);
+		for(int ring = 0; ring <= lastRing; ring++) {
+			//Every fire in this ring or further out is at least this far away, so none of them can be nearer.
+			float closest = fireGrid.getRingDistance(x, y, ring);
+			if(best < closest * closest) {
+				break;
+			}
+			int count = fireGrid.queryRing(x, y, ring);
+			for(int i = 0; i < count; i++) {
+				int f = fireGrid.getResult(i);
+				float fireX;
+				float fireY;
+				if(level.store != null) {
+					EntityTable fires = level.store.fires;
+					if(fires.heat[f] <= 0) {
+						continue;
+					}
+					fireX = fires.x[f];
+					fireY = fires.y[f];
+				} else {
+					Fire fire = level.fires.get(f);
+					if(fire.getHeat() <= 0) {
+						continue;
+					}
+					fireX = fire.getGraphic().getX();
+					fireY = fire.getGraphic().getY();
+				}
+				//Ties go to the fire added first, the same as looking through the fires in order.
+				float dx = fireX - x;
+				float dy = fireY - y;
+				float distance = dx * dx + dy * dy;
+				if(distance < best || distance == best && f < bestIndex) {
+					best = distance;
+					bestIndex = f;
+					nearestX = fireX;
+					nearestY = fireY;
+				}
+			}
+		}
+		return bestIndex >= 0;
+	}
+}
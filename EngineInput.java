@@ -0,0 +1,24 @@
+/**
+ * This is the Input used when the game is played in the GameEngine window. It simply passes every call on to the
+ * GameEngine.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EngineInput implements Input {
+	public boolean isKeyHeld(String key) {
+		return GameEngine.isKeyHeld(key);
+	}
+	
+	public boolean isKeyPressed(String key) {
+		return GameEngine.isKeyPressed(key);
+	}
+	
+	public int getMouseX() {
+		return GameEngine.getMouseX();
+	}
+	
+	public int getMouseY() {
+		return GameEngine.getMouseY();
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ * This is the Renderer used when the game is played in the GameEngine window. It simply passes every call on to
+ * the Graphic and the GameEngine. The engine gives no way to draw a Graphic into an offscreen image, so a
+ * StaticLayer is drawn sprite by sprite every frame, the same as a batch.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EngineRenderer implements Renderer {
+	public void draw(Graphic graphic) {
+		graphic.draw();
+	}
+
+	public void drawBatch(Graphic sprite, SpriteBatch batch) {
+		float[] x = batch.x;
+		float[] y = batch.y;
+		float[] direction = batch.direction;
+		for(int i = 0; i < batch.size; i++) {
+			sprite.setPosition(x[i], y[i]);
+			sprite.setDirection(direction[i]);
+			sprite.draw();
+		}
+	}
+
+	public void drawLayer(Graphic sprite, StaticLayer layer) {
+		drawBatch(sprite, layer.getSprites());
+		layer.markDrawn();
+	}
+
+	public int getWidth() {
+		return GameEngine.getWidth();
+	}
+
+	public int getHeight() {
+		return GameEngine.getHeight();
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ * This class holds the tight loops an EntityStore runs over its primitive arrays every step: moving every fireball
+ * and testing it against the edges of the screen, and the swept collision test between one object and the
+ * fireballs a SpatialGrid found near it. These are scalar loops, one entity at a time, and they give exactly the
+ * same results as Fireball.update and SweptCollision.
+ *
+ * VectorKernels, in the simd folder, runs the same loops over several entities at once in the SIMD lanes of the
+ * CPU with the incubating Vector API, and gives the same results bit for bit. It is only compiled and used when
+ * asked for, since the Vector API needs an extra module:
+ *
+ * javac --add-modules jdk.incubator.vector -cp out:PantsOnFire.jar -d out simd/*.java
+ * java --add-modules jdk.incubator.vector -Dpantsonfire.simd=on -cp out:PantsOnFire.jar Level
+ *
+ * If it cannot be loaded, these scalar kernels are used instead.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EntityKernels {
+	//The system property that uses the Vector API kernels when it is "on" or "true".
+	static final String SIMD_PROPERTY = "pantsonfire.simd";
+	//Whether VectorKernels could not be loaded, so that it is only tried once.
+	private static boolean isVectorMissing = false;
+	//Graphic's size field, read to work out collision distances.
+	private static final HiddenField SIZE = new HiddenField(Graphic.class, "size",
+			"Collisions will be tested one Graphic at a time");
+
+	/**
+	 * This method creates the kernels an EntityStore should use: VectorKernels if
+	 * the SIMD property is on and they can be loaded, and these scalar ones otherwise.
+	 * VectorKernels keep some working space, so each EntityStore has its own.
+	 *
+	 * @return The kernels.
+	 */
+	static EntityKernels create() {
+		return FrameProfiler.isOn(SIMD_PROPERTY) ? load(0) : new EntityKernels();
+	}
+
+	/**
+	 * This method loads VectorKernels with a given vector size.
+	 *
+	 * @param bits is the size of a vector in bits, such as 256 for AVX2, or 0 for the
+	 * size the CPU prefers.
+	 *
+	 * @return The kernels, or scalar ones if VectorKernels cannot be loaded.
+	 */
+	static synchronized EntityKernels load(int bits) {
+		if(!isVectorMissing) {
+			try {
+				Class<?> type = Class.forName("VectorKernels");
+				return (EntityKernels)type.getConstructor(int.class).newInstance(bits);
+			} catch(ReflectiveOperationException | LinkageError e) {
+				isVectorMissing = true;
+				Throwable cause = e.getCause() != null ? e.getCause() : e;
+				System.err.println("The SIMD kernels could not be loaded, so scalar ones are used: " + cause);
+			}
+		}
+		return new EntityKernels();
+	}
+
+	/**
+	 * This is an accessor method for a name for the kernels, for benchmarks.
+	 *
+	 * @return The name.
+	 */
+	public String getName() {
+		return "scalar";
+	}
+
+	/**
+	 * This method moves every living entity in a table along its direction, the same
+	 * as Fireball.update. An entity that was too far off the screen before it moved
+	 * dies, and each entity's previous position is set to where it was.
+	 *
+	 * @param table holds the entities.
+	 * @param step is how far each entity moves.
+	 * @param minimum is the smallest position on either axis that is not too far off the screen.
+	 * @param maxX is the largest position on the x axis that is not too far off the screen.
+	 * @param maxY is the largest position on the y axis that is not too far off the screen.
+	 */
+	public void advance(EntityTable table, float step, float minimum, float maxX, float maxY) {
+		advanceFrom(table, 0, step, minimum, maxX, maxY);
+	}
+
+	/**
+	 * This method moves the living entities of a table from a given index to the
+	 * end, the same as advance().
+	 *
+	 * @param table holds the entities.
+	 * @param start is the index of the first entity to move.
+	 * @param step is how far each entity moves.
+	 * @param minimum is the smallest position on either axis that is not too far off the screen.
+	 * @param maxX is the largest position on the x axis that is not too far off the screen.
+	 * @param maxY is the largest position on the y axis that is not too far off the screen.
+	 */
+	static void advanceFrom(EntityTable table, int start, float step, float minimum, float maxX, float maxY) {
+		float[] x = table.x;
+		float[] y = table.y;
+		float[] directionX = table.directionX;
+		float[] directionY = table.directionY;
+		float[] previousX = table.previousX;
+		float[] previousY = table.previousY;
+		boolean[] alive = table.alive;
+
+		for(int i = start; i < table.size; i++) {
+			if(alive[i]) {
+				previousX[i] = x[i];
+				previousY[i] = y[i];
+				//If the entity is too far off the screen, remove it from the game.
+				if(x[i] <= minimum || x[i] >= maxX || y[i] <= minimum || y[i] >= maxY) {
+					alive[i] = false;
+				}
+				//Move forward.
+				x[i] = x[i] + directionX[i] * step;
+				y[i] = y[i] + directionY[i] * step;
+			}
+		}
+	}
+
+	/**
+	 * This method finds the first of some moving entities that collided with an
+	 * object during the last step, the same as SweptCollision.isColliding with the
+	 * entity as the first graphic and the object as the second.
+	 *
+	 * @param movers holds the entities.
+	 * @param candidates holds the index in movers of each entity to test, such as a SpatialGrid's results.
+	 * @param count is the number of candidates.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at, from getHitRadius.
+	 *
+	 * @return The smallest index of an entity that collided with the object, or -1 if none did.
+	 */
+	public int findHit(EntityTable movers, int[] candidates, int count, float x, float y, float previousX,
+					   float previousY, float radius) {
+		return findHitFrom(movers, candidates, 0, count, x, y, previousX, previousY, radius, -1);
+	}
+
+	/**
+	 * This method runs findHit() on the candidates from a given index to the end.
+	 *
+	 * @param movers holds the entities.
+	 * @param candidates holds the index in movers of each entity to test.
+	 * @param start is the index in candidates of the first candidate to test.
+	 * @param count is the number of candidates.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at.
+	 * @param hit is the smallest index of an entity found to collide so far, or -1.
+	 *
+	 * @return The smallest index of an entity that collided with the object, or -1 if none did.
+	 */
+	static int findHitFrom(EntityTable movers, int[] candidates, int start, int count, float x, float y,
+						   float previousX, float previousY, float radius, int hit) {
+		for(int j = start; j < count; j++) {
+			int f = candidates[j];
+			if((hit == -1 || f < hit) && isHit(movers, f, x, y, previousX, previousY, radius)) {
+				hit = f;
+			}
+		}
+		return hit;
+	}
+
+	/**
+	 * This method runs the swept collision test between one entity and an object.
+	 *
+	 * @param movers holds the entity.
+	 * @param f is the index of the entity.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at.
+	 *
+	 * @return Return true if they collided during the step, otherwise return false.
+	 */
+	private static boolean isHit(EntityTable movers, int f, float x, float y, float previousX, float previousY,
+								 float radius) {
+		float aX = movers.x[f];
+		float aY = movers.y[f];
+		float aPreviousX = movers.previousX[f];
+		float aPreviousY = movers.previousY[f];
+
+		//Find how far through the step the two were closest together, as SweptCollision does.
+		float startX = aPreviousX - previousX;
+		float startY = aPreviousY - previousY;
+		float moveX = (aX - x) - startX;
+		float moveY = (aY - y) - startY;
+		float lengthSquared = moveX * moveX + moveY * moveY;
+		float t = 1;
+		if(lengthSquared > 0) {
+			t = Math.max(0, Math.min(1, -(startX * moveX + startY * moveY) / lengthSquared));
+		}
+
+		float dx;
+		float dy;
+		if(t == 1) {
+			dx = aX - x;
+			dy = aY - y;
+		} else {
+			dx = (aPreviousX + (aX - aPreviousX) * t) - (previousX + (x - previousX) * t);
+			dy = (aPreviousY + (aY - aPreviousY) * t) - (previousY + (y - previousY) * t);
+		}
+		return dx * dx + dy * dy <= radius * radius;
+	}
+
+	/**
+	 * This method works out the distance two graphics collide at, the same way
+	 * Graphic.isCollidingWith does. Graphic keeps the size of each one to itself,
+	 * so it is read from Graphic's private field.
+	 *
+	 * @param a is the first graphic.
+	 * @param b is the second graphic.
+	 *
+	 * @return The distance, or NaN if the sizes could not be read.
+	 */
+	static float getHitRadius(Graphic a, Graphic b) {
+		return (SIZE.getFloat(a) + SIZE.getFloat(b)) / 2;
+	}
+}
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class keeps the fireballs, water and fires that have been removed from a Level so that they can be reset
+ * and used again instead of creating new objects (and new Graphics) while the game is running. Every object is
+ * released back here exactly once, when Level removes it (shouldRemove() returns false, or its slot in the water
+ * array is set to null), and acquired again the next time one of that type is needed.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EntityPools {
+	//Objects that have been released and are ready to be used again.
+	private ArrayList<Fireball> freeFireballs = new ArrayList<Fireball>();
+	private ArrayList<Water> freeWater = new ArrayList<Water>();
+	private ArrayList<Fire> freeFires = new ArrayList<Fire>();
+
+	/**
+	 * This method returns a fireball at the given position and direction, reusing a
+	 * released one if there is one.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param directionAngle is the angle which the fireball is facing.
+	 *
+	 * @return A living fireball.
+	 */
+	public Fireball acquireFireball(float x, float y, float directionAngle) {
+		if(freeFireballs.isEmpty()) {
+			return new Fireball(x, y, directionAngle);
+		}
+		Fireball fireball = freeFireballs.remove(freeFireballs.size() - 1);
+		fireball.reset(x, y, directionAngle);
+		return fireball;
+	}
+
+	/**
+	 * This method gives back a fireball that has been removed from the level.
+	 *
+	 * @param fireball is the fireball that is no longer used.
+	 */
+	public void releaseFireball(Fireball fireball) {
+		freeFireballs.add(fireball);
+	}
+
+	/**
+	 * This method returns a water object at the given position and direction, reusing
+	 * a released one if there is one.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the water is facing.
+	 *
+	 * @return A water object that has not traveled yet.
+	 */
+	public Water acquireWater(float x, float y, float direction) {
+		if(freeWater.isEmpty()) {
+			return new Water(x, y, direction);
+		}
+		Water water = freeWater.remove(freeWater.size() - 1);
+		water.reset(x, y, direction);
+		return water;
+	}
+
+	/**
+	 * This method gives back a water object that has been removed from the water array.
+	 *
+	 * @param water is the water object that is no longer used.
+	 */
+	public void releaseWater(Water water) {
+		freeWater.add(water);
+	}
+
+	/**
+	 * This method returns a fire at the given position, reusing a released one if there
+	 * is one. The fireball countdown is drawn from randGen either way.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param randGen is the random object the fire uses.
+	 *
+	 * @return A living fire at full heat.
+	 */
+	public Fire acquireFire(float x, float y, Random randGen) {
+		if(freeFires.isEmpty()) {
+			return new Fire(x, y, randGen);
+		}
+		Fire fire = freeFires.remove(freeFires.size() - 1);
+		fire.reset(x, y, randGen);
+		return fire;
+	}
+
+	/**
+	 * This method gives back a fire that has been removed from the level.
+	 *
+	 * @param fire is the fire that is no longer used.
+	 */
+	public void releaseFire(Fire fire) {
+		freeFires.add(fire);
+	}
+}
@@ -0,0 +1,391 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class is an optional data-oriented store for the pants, fires and fireballs of a Level. Each kind of
+ * entity is kept in an EntityTable of primitive arrays, and every per-frame pass (movement, collisions and
+ * removal) is a tight loop over those arrays. The Pant, Fire and Fireball classes are not used while a level
+ * runs from this store. They are only read once, when a loaded level is moved into it.
+ *
+ * Fires are scheduled by a FireScheduler, keyed by their index in the fire table, so a step only looks at the
+ * fires that are due to shoot and the fires that have just gone out, the same as a Level that is not using the
+ * store.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EntityStore {
+	//The pants, fires and fireballs in the level.
+	EntityTable pants;
+	EntityTable fires;
+	EntityTable fireballs;
+
+	//The random object shared with the rest of the level.
+	private Random randGen;
+	//Decides when the fire at each index of the fire table shoots its next fireball.
+	private FireScheduler fireScheduler = new FireScheduler();
+	//Indexes of fires whose heat ran out in the last step, in order, to be put out at the start of the next one.
+	private int[] coldFires = new int[16];
+	private int coldCount = 0;
+	//Whether a fire has been put out since the fire table was last compacted.
+	private boolean isFireOut = false;
+
+	/*
+	 * Graphics that are moved onto an entity's position whenever it is tested for a collision. This
+	 * keeps the drawing and collision rules exactly the same as Graphic's, without one Graphic per entity.
+	 */
+	private Graphic pantView = new Graphic("PANT");
+	private Graphic fireView = new Graphic("FIRE");
+	private Graphic fireballView = new Graphic("FIREBALL");
+	//The loops run over the arrays every step, which use SIMD when it is turned on.
+	private EntityKernels kernels = EntityKernels.create();
+	//The distance a fireball hits the hero and a pant at, or NaN to test one Graphic at a time instead.
+	private float heroHitRadius = EntityKernels.getHitRadius(fireballView, new Graphic("HERO"));
+	private float pantHitRadius = EntityKernels.getHitRadius(fireballView, pantView);
+
+	/**
+	 * This constructor initializes a new empty EntityStore.
+	 *
+	 * @param randGen is the random object used by the level.
+	 * @param capacity is the number of entities of each kind to make room for up front.
+	 */
+	public EntityStore(Random randGen, int capacity) {
+		this.randGen = randGen;
+		pants = new EntityTable(capacity);
+		fires = new EntityTable(capacity);
+		fireballs = new EntityTable(capacity);
+	}
+
+	/**
+	 * This method adds a pant to the store.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 */
+	public void addPant(float x, float y) {
+		pants.add(x, y, 0, 0);
+	}
+
+	/**
+	 * This method adds a fire to the store.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param fireballCountdown is the time in milliseconds until it shoots its first fireball.
+	 * @param heat is how much water it takes to put out.
+	 */
+	public void addFire(float x, float y, int fireballCountdown, int heat) {
+		int index = fires.add(x, y, 0, heat);
+		scheduleFire(index, fireballCountdown);
+		if(heat <= 0) {
+			addColdFire(index);
+		}
+	}
+
+	/**
+	 * This method sets when a fire that is already in the fire table shoots its next
+	 * fireball, for fires added to the table directly.
+	 *
+	 * @param index is the index of the fire.
+	 * @param fireballCountdown is the time in milliseconds until it shoots.
+	 */
+	public void scheduleFire(int index, int fireballCountdown) {
+		fireScheduler.scheduleIndex(index, fireballCountdown);
+	}
+
+	/**
+	 * This method adds a fireball to the store.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the fireball is moving in.
+	 */
+	public void addFireball(float x, float y, float direction) {
+		fireballs.add(x, y, direction, 0);
+	}
+
+	/**
+	 * This method moves every fireball, the same as Fireball.update.
+	 *
+	 * @param time How much time has passed since the last update.
+	 * @param renderer gives the size of the screen.
+	 */
+	public void updateFireballs(int time, Renderer renderer) {
+		kernels.advance(fireballs, Fireball.SPEED * time, -Fireball.OFF_SCREEN_MARGIN,
+				renderer.getWidth() + Fireball.OFF_SCREEN_MARGIN, renderer.getHeight() + Fireball.OFF_SCREEN_MARGIN);
+	}
+
+	/**
+	 * This method draws every fireball part of the way between its position before the
+	 * last step and its position now, the same as Fireball.draw.
+	 *
+	 * @param pass is the render pass the fireballs are added to.
+	 * @param alpha is how far through the next step the game is, from 0 to 1.
+	 */
+	public void drawFireballs(RenderPass pass, float alpha) {
+		for(int i = 0; i < fireballs.size; i++) {
+			float previousX = fireballs.previousX[i];
+			float previousY = fireballs.previousY[i];
+			pass.add(RenderPass.FIREBALL, previousX + (fireballs.x[i] - previousX) * alpha,
+					 previousY + (fireballs.y[i] - previousY) * alpha, fireballs.direction[i]);
+		}
+	}
+
+	/**
+	 * This method shoots new fireballs from the fires that are due, the same as
+	 * Level does for Fire objects, and puts out the fires whose heat ran out in the
+	 * last step.
+	 *
+	 * @param time How much time has passed since the last update.
+	 */
+	public void updateFires(int time) {
+		//Shoot a fireball in a random direction from every fire whose countdown has run out, in the table's order.
+		int count = fireScheduler.advanceIndexes(time);
+		for(int j = 0; j < count; j++) {
+			int i = fireScheduler.getDueIndex(j);
+			addFireball(fires.x[i], fires.y[i], randGen.nextFloat() * (float)Math.PI * 2);
+			fireScheduler.scheduleIndex(i, Fire.nextFireballCountdown(randGen));
+		}
+
+		//If the heat is reduced to 0 the fire is put out and needs to be removed. It still shot above if it was due.
+		for(int j = 0; j < coldCount; j++) {
+			int i = coldFires[j];
+			fires.alive[i] = false;
+			fireScheduler.cancelIndex(i);
+			isFireOut = true;
+		}
+		coldCount = 0;
+	}
+
+	/**
+	 * This method keeps the index of a fire whose heat has run out, so that it is put
+	 * out in the next step.
+	 *
+	 * @param index is the index of the fire, which is larger than any kept so far.
+	 */
+	private void addColdFire(int index) {
+		if(coldCount == coldFires.length) {
+			coldFires = Arrays.copyOf(coldFires, coldCount * 2);
+		}
+		coldFires[coldCount++] = index;
+	}
+
+	/**
+	 * This method draws every fire that still exists, the same as Fire.draw.
+	 *
+	 * @param pass is the render pass the fires are added to.
+	 */
+	public void drawFires(RenderPass pass) {
+		for(int i = 0; i < fires.size; i++) {
+			if(fires.alive[i]) {
+				pass.add(RenderPass.FIRE, fires.x[i], fires.y[i], 0);
+			}
+		}
+	}
+
+	/**
+	 * This method adds every living pant and fire, and every fireball, to a frame
+	 * for a SimulationThread to hand over.
+	 *
+	 * @param frame is the frame being filled in.
+	 */
+	public void capture(WorldFrame frame) {
+		for(int i = 0; i < pants.size; i++) {
+			if(pants.alive[i]) {
+				frame.add(RenderPass.PANT, pants.x[i], pants.y[i], 0);
+			}
+		}
+		for(int i = 0; i < fireballs.size; i++) {
+			frame.add(RenderPass.FIREBALL, fireballs.previousX[i], fireballs.previousY[i], fireballs.x[i],
+					  fireballs.y[i], fireballs.direction[i]);
+		}
+		for(int i = 0; i < fires.size; i++) {
+			if(fires.alive[i]) {
+				frame.add(RenderPass.FIRE, fires.x[i], fires.y[i], 0);
+			}
+		}
+	}
+
+	/**
+	 * This method puts every fireball into a spatial grid so that the collision
+	 * passes only need to look at nearby fireballs. Each fireball is filed under
+	 * the middle of the path it moved along during the last step.
+	 *
+	 * @param grid is the grid to rebuild.
+	 */
+	public void buildFireballGrid(SpatialGrid grid) {
+		grid.clear();
+		for(int i = 0; i < fireballs.size; i++) {
+			grid.insert(i, (fireballs.previousX[i] + fireballs.x[i]) / 2, (fireballs.previousY[i] + fireballs.y[i]) / 2);
+		}
+	}
+
+	/**
+	 * This method checks whether any fireball is colliding with the hero, the same as
+	 * Hero.handleFireballCollisions.
+	 *
+	 * @param hero is the hero's graphic.
+	 * @param heroPreviousX is where the hero was on the x axis before the last step.
+	 * @param heroPreviousY is where the hero was on the y axis before the last step.
+	 * @param fireballGrid is the grid built by buildFireballGrid.
+	 *
+	 * @return Return true if the hero is colliding with a fireball, otherwise return false.
+	 */
+	public boolean isHeroHit(Graphic hero, float heroPreviousX, float heroPreviousY, SpatialGrid fireballGrid) {
+		int count = fireballGrid.query((heroPreviousX + hero.getX()) / 2, (heroPreviousY + hero.getY()) / 2);
+		if(!Float.isNaN(heroHitRadius)) {
+			return kernels.findHit(fireballs, fireballGrid.getResults(), count, hero.getX(), hero.getY(),
+					heroPreviousX, heroPreviousY, heroHitRadius) != -1;
+		}
+		for(int j = 0; j < count; j++) {
+			int i = fireballGrid.getResult(j);
+			fireballView.setPosition(fireballs.x[i], fireballs.y[i]);
+			if(SweptCollision.isColliding(fireballView, fireballs.previousX[i], fireballs.previousY[i],
+										  hero, heroPreviousX, heroPreviousY)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method removes water that hits a fireball along with the fireball, the same
+	 * as Fireball.handleWaterCollisions.
+	 *
+	 * @param water holds the water objects.
+	 * @param waterGrid is the spatial grid holding the slot of every water object.
+	 * @param pools is where water that hits a fireball is released to.
+	 */
+	public void handleFireballWaterCollisions(WaterSlots water, SpatialGrid waterGrid, EntityPools pools) {
+		for(int i = 0; i < fireballs.size; i++) {
+			int count = waterGrid.query((fireballs.previousX[i] + fireballs.x[i]) / 2, 
+										(fireballs.previousY[i] + fireballs.y[i]) / 2);
+			if(count == 0) {
+				continue;
+			}
+			fireballView.setPosition(fireballs.x[i], fireballs.y[i]);
+			for(int j = 0; j < count; j++) {
+				int w = waterGrid.getResult(j);
+				Water drop = water.get(w);
+				if(drop != null && SweptCollision.isColliding(drop.getGraphic(), drop.getPreviousX(),
+						drop.getPreviousY(), fireballView, fireballs.previousX[i], fireballs.previousY[i])) {
+					fireballs.alive[i] = false;
+					pools.releaseWater(water.remove(w));
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method lowers the heat of every fire hit by water and removes that water,
+	 * the same as Fire.handleWaterCollisions.
+	 *
+	 * @param water holds the water objects.
+	 * @param waterGrid is the spatial grid holding the slot of every water object.
+	 * @param pools is where water that hits a fire is released to.
+	 */
+	public void handleFireWaterCollisions(WaterSlots water, SpatialGrid waterGrid, EntityPools pools) {
+		for(int i = 0; i < fires.size; i++) {
+			int count = waterGrid.query(fires.x[i], fires.y[i]);
+			if(count == 0) {
+				continue;
+			}
+			fireView.setPosition(fires.x[i], fires.y[i]);
+			boolean isHot = fires.heat[i] > 0;
+			for(int j = 0; j < count; j++) {
+				int w = waterGrid.getResult(j);
+				Water drop = water.get(w);
+				if(drop != null && SweptCollision.isColliding(drop.getGraphic(), drop.getPreviousX(),
+						drop.getPreviousY(), fireView, fires.x[i], fires.y[i])) {
+					pools.releaseWater(water.remove(w));
+					fires.heat[i]--;
+				}
+			}
+			if(isHot && fires.heat[i] <= 0) {
+				addColdFire(i);
+			}
+		}
+	}
+
+	/**
+	 * This method sets fire to every pant hit by a fireball, the same as
+	 * Pant.handleFireballCollisions. The fireball is destroyed, the pant is removed and
+	 * a new fire is added where it was.
+	 *
+	 * @param fireballGrid is the grid built by buildFireballGrid.
+	 * @param pantLayer is the static layer the pants are drawn from. Burned pants are removed from it.
+	 */
+	public void handlePantFireballCollisions(SpatialGrid fireballGrid, StaticLayer pantLayer) {
+		for(int i = 0; i < pants.size; i++) {
+			if(!pants.alive[i]) {
+				continue;
+			}
+			int count = fireballGrid.query(pants.x[i], pants.y[i]);
+			if(count == 0) {
+				continue;
+			}
+			//Use the first colliding fireball, the same one the array list version would pick.
+			int hit = -1;
+			if(!Float.isNaN(pantHitRadius)) {
+				hit = kernels.findHit(fireballs, fireballGrid.getResults(), count, pants.x[i], pants.y[i],
+						pants.x[i], pants.y[i], pantHitRadius);
+			} else {
+				pantView.setPosition(pants.x[i], pants.y[i]);
+				for(int j = 0; j < count; j++) {
+					int f = fireballGrid.getResult(j);
+					if(hit == -1 || f < hit) {
+						fireballView.setPosition(fireballs.x[f], fireballs.y[f]);
+						if(SweptCollision.isColliding(fireballView, fireballs.previousX[f], fireballs.previousY[f],
+													  pantView, pants.x[i], pants.y[i])) {
+							hit = f;
+						}
+					}
+				}
+			}
+			if(hit != -1) {
+				fireballs.alive[hit] = false;
+				pants.alive[i] = false;
+				if(pants.layerHandle[i] >= 0) {
+					pantLayer.remove(pants.layerHandle[i]);
+					pants.layerHandle[i] = -1;
+				}
+				addFire(pants.x[i], pants.y[i], Fire.nextFireballCountdown(randGen), Fire.STARTING_HEAT);
+			}
+		}
+	}
+
+	/**
+	 * This method removes every dead pant, fire and fireball. The fire table is only
+	 * compacted when a fire has been put out, which is the only way a fire dies.
+	 */
+	public void removeDead() {
+		fireballs.compact();
+		if(isFireOut) {
+			compactFires();
+			isFireOut = false;
+		}
+		pants.compact();
+	}
+
+	/**
+	 * This method removes every fire that has been put out, and moves the scheduled
+	 * and cold fires after it to their new indexes.
+	 */
+	private void compactFires() {
+		int kept = 0;
+		int cold = 0;
+		for(int i = 0; i < fires.size; i++) {
+			if(fires.alive[i]) {
+				if(kept != i) {
+					fireScheduler.moveIndex(i, kept);
+				}
+				//Cold fires are still alive, and are kept in order, so they are found in the same pass.
+				if(cold < coldCount && coldFires[cold] == i) {
+					coldFires[cold++] = kept;
+				}
+				kept++;
+			}
+		}
+		fires.compact();
+	}
+}
@@ -0,0 +1,148 @@
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * This class stores one kind of entity (pants, fires or fireballs) as parallel primitive arrays instead of one
+ * object per entity. Entity i is made up of x[i], y[i], direction[i] and so on, so a pass over every entity
+ * reads straight through memory instead of following a pointer to each object and its Graphic.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EntityTable {
+	//Number of entities stored in the table.
+	int size = 0;
+	//Position of each entity on the x axis.
+	float[] x;
+	//Position of each entity on the y axis.
+	float[] y;
+	//Position of each entity before the last simulation step, used to draw it between steps.
+	float[] previousX;
+	float[] previousY;
+	//Angle each entity is facing.
+	float[] direction;
+	//Cosine and sine of each direction, worked out once instead of every time the entity moves.
+	float[] directionX;
+	float[] directionY;
+	//The remaining heat of each fire.
+	int[] heat;
+	//Whether or not each entity still exists. Dead entities stay in the table until compact() is called.
+	boolean[] alive;
+	//The handle of each entity in a StaticLayer, or -1 if it is not in one.
+	int[] layerHandle;
+
+	/**
+	 * This constructor initializes a new empty EntityTable.
+	 *
+	 * @param capacity is the number of entities the table can hold before it has to grow.
+	 */
+	public EntityTable(int capacity) {
+		capacity = Math.max(capacity, 16);
+		x = new float[capacity];
+		y = new float[capacity];
+		previousX = new float[capacity];
+		previousY = new float[capacity];
+		direction = new float[capacity];
+		directionX = new float[capacity];
+		directionY = new float[capacity];
+		heat = new int[capacity];
+		alive = new boolean[capacity];
+		layerHandle = new int[capacity];
+	}
+
+	/**
+	 * This method adds a new living entity to the end of the table.
+	 *
+	 * @param newX is the position on the x axis.
+	 * @param newY is the position on the y axis.
+	 * @param newDirection is the angle the entity is facing.
+	 * @param newHeat is the starting heat of the entity.
+	 *
+	 * @return The index of the new entity.
+	 */
+	public int add(float newX, float newY, float newDirection, int newHeat) {
+		if(size == x.length) {
+			grow();
+		}
+		x[size] = newX;
+		y[size] = newY;
+		previousX[size] = newX;
+		previousY[size] = newY;
+		direction[size] = newDirection;
+		directionX[size] = (float)Math.cos(newDirection);
+		directionY[size] = (float)Math.sin(newDirection);
+		heat[size] = newHeat;
+		alive[size] = true;
+		layerHandle[size] = -1;
+		return size++;
+	}
+
+	/**
+	 * This method adds many living entities at once, copying their positions 
+	 * straight out of two buffers. The new entities face direction 0 and have no 
+	 * heat until the caller sets it.
+	 *
+	 * @param xs holds the positions on the x axis, starting at its current position.
+	 * @param ys holds the positions on the y axis, starting at its current position.
+	 * @param count is the number of entities to add.
+	 */
+	public void addAll(FloatBuffer xs, FloatBuffer ys, int count) {
+		while(size + count > x.length) {
+			grow();
+		}
+		xs.get(x, size, count);
+		ys.get(y, size, count);
+		System.arraycopy(x, size, previousX, size, count);
+		System.arraycopy(y, size, previousY, size, count);
+		Arrays.fill(direction, size, size + count, 0);
+		Arrays.fill(directionX, size, size + count, 1);
+		Arrays.fill(directionY, size, size + count, 0);
+		Arrays.fill(heat, size, size + count, 0);
+		Arrays.fill(alive, size, size + count, true);
+		Arrays.fill(layerHandle, size, size + count, -1);
+		size += count;
+	}
+
+	/**
+	 * This method removes every dead entity in a single pass, sliding the living
+	 * entities down so that they stay in the same order.
+	 */
+	public void compact() {
+		int kept = 0;
+		for(int i = 0; i < size; i++) {
+			if(alive[i]) {
+				if(kept != i) {
+					x[kept] = x[i];
+					y[kept] = y[i];
+					previousX[kept] = previousX[i];
+					previousY[kept] = previousY[i];
+					direction[kept] = direction[i];
+					directionX[kept] = directionX[i];
+					directionY[kept] = directionY[i];
+					heat[kept] = heat[i];
+					alive[kept] = true;
+					layerHandle[kept] = layerHandle[i];
+				}
+				kept++;
+			}
+		}
+		size = kept;
+	}
+
+	/**
+	 * This method doubles the capacity of every array in the table.
+	 */
+	private void grow() {
+		int capacity = x.length * 2;
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		previousX = Arrays.copyOf(previousX, capacity);
+		previousY = Arrays.copyOf(previousY, capacity);
+		direction = Arrays.copyOf(direction, capacity);
+		directionX = Arrays.copyOf(directionX, capacity);
+		directionY = Arrays.copyOf(directionY, capacity);
+		heat = Arrays.copyOf(heat, capacity);
+		alive = Arrays.copyOf(alive, capacity);
+		layerHandle = Arrays.copyOf(layerHandle, capacity);
+	}
+}
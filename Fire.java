@@ -1,8 +1,8 @@
 import java.util.Random;
 
 /**
- * This is the class that manages the fire objects. It contains the fire's constructor as well as the fire's update 
- * method and the collision method between fire objects and water objects.
+ * This is the class that manages the fire objects. It contains the fire's constructor as well as the method that 
+ * shoots its fireballs and the collision method between fire objects and water objects.
  * 
  * @author Matt Derzay
  * @version 1.0
@@ -14,10 +14,18 @@ public class Fire {
 	private Random randGen; 
 	//Countdown until the next fireball is fired.
 	private int fireballCountdown; 
+	//Heat of a fire when it starts.
+	static final int STARTING_HEAT = 40;
 	//Life of the fire.
-	private int heat = 40; 
+	private int heat = STARTING_HEAT; 
 	//Whether or not the fire has been put out.
 	boolean isAlive = true; 
+	//When the level's FireScheduler will have this fire shoot next, on the level's clock.
+	long fireballTime;
+	//The order the fire was added to the FireScheduler in.
+	long order;
+	//The position of the fire in the FireScheduler's heap, or -1 if it is not scheduled.
+	int heapIndex = -1;
 	
 	/**
 	 * This constructor initializes a new Fire object. It sets the position in 
@@ -31,7 +39,47 @@ public class Fire {
 		this.randGen = randGen;
 		graphic.setX(x);
 		graphic.setY(y);
-		fireballCountdown = randGen.nextInt(3000) + 3000;
+		fireballCountdown = nextFireballCountdown(randGen);
+	}
+	
+	/**
+	 * This method puts a fire that came from EntityPools back into the state 
+	 * of a brand new fire at the given position.
+	 * 
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param randGen is the random object passed in to generate random numbers.
+	 */
+	void reset(float x, float y, Random randGen) {
+		this.randGen = randGen;
+		graphic.setX(x);
+		graphic.setY(y);
+		heat = STARTING_HEAT;
+		isAlive = true;
+		fireballCountdown = nextFireballCountdown(randGen);
+	}
+	
+	/**
+	 * This method sets the heat of a living fire, when a level is restored from a
+	 * LevelSnapshot.
+	 *
+	 * @param heat is the heat the fire had when it was saved.
+	 */
+	void restore(int heat) {
+		this.heat = heat;
+		isAlive = true;
+	}
+
+	/**
+	 * This method picks a random time between 3 and 6 seconds until a fire
+	 * shoots its next fireball.
+	 * 
+	 * @param randGen is the random object used to pick the time.
+	 * 
+	 * @return The countdown in milliseconds.
+	 */
+	static int nextFireballCountdown(Random randGen) {
+		return randGen.nextInt(3000) + 3000;
 	}
 	
 	/**
@@ -45,53 +93,73 @@ public class Fire {
 	}
 	
 	/**
-	 * This method updates the fire object. It checks if the heat is above 
-	 * zero(still alive) and counts a random amount between 3 and 6 seconds
-	 * to where it will shoot a new fireball in a random direction.
+	 * This is an accessor method for the countdown the fire was given when it last
+	 * shot, or when it was created. The level's FireScheduler gives the time left 
+	 * until its next fireball.
 	 * 
-	 * @param time How much time has passed since the last time this method
-	 * was called.
+	 * @return The countdown in milliseconds.
+	 */
+	public int getFireballCountdown() {
+		return fireballCountdown;
+	}
+	
+	/**
+	 * This is an accessor method for the remaining heat of the fire.
 	 * 
-	 * @return A fireball that is shot from the fire in a random direction.
+	 * @return The heat of the fire.
 	 */
-	public Fireball update(int time) {	
-		//If the heat is reduced to 0 the fire is put out and needs to be removed.
-		if(heat <= 0) {
-			isAlive = false;
-		}
-		
-		//Only draw if the fire still exists.
+	public int getHeat() {
+		return heat;
+	}
+	
+	/**
+	 * This method shoots a fireball in a random direction and picks a new countdown
+	 * until the next one.
+	 * 
+	 * @param pools is where the new fireball is taken from.
+	 * 
+	 * @return The new fireball.
+	 */
+	Fireball shoot(EntityPools pools) {
+		Fireball fireball = pools.acquireFireball(graphic.getX(), graphic.getY(), 
+													randGen.nextFloat() * (float)Math.PI * 2);
+		//Set the timer back to a time between 3 ad 6 seconds.
+		fireballCountdown = nextFireballCountdown(randGen);
+		return fireball;
+	}
+	
+	/**
+	 * This method draws the fire if it still exists.
+	 * 
+	 * @param pass is the render pass the fire is added to.
+	 */
+	public void draw(RenderPass pass) {
 		if(isAlive) {
-			graphic.draw();
+			pass.add(RenderPass.FIRE, graphic.getX(), graphic.getY(), graphic.getDirection());
 		}
-			
-		//Subtract the countdown by the amount of time has passed since the last time this method was called.
-		fireballCountdown -= time;
-		
-		if(fireballCountdown <= 0) {
-			//Create a new fireball when the timer reaches 0.
-			Fireball fireball = new Fireball(graphic.getX(), graphic.getY(), randGen.nextFloat() * (float)Math.PI * 2);
-			//Set the timer back to a time between 3 ad 6 seconds.
-			fireballCountdown = randGen.nextInt(3000) + 3000;
-			return fireball;
-		}
-		return null;
-	}	
+	}
 	
 	/**
-	 * This method cycles through the water array to see if any are colliding 
-	 * with the fire object.
+	 * This method asks the water grid for the water objects near the fire and 
+	 * checks whether any of them passed through the fire object during the last 
+	 * step.
 	 * 
-	 * @param water is the array of water objects.
+	 * @param water holds the water objects.
+	 * @param waterGrid is the spatial grid holding the slot of every water object.
+	 * @param pools is where water that hits the fire is released to.
 	 */
-	public void handleWaterCollisions(Water[] water) {
-		//Cycle through the water array.
-		for(int i = 0; i < water.length; i++) {
-			if(water[i] != null) {
+	public void handleWaterCollisions(WaterSlots water, SpatialGrid waterGrid, EntityPools pools) {
+		//Cycle through the water objects near the fire.
+		int count = waterGrid.query(graphic.getX(), graphic.getY());
+		for(int j = 0; j < count; j++) {
+			int slot = waterGrid.getResult(j);
+			Water drop = water.get(slot);
+			if(drop != null) {
 				//If the water object exists then check to see if it is colliding with the fire object.
-				if(water[i].getGraphic().isCollidingWith(getGraphic())) {
+				if(SweptCollision.isColliding(drop.getGraphic(), drop.getPreviousX(), drop.getPreviousY(),
+											  graphic, graphic.getX(), graphic.getY())) {
 					//Remove the water and reduce the heat of the fire.
-					water[i] = null;
+					pools.releaseWater(water.remove(slot));
 					heat--;
 				}
 			}
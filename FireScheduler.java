@@ -0,0 +1,478 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class decides when each fire in a Level shoots its next fireball. Instead of every fire counting down
+ * its own timer on every step, each fire is given the time on the level's clock when it will next shoot, and
+ * the fires are kept in a binary min-heap ordered by that time. A step then only looks at the fires that are
+ * due, which is a handful out of however many fires there are.
+ *
+ * Fires that are due in the same step shoot in the order they were added to the level, which is the order of
+ * the level's fire list. So fireballs are created, and the Random is used, in exactly the same order as when
+ * every fire counted down its own timer.
+ *
+ * The fires of an EntityStore are not objects, so a scheduler can keep them by their index in the store's fire
+ * table instead, in a second heap ordered by fireball time and then by index. The store keeps its fires in the
+ * order they were added, so the index breaks ties the same way. A scheduler holds either Fire objects or indexes,
+ * since both kinds move the same clock.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class FireScheduler {
+	//The scheduled fires, as a binary min-heap ordered by fireball time and then by the order they were added.
+	private Fire[] heap = new Fire[64];
+	//Number of fires in the heap.
+	private int size = 0;
+	//Time in milliseconds that the level has been running for.
+	private long clock = 0;
+	//The order the next fire added will be given.
+	private long nextOrder = 0;
+	//The fires that are due in the current step.
+	private Fire[] due = new Fire[16];
+
+	//The indexes of scheduled fires, as a binary min-heap ordered by fireball time and then by index.
+	private int[] indexHeap = new int[64];
+	private int indexCount = 0;
+	//The fireball time of each index, and its position in the index heap, or -1 if it is not scheduled.
+	private long[] indexTimes = new long[64];
+	private int[] indexPositions = new int[64];
+	//The indexes that are due in the current step, in order.
+	private int[] dueIndexes = new int[16];
+
+	/**
+	 * This constructor initializes a new FireScheduler with no fires and the clock
+	 * at 0.
+	 */
+	public FireScheduler() {
+		Arrays.fill(indexPositions, -1);
+	}
+
+	/**
+	 * This method adds a fire, which will shoot its first fireball once its
+	 * fireball countdown has passed.
+	 *
+	 * @param fire is the fire to add.
+	 */
+	public void schedule(Fire fire) {
+		fire.order = nextOrder++;
+		fire.fireballTime = clock + fire.getFireballCountdown();
+		insert(fire);
+	}
+
+	/**
+	 * This method removes a fire so that it never shoots again.
+	 *
+	 * @param fire is the fire to remove. Nothing happens if it is not scheduled.
+	 */
+	public void cancel(Fire fire) {
+		int index = fire.heapIndex;
+		if(index < 0) {
+			return;
+		}
+		fire.heapIndex = -1;
+		size--;
+		if(index != size) {
+			//Move the last fire into the gap and put it back in order.
+			Fire last = heap[size];
+			heap[index] = last;
+			last.heapIndex = index;
+			siftUp(index);
+			siftDown(last.heapIndex);
+		}
+		heap[size] = null;
+	}
+
+	/**
+	 * This method removes every fire.
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			heap[i].heapIndex = -1;
+			heap[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * This method moves the clock forward and has every fire whose countdown has run
+	 * out shoot a fireball, the same as if every fire counted down its own timer.
+	 *
+	 * @param time is how much time has passed since the last step.
+	 * @param fireballs is the list the new fireballs are added to.
+	 * @param pools is where the new fireballs are taken from.
+	 *
+	 * @return The number of fireballs shot.
+	 */
+	public int advance(int time, ArrayList<Fireball> fireballs, EntityPools pools) {
+		clock += time;
+
+		//Take every due fire off the heap.
+		int count = 0;
+		while(size > 0 && heap[0].fireballTime <= clock) {
+			Fire fire = heap[0];
+			cancel(fire);
+			if(count == due.length) {
+				Fire[] longer = new Fire[count * 2];
+				System.arraycopy(due, 0, longer, 0, count);
+				due = longer;
+			}
+			due[count++] = fire;
+		}
+
+		//Put them in the order they were added, which is rarely more than a few fires.
+		for(int i = 1; i < count; i++) {
+			Fire fire = due[i];
+			int j = i - 1;
+			while(j >= 0 && due[j].order > fire.order) {
+				due[j + 1] = due[j];
+				j--;
+			}
+			due[j + 1] = fire;
+		}
+
+		//Shoot, then schedule the next fireball of each fire, keeping its place in the order.
+		for(int i = 0; i < count; i++) {
+			Fire fire = due[i];
+			due[i] = null;
+			fireballs.add(fire.shoot(pools));
+			fire.fireballTime = clock + fire.getFireballCountdown();
+			insert(fire);
+		}
+		return count;
+	}
+
+	/**
+	 * This method works out how long a scheduled fire has until its next fireball.
+	 *
+	 * @param fire is a scheduled fire.
+	 *
+	 * @return The countdown in milliseconds.
+	 */
+	public int getCountdown(Fire fire) {
+		return (int)(fire.fireballTime - clock);
+	}
+
+	/**
+	 * This is an accessor method for how long the level has been running.
+	 *
+	 * @return The clock in milliseconds.
+	 */
+	public long getClock() {
+		return clock;
+	}
+
+	/**
+	 * This is an accessor method for the order the next fire added will be given.
+	 *
+	 * @return The next order.
+	 */
+	public long getNextOrder() {
+		return nextOrder;
+	}
+
+	/**
+	 * This method removes every fire and sets the clock and the next order back to
+	 * what they were when a level was saved, before its fires are put back with
+	 * reschedule.
+	 *
+	 * @param clock is the saved clock in milliseconds.
+	 * @param nextOrder is the saved next order.
+	 */
+	public void restore(long clock, long nextOrder) {
+		clear();
+		this.clock = clock;
+		this.nextOrder = nextOrder;
+	}
+
+	/**
+	 * This method adds a fire that keeps the fireball time and order it already
+	 * has, instead of being given new ones like schedule does.
+	 *
+	 * @param fire is the fire to add.
+	 */
+	public void reschedule(Fire fire) {
+		insert(fire);
+	}
+
+	/**
+	 * This is an accessor method for the number of scheduled fires.
+	 *
+	 * @return The number of fires.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method schedules the fire at an index to shoot its next fireball once the
+	 * given countdown has passed. A fire that is already scheduled is moved to the new
+	 * time.
+	 *
+	 * @param index is the index of the fire.
+	 * @param countdown is the time in milliseconds until it shoots.
+	 */
+	public void scheduleIndex(int index, int countdown) {
+		if(index >= indexTimes.length) {
+			int length = Math.max(indexTimes.length * 2, index + 1);
+			indexTimes = Arrays.copyOf(indexTimes, length);
+			int old = indexPositions.length;
+			indexPositions = Arrays.copyOf(indexPositions, length);
+			Arrays.fill(indexPositions, old, length, -1);
+		}
+		indexTimes[index] = clock + countdown;
+		int position = indexPositions[index];
+		if(position < 0) {
+			if(indexCount == indexHeap.length) {
+				indexHeap = Arrays.copyOf(indexHeap, indexCount * 2);
+			}
+			position = indexCount++;
+			indexHeap[position] = index;
+			indexPositions[index] = position;
+		}
+		siftIndexUp(position);
+		siftIndexDown(indexPositions[index]);
+	}
+
+	/**
+	 * This method removes the fire at an index so that it never shoots again.
+	 *
+	 * @param index is the index of the fire. Nothing happens if it is not scheduled.
+	 */
+	public void cancelIndex(int index) {
+		int position = index < indexPositions.length ? indexPositions[index] : -1;
+		if(position < 0) {
+			return;
+		}
+		indexPositions[index] = -1;
+		indexCount--;
+		if(position != indexCount) {
+			//Move the last index into the gap and put it back in order.
+			int last = indexHeap[indexCount];
+			indexHeap[position] = last;
+			indexPositions[last] = position;
+			siftIndexUp(position);
+			siftIndexDown(indexPositions[last]);
+		}
+	}
+
+	/**
+	 * This method gives a scheduled fire a new index, when the fires before it in the
+	 * store have been removed. The fire keeps its place in the heap, since removing
+	 * fires never changes the order of the ones that are left.
+	 *
+	 * @param from is the fire's old index.
+	 * @param to is its new index, which must not be scheduled.
+	 */
+	public void moveIndex(int from, int to) {
+		int position = indexPositions[from];
+		if(position < 0) {
+			return;
+		}
+		indexPositions[from] = -1;
+		indexHeap[position] = to;
+		indexPositions[to] = position;
+		indexTimes[to] = indexTimes[from];
+	}
+
+	/**
+	 * This method removes every index.
+	 */
+	public void clearIndexes() {
+		for(int i = 0; i < indexCount; i++) {
+			indexPositions[indexHeap[i]] = -1;
+		}
+		indexCount = 0;
+	}
+
+	/**
+	 * This method moves the clock forward and takes every index whose countdown has
+	 * run out off the heap. The caller shoots a fireball from each one, in order, and
+	 * schedules its next one with scheduleIndex.
+	 *
+	 * @param time is how much time has passed since the last step.
+	 *
+	 * @return The number of due indexes, which are read with getDueIndex.
+	 */
+	public int advanceIndexes(int time) {
+		clock += time;
+
+		int count = 0;
+		while(indexCount > 0 && indexTimes[indexHeap[0]] <= clock) {
+			int index = indexHeap[0];
+			cancelIndex(index);
+			if(count == dueIndexes.length) {
+				dueIndexes = Arrays.copyOf(dueIndexes, count * 2);
+			}
+			dueIndexes[count++] = index;
+		}
+
+		//Put them in the order they were added, which is rarely more than a few fires.
+		for(int i = 1; i < count; i++) {
+			int index = dueIndexes[i];
+			int j = i - 1;
+			while(j >= 0 && dueIndexes[j] > index) {
+				dueIndexes[j + 1] = dueIndexes[j];
+				j--;
+			}
+			dueIndexes[j + 1] = index;
+		}
+		return count;
+	}
+
+	/**
+	 * This is an accessor method for one of the indexes taken by advanceIndexes.
+	 *
+	 * @param i is which of the due indexes to get, from 0.
+	 *
+	 * @return The index of the fire.
+	 */
+	public int getDueIndex(int i) {
+		return dueIndexes[i];
+	}
+
+	/**
+	 * This method works out how long the fire at a scheduled index has until its next
+	 * fireball.
+	 *
+	 * @param index is the index of a scheduled fire.
+	 *
+	 * @return The countdown in milliseconds.
+	 */
+	public int getIndexCountdown(int index) {
+		return (int)(indexTimes[index] - clock);
+	}
+
+	/**
+	 * This method adds a fire to the heap.
+	 *
+	 * @param fire is the fire to add. Its fireball time must already be set.
+	 */
+	private void insert(Fire fire) {
+		if(size == heap.length) {
+			Fire[] larger = new Fire[size * 2];
+			System.arraycopy(heap, 0, larger, 0, size);
+			heap = larger;
+		}
+		heap[size] = fire;
+		fire.heapIndex = size;
+		size++;
+		siftUp(size - 1);
+	}
+
+	/**
+	 * This method moves a fire up the heap until its parent is due before it.
+	 *
+	 * @param index is the position of the fire in the heap.
+	 */
+	private void siftUp(int index) {
+		Fire fire = heap[index];
+		while(index > 0) {
+			int parent = (index - 1) / 2;
+			if(!isBefore(fire, heap[parent])) {
+				break;
+			}
+			heap[index] = heap[parent];
+			heap[index].heapIndex = index;
+			index = parent;
+		}
+		heap[index] = fire;
+		fire.heapIndex = index;
+	}
+
+	/**
+	 * This method moves a fire down the heap until both of its children are due after it.
+	 *
+	 * @param index is the position of the fire in the heap.
+	 */
+	private void siftDown(int index) {
+		Fire fire = heap[index];
+		while(true) {
+			int child = index * 2 + 1;
+			if(child >= size) {
+				break;
+			}
+			if(child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if(!isBefore(heap[child], fire)) {
+				break;
+			}
+			heap[index] = heap[child];
+			heap[index].heapIndex = index;
+			index = child;
+		}
+		heap[index] = fire;
+		fire.heapIndex = index;
+	}
+
+	/**
+	 * This method moves an index up the index heap until its parent is due before it.
+	 *
+	 * @param position is the position of the index in the heap.
+	 */
+	private void siftIndexUp(int position) {
+		int index = indexHeap[position];
+		while(position > 0) {
+			int parent = (position - 1) / 2;
+			if(!isIndexBefore(index, indexHeap[parent])) {
+				break;
+			}
+			indexHeap[position] = indexHeap[parent];
+			indexPositions[indexHeap[position]] = position;
+			position = parent;
+		}
+		indexHeap[position] = index;
+		indexPositions[index] = position;
+	}
+
+	/**
+	 * This method moves an index down the index heap until both of its children are due after it.
+	 *
+	 * @param position is the position of the index in the heap.
+	 */
+	private void siftIndexDown(int position) {
+		int index = indexHeap[position];
+		while(true) {
+			int child = position * 2 + 1;
+			if(child >= indexCount) {
+				break;
+			}
+			if(child + 1 < indexCount && isIndexBefore(indexHeap[child + 1], indexHeap[child])) {
+				child++;
+			}
+			if(!isIndexBefore(indexHeap[child], index)) {
+				break;
+			}
+			indexHeap[position] = indexHeap[child];
+			indexPositions[indexHeap[position]] = position;
+			position = child;
+		}
+		indexHeap[position] = index;
+		indexPositions[index] = position;
+	}
+
+	/**
+	 * This method compares the fires at two indexes.
+	 *
+	 * @param a is the first index.
+	 * @param b is the second index.
+	 *
+	 * @return Return true if a is due before b, otherwise return false.
+	 */
+	private boolean isIndexBefore(int a, int b) {
+		return indexTimes[a] < indexTimes[b] || (indexTimes[a] == indexTimes[b] && a < b);
+	}
+
+	/**
+	 * This method compares two fires.
+	 *
+	 * @param a is the first fire.
+	 * @param b is the second fire.
+	 *
+	 * @return Return true if a is due before b, otherwise return false.
+	 */
+	private static boolean isBefore(Fire a, Fire b) {
+		return a.fireballTime < b.fireballTime || (a.fireballTime == b.fireballTime && a.order < b.order);
+	}
+}
@@ -9,9 +9,14 @@ public class Fireball {
 	//Initialize the graphic to the FIREBALL file.
 	private Graphic graphic = new Graphic("FIREBALL");
 	//A multiplier to make the graphic move farther each time it is updated.
-	private float speed = 0.2f;
+	static final float SPEED = 0.2f;
+	//How far off the screen in pixels a fireball can go before it is removed.
+	static final int OFF_SCREEN_MARGIN = 100;
 	//Whether or not the fireball still exists.
 	private boolean isAlive = true;
+	//Position of the fireball before the last update, used to draw it between updates.
+	private float previousX;
+	private float previousY;
 	 
 	/**
 	 * This constructor initializes a new Fireball object. It sets the position in 
@@ -26,6 +31,57 @@ public class Fireball {
 		graphic.setX(x);
 		graphic.setY(y);
 		graphic.setDirection(directionAngle);
+		previousX = x;
+		previousY = y;
+	}
+	
+	/**
+	 * This method puts a fireball that came from EntityPools back into the 
+	 * state of a brand new fireball.
+	 * 
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param directionAngle is the angle which the fireball is facing.
+	 */
+	void reset(float x, float y, float directionAngle) {
+		graphic.setX(x);
+		graphic.setY(y);
+		graphic.setDirection(directionAngle);
+		previousX = x;
+		previousY = y;
+		isAlive = true;
+	}
+
+	/**
+	 * This method sets where the fireball was before the last update, when a level
+	 * is restored from a LevelSnapshot.
+	 *
+	 * @param previousX is the previous position on the x axis.
+	 * @param previousY is the previous position on the y axis.
+	 */
+	void restore(float previousX, float previousY) {
+		this.previousX = previousX;
+		this.previousY = previousY;
+	}
+
+	/**
+	 * This is an accessor method for where the fireball was on the x axis before the 
+	 * last update.
+	 * 
+	 * @return The previous position on the x axis.
+	 */
+	public float getPreviousX() {
+		return previousX;
+	}
+	
+	/**
+	 * This is an accessor method for where the fireball was on the y axis before the 
+	 * last update.
+	 * 
+	 * @return The previous position on the y axis.
+	 */
+	public float getPreviousY() {
+		return previousY;
 	}
 	
 	/**
@@ -43,39 +99,61 @@ public class Fireball {
 	 * if the object goes to far off the screen is destroyed.
 	 * 
 	 * @param time How much time has passed since the last time this method was called.
+	 * @param renderer gives the size of the screen.
 	 */
-	public void update(int time) {
+	public void update(int time, Renderer renderer) {
+		previousX = graphic.getX();
+		previousY = graphic.getY();
+		
 		//Only update if the object still exists.
 		if(isAlive == true) {	
 			//If the fireball is 100 or move pixels off the screen, remove it from the game.
-			if(graphic.getX() <= -100 || graphic.getX() >= GameEngine.getWidth() + 100 || graphic.getY() <= -100 ||
-			   graphic.getY() >= GameEngine.getHeight() + 100) {
+			if(graphic.getX() <= -OFF_SCREEN_MARGIN || graphic.getX() >= renderer.getWidth() + OFF_SCREEN_MARGIN || 
+			   graphic.getY() <= -OFF_SCREEN_MARGIN || graphic.getY() >= renderer.getHeight() + OFF_SCREEN_MARGIN) {
 				isAlive = false;
 			}
 			
 			//Move forward.
-			graphic.setX(graphic.getX() + graphic.getDirectionX() * (speed * time));
-			graphic.setY(graphic.getY() + graphic.getDirectionY() * (speed * time));
-			
-			graphic.draw(); 
+			graphic.setX(graphic.getX() + graphic.getDirectionX() * (SPEED * time));
+			graphic.setY(graphic.getY() + graphic.getDirectionY() * (SPEED * time));
 		}
 	}
 	
 	/**
-	 * This method cycles through the water array to see if any are colliding 
-	 * with the fireball object.
+	 * This method draws the fireball part of the way between where it was before the 
+	 * last simulation step and where it is now, so that movement looks smooth even 
+	 * though the simulation runs in fixed steps.
+	 * 
+	 * @param pass is the render pass the fireball is added to.
+	 * @param alpha is how far through the next step the game is, from 0 to 1.
+	 */
+	public void draw(RenderPass pass, float alpha) {
+		pass.add(RenderPass.FIREBALL, previousX + (graphic.getX() - previousX) * alpha, 
+				 previousY + (graphic.getY() - previousY) * alpha, graphic.getDirection());
+	}
+	
+	/**
+	 * This method asks the water grid for the water objects near the fireball and 
+	 * checks whether any of them collided with the fireball object at any point 
+	 * during the last step.
 	 * 
-	 * @param water is the array of water objects.
+	 * @param water holds the water objects.
+	 * @param waterGrid is the spatial grid holding the slot of every water object.
+	 * @param pools is where water that hits the fireball is released to.
 	 */
-	public void handleWaterCollisions(Water[] water) {
-		//Cycle through the water array.
-		for(int i = 0; i < water.length; i++) {
-			if(water[i] != null) {
+	public void handleWaterCollisions(WaterSlots water, SpatialGrid waterGrid, EntityPools pools) {
+		//Cycle through the water objects near the fireball.
+		int count = waterGrid.query((previousX + graphic.getX()) / 2, (previousY + graphic.getY()) / 2);
+		for(int j = 0; j < count; j++) {
+			int slot = waterGrid.getResult(j);
+			Water drop = water.get(slot);
+			if(drop != null) {
 				//If the water object exists, check to see if it is colliding with the fireball object.
-				if(water[i].getGraphic().isCollidingWith(getGraphic())) {
+				if(SweptCollision.isColliding(drop.getGraphic(), drop.getPreviousX(), drop.getPreviousY(),
+											  graphic, previousX, previousY)) {
 					//If it is colliding, remove the fireball and water objects.
 					this.isAlive = false;
-					water[i] = null;
+					pools.releaseWater(water.remove(slot));
 				}
 			}
 		}
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import javax.management.ObjectName;
+
+/**
+ * This class measures how long each phase of a Level's update takes, along with the number of entities and the
+ * bytes allocated in every frame. Every measurement goes into a Histogram, so recording a sample never allocates.
+ *
+ * A Level only calls its profiler if it has one, so a level without a profiler pays for a single null check per
+ * phase. GameEngine levels are profiled when the game is started with -Dpantsonfire.profile=on. The profiler can
+ * then be watched through JMX, written to a CSV file when the game exits with -Dpantsonfire.profile.csv=<file>,
+ * and shown under the HUD with -Dpantsonfire.profile.hud=on.
+ *
+ * Measurements are recorded by the thread updating the level. Other threads, such as JMX, may read them while
+ * they are being recorded, so a read may be off by the frame in progress.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class FrameProfiler implements FrameProfilerMBean {
+	//The phases of a step, in the order Level runs them.
+	static final int HERO = 0;
+	static final int WATER = 1;
+	static final int FIREBALLS = 2;
+	static final int FIRES = 3;
+	static final int GRIDS = 4;
+	static final int HERO_COLLISIONS = 5;
+	static final int FIREBALL_WATER_COLLISIONS = 6;
+	static final int FIRE_WATER_COLLISIONS = 7;
+	static final int PANT_FIREBALL_COLLISIONS = 8;
+	static final int REMOVAL = 9;
+	static final int CHECKS = 10;
+	//Drawing, which happens once per frame after the steps.
+	static final int RENDER = 11;
+	//The whole frame, from the start of update to the end.
+	static final int FRAME = 12;
+	//Counters recorded once per frame.
+	static final int PANTS = 13;
+	static final int FIRES_LEFT = 14;
+	static final int FIREBALLS_LEFT = 15;
+	static final int WATER_LEFT = 16;
+	static final int ALLOCATED_BYTES = 17;
+	//The name of each phase and counter, in the CSV file and summary.
+	static final String[] NAMES = {"hero", "water", "fireballs", "fires", "grids", "hero collisions",
+		"fireball water collisions", "fire water collisions", "pant fireball collisions", "removal", "checks",
+		"render", "frame", "pants", "fires left", "fireballs left", "water left", "allocated bytes"};
+
+	//The system properties that profile GameEngine levels.
+	static final String PROFILE_PROPERTY = "pantsonfire.profile";
+	static final String CSV_PROPERTY = "pantsonfire.profile.csv";
+	static final String HUD_PROPERTY = "pantsonfire.profile.hud";
+	//The profiler shared by every GameEngine level, created the first time it is needed.
+	private static FrameProfiler engineProfiler;
+
+	//One histogram for each phase and counter.
+	private Histogram[] histograms = new Histogram[NAMES.length];
+	//When the phase being measured started, and when the current frame started.
+	private long phaseStart;
+	private long frameStart;
+	//The bytes this thread had allocated when the frame started.
+	private long allocatedAtStart;
+	//The number of bytes allocated during the last frame.
+	private long lastAllocated = -1;
+	//Whether or not the overlay is added to the HUD.
+	private volatile boolean overlayShown = false;
+	//Reads how many bytes a thread has allocated, or null if the JVM cannot.
+	private com.sun.management.ThreadMXBean threads;
+
+	/**
+	 * This constructor initializes a new FrameProfiler with no measurements.
+	 */
+	public FrameProfiler() {
+		for(int i = 0; i < histograms.length; i++) {
+			histograms[i] = new Histogram();
+		}
+		if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+			if(!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+				threads = null;
+			}
+		}
+	}
+
+	/**
+	 * This method returns the profiler for GameEngine levels, creating it and
+	 * registering it with JMX the first time.
+	 *
+	 * @return The profiler, or null if the game was not started with -Dpantsonfire.profile=on.
+	 */
+	static synchronized FrameProfiler getEngineProfiler() {
+		if(engineProfiler == null && isOn(PROFILE_PROPERTY)) {
+			final FrameProfiler profiler = new FrameProfiler();
+			profiler.overlayShown = isOn(HUD_PROPERTY);
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(profiler,
+						new ObjectName("PantsOnFire:type=FrameProfiler"));
+			} catch(Exception e) {
+				System.err.println("Could not register the frame profiler with JMX: " + e.getMessage());
+			}
+			final String csv = System.getProperty(CSV_PROPERTY);
+			if(csv != null) {
+				Runtime.getRuntime().addShutdownHook(new Thread() {
+					public void run() {
+						try {
+							profiler.writeCsv(csv);
+						} catch(IOException e) {
+							System.err.println("Could not write the frame profile: " + e.getMessage());
+						}
+					}
+				});
+			}
+			engineProfiler = profiler;
+		}
+		return engineProfiler;
+	}
+
+	/**
+	 * This method starts measuring a frame.
+	 */
+	public void beginFrame() {
+		if(threads != null) {
+			allocatedAtStart = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		frameStart = System.nanoTime();
+		phaseStart = frameStart;
+	}
+
+	/**
+	 * This method starts measuring the first phase of a step.
+	 */
+	public void beginStep() {
+		phaseStart = System.nanoTime();
+	}
+
+	/**
+	 * This method ends the phase being measured and starts the next one.
+	 *
+	 * @param phase is the phase that has just finished, such as HERO.
+	 */
+	public void endPhase(int phase) {
+		long now = System.nanoTime();
+		histograms[phase].record(now - phaseStart);
+		phaseStart = now;
+	}
+
+	/**
+	 * This method finishes measuring a frame.
+	 *
+	 * @param pants is the number of pants left.
+	 * @param fires is the number of fires left.
+	 * @param fireballs is the number of fireballs left.
+	 * @param water is the number of water objects left.
+	 */
+	public void endFrame(int pants, int fires, int fireballs, int water) {
+		histograms[FRAME].record(System.nanoTime() - frameStart);
+		histograms[PANTS].record(pants);
+		histograms[FIRES_LEFT].record(fires);
+		histograms[FIREBALLS_LEFT].record(fireballs);
+		histograms[WATER_LEFT].record(water);
+		if(threads != null) {
+			lastAllocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedAtStart;
+			histograms[ALLOCATED_BYTES].record(lastAllocated);
+		}
+	}
+
+	/**
+	 * This method returns a few lines about the frames so far, to show under the HUD.
+	 *
+	 * @return The overlay text, or an empty string if the overlay is not shown.
+	 */
+	public String getOverlay() {
+		if(!overlayShown) {
+			return "";
+		}
+		//Find the step phase that takes the most time overall.
+		int slowest = HERO;
+		for(int i = HERO; i <= RENDER; i++) {
+			if(histograms[i].getTotal() > histograms[slowest].getTotal()) {
+				slowest = i;
+			}
+		}
+		return String.format("%nFrame: %.2f ms (p99 %.2f ms)%nSlowest: %s %.3f ms%nAllocated: %d B/frame",
+				getMeanFrameMillis(), getP99FrameMillis(), NAMES[slowest], histograms[slowest].getMean() / 1e6,
+				lastAllocated);
+	}
+
+	public long getFrameCount() {
+		return histograms[FRAME].getCount();
+	}
+
+	public double getMeanFrameMillis() {
+		return histograms[FRAME].getMean() / 1e6;
+	}
+
+	public double getP99FrameMillis() {
+		return histograms[FRAME].getPercentile(0.99) / 1e6;
+	}
+
+	public long getLastAllocatedBytes() {
+		return lastAllocated;
+	}
+
+	public String[] getSummary() {
+		String[] summary = new String[NAMES.length];
+		for(int i = 0; i < NAMES.length; i++) {
+			Histogram histogram = histograms[i];
+			summary[i] = String.format("%s: %d samples, mean %.1f, p50 %d, p99 %d, max %d%s", NAMES[i],
+					histogram.getCount(), histogram.getMean(), histogram.getPercentile(0.5), 
+					histogram.getPercentile(0.99), histogram.getMax(), i <= FRAME ? " ns" : "");
+		}
+		return summary;
+	}
+
+	public boolean isOverlayShown() {
+		return overlayShown;
+	}
+
+	public void setOverlayShown(boolean shown) {
+		overlayShown = shown;
+	}
+
+	public void reset() {
+		for(int i = 0; i < histograms.length; i++) {
+			histograms[i] = new Histogram();
+		}
+	}
+
+	public void writeCsv(String file) throws IOException {
+		PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8));
+		try {
+			out.println("name,unit,samples,total,mean,p50,p99,max");
+			for(int i = 0; i < NAMES.length; i++) {
+				Histogram histogram = histograms[i];
+				String unit = i <= FRAME ? "ns" : i == ALLOCATED_BYTES ? "bytes" : "count";
+				out.printf("%s,%s,%d,%d,%.1f,%d,%d,%d%n", NAMES[i], unit, histogram.getCount(), histogram.getTotal(),
+						histogram.getMean(), histogram.getPercentile(0.5), histogram.getPercentile(0.99), 
+						histogram.getMax());
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * This method checks whether a system property is turned on.
+	 *
+	 * @param property is the name of the property.
+	 *
+	 * @return Return true if the property is "on" or "true", otherwise return false.
+	 */
+	static boolean isOn(String property) {
+		String value = System.getProperty(property);
+		return "on".equalsIgnoreCase(value) || "true".equalsIgnoreCase(value);
+	}
+}
@@ -0,0 +1,59 @@
+import java.io.IOException;
+
+/**
+ * This interface is what a FrameProfiler shows through JMX, for example in JConsole or VisualVM under
+ * "PantsOnFire:type=FrameProfiler".
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public interface FrameProfilerMBean {
+	/**
+	 * @return The number of frames measured since the profiler was last reset.
+	 */
+	public long getFrameCount();
+	
+	/**
+	 * @return The average time of a whole frame in milliseconds.
+	 */
+	public double getMeanFrameMillis();
+	
+	/**
+	 * @return The time in milliseconds that 99% of frames were faster than.
+	 */
+	public double getP99FrameMillis();
+	
+	/**
+	 * @return The number of bytes allocated during the last frame, or -1 if the JVM cannot tell.
+	 */
+	public long getLastAllocatedBytes();
+	
+	/**
+	 * @return One line for every phase and counter, with its samples, mean, 50th and 99th percentile and maximum.
+	 */
+	public String[] getSummary();
+	
+	/**
+	 * @return Whether or not the profiler's overlay is added to the HUD.
+	 */
+	public boolean isOverlayShown();
+	
+	/**
+	 * @param shown is whether or not the profiler's overlay should be added to the HUD.
+	 */
+	public void setOverlayShown(boolean shown);
+	
+	/**
+	 * This method clears every measurement.
+	 */
+	public void reset();
+	
+	/**
+	 * This method writes every phase and counter to a CSV file.
+	 * 
+	 * @param file is the name of the file to write.
+	 * 
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void writeCsv(String file) throws IOException;
+}
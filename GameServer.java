@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class hosts many players at once, each playing their own GameSession, instead of one player in the
+ * GameEngine window. It uses three kinds of thread:
+ *
+ * One network thread accepts players and reads their input with a Selector, putting each message on the
+ * player's lock-free InputQueue.
+ * One ticker thread starts a round every TICK_TIME milliseconds, in which every session is ticked once.
+ * A fixed pool of worker threads does the ticking. Workers take sessions from a shared counter, so a busy
+ * worker never holds up the others, and each round starts one session further along than the last, so no
+ * session is always ticked last.
+ *
+ * The time from the start of a round until a session's tick is finished is its tick latency, which is recorded
+ * in a Histogram for every tick. The protocol is described in GameSession.
+ *
+ * From the command line:
+ * java -cp out:PantsOnFire.jar GameServer [port] [worker threads]
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class GameServer {
+	//The port the server listens on if none is given.
+	static final int DEFAULT_PORT = 7302;
+	//Time in milliseconds between the start of each round.
+	static final int TICK_TIME = 16;
+
+	//Where players connect.
+	private ServerSocketChannel server;
+	private Selector selector;
+	//Every session being played. The array is replaced, never changed, when players join or leave.
+	private volatile GameSession[] sessions = new GameSession[0];
+	//The seed given to the next session.
+	private long nextSeed = 1;
+
+	//The threads that run the server.
+	private Thread network;
+	private ScheduledExecutorService ticker;
+	private ExecutorService workers;
+	//One task for each worker thread, handed to the workers every round.
+	private ArrayList<Worker> tasks = new ArrayList<Worker>();
+
+	//The sessions being ticked this round, where the round starts in them, and when it started.
+	private GameSession[] round;
+	private int roundOffset = 0;
+	private long roundStart;
+	//The next session of this round for a worker to take.
+	private AtomicInteger nextSession = new AtomicInteger();
+
+	//Tick latency in nanoseconds since the statistics were last reset.
+	private Histogram latency = new Histogram();
+	//The number of rounds played, and the number that took longer than TICK_TIME.
+	private long rounds = 0;
+	private long lateRounds = 0;
+
+	/**
+	 * This constructor initializes a new GameServer listening on localhost. It does not
+	 * accept players until start is called.
+	 *
+	 * @param port is the port to listen on, or 0 for any free port.
+	 * @param workerCount is the number of threads to tick sessions on.
+	 *
+	 * @throws IOException if the port cannot be listened on.
+	 */
+	public GameServer(int port, int workerCount) throws IOException {
+		selector = Selector.open();
+		server = ServerSocketChannel.open();
+		server.bind(new InetSocketAddress("localhost", port));
+		server.configureBlocking(false);
+		server.register(selector, SelectionKey.OP_ACCEPT);
+		for(int i = 0; i < workerCount; i++) {
+			tasks.add(new Worker());
+		}
+	}
+
+	/**
+	 * This is an accessor method for the port the server is listening on.
+	 *
+	 * @return The port.
+	 */
+	public int getPort() {
+		return server.socket().getLocalPort();
+	}
+
+	/**
+	 * This is an accessor method for the number of players.
+	 *
+	 * @return The number of sessions being played.
+	 */
+	public int getSessionCount() {
+		return sessions.length;
+	}
+
+	/**
+	 * This method starts accepting players and ticking their sessions.
+	 */
+	public void start() {
+		workers = Executors.newFixedThreadPool(tasks.size());
+		network = new Thread("GameServer network") {
+			public void run() {
+				runNetwork();
+			}
+		};
+		network.setDaemon(true);
+		network.start();
+		ticker = Executors.newSingleThreadScheduledExecutor();
+		ticker.scheduleAtFixedRate(new Runnable() {
+			public void run() {
+				playRound();
+			}
+		}, TICK_TIME, TICK_TIME, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * This method stops the server and disconnects every player.
+	 */
+	public void stop() {
+		ticker.shutdown();
+		workers.shutdown();
+		network.interrupt();
+		selector.wakeup();
+		try {
+			ticker.awaitTermination(1, TimeUnit.SECONDS);
+			server.close();
+		} catch(Exception e) {
+			//The server is stopping either way.
+		}
+		GameSession[] current = sessions;
+		for(int i = 0; i < current.length; i++) {
+			current[i].close();
+		}
+	}
+
+	/**
+	 * This method accepts players and reads their input until the server stops.
+	 */
+	private void runNetwork() {
+		while(!Thread.currentThread().isInterrupted()) {
+			try {
+				selector.select();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while(keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if(!key.isValid()) {
+						continue;
+					}
+					if(key.isAcceptable()) {
+						accept();
+					} else if(key.isReadable()) {
+						GameSession session = (GameSession)key.attachment();
+						boolean connected;
+						try {
+							connected = session.read();
+						} catch(IOException e) {
+							connected = false;
+						}
+						if(!connected) {
+							key.cancel();
+							removeSession(session);
+						}
+					}
+				}
+			} catch(IOException e) {
+				if(server.isOpen()) {
+					System.err.println("GameServer network error: " + e.getMessage());
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * This method accepts every player waiting to connect and gives each a new session.
+	 *
+	 * @throws IOException if a player cannot be accepted.
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while((channel = server.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			GameSession session = new GameSession(channel, nextSeed++);
+			channel.register(selector, SelectionKey.OP_READ, session);
+			addSession(session);
+		}
+	}
+
+	/**
+	 * This method adds a session to the ones being ticked.
+	 *
+	 * @param session is the new session.
+	 */
+	private synchronized void addSession(GameSession session) {
+		GameSession[] larger = new GameSession[sessions.length + 1];
+		System.arraycopy(sessions, 0, larger, 0, sessions.length);
+		larger[sessions.length] = session;
+		sessions = larger;
+	}
+
+	/**
+	 * This method stops ticking a session and closes it.
+	 *
+	 * @param session is the session to remove.
+	 */
+	private synchronized void removeSession(GameSession session) {
+		session.close();
+		GameSession[] current = sessions;
+		for(int i = 0; i < current.length; i++) {
+			if(current[i] == session) {
+				GameSession[] smaller = new GameSession[current.length - 1];
+				System.arraycopy(current, 0, smaller, 0, i);
+				System.arraycopy(current, i + 1, smaller, i, current.length - i - 1);
+				sessions = smaller;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * This method ticks every session once, spread across the worker threads, and
+	 * waits for the round to finish.
+	 */
+	private void playRound() {
+		round = sessions;
+		if(round.length == 0) {
+			return;
+		}
+		roundOffset = (roundOffset + 1) % round.length;
+		nextSession.set(0);
+		roundStart = System.nanoTime();
+		try {
+			workers.invokeAll(tasks);
+		} catch(Exception e) {
+			//The server is stopping.
+			return;
+		}
+
+		//Gather every worker's tick latencies now that none of them are ticking.
+		synchronized(latency) {
+			for(int i = 0; i < tasks.size(); i++) {
+				latency.add(tasks.get(i).latency);
+				tasks.get(i).latency.clear();
+			}
+			rounds++;
+			if(System.nanoTime() - roundStart > TICK_TIME * 1000000L) {
+				lateRounds++;
+			}
+		}
+	}
+
+	/**
+	 * This method describes the tick latency since the statistics were last reset.
+	 *
+	 * @return The number of sessions, rounds and ticks, and the 50th and 99th percentile and maximum latency.
+	 */
+	public String getStats() {
+		synchronized(latency) {
+			return String.format("%d sessions, %d rounds (%d late), %d ticks, tick latency p50 %.2f ms, "
+					+ "p99 %.2f ms, max %.2f ms", sessions.length, rounds, lateRounds, latency.getCount(),
+					latency.getPercentile(0.5) / 1e6, latency.getPercentile(0.99) / 1e6, latency.getMax() / 1e6);
+		}
+	}
+
+	/**
+	 * This method clears the tick latency statistics.
+	 */
+	public void resetStats() {
+		synchronized(latency) {
+			latency.clear();
+			rounds = 0;
+			lateRounds = 0;
+		}
+	}
+
+	/**
+	 * This task ticks sessions of the current round until there are none left to take.
+	 */
+	private class Worker implements Callable<Object> {
+		//Tick latencies recorded by this worker during the round.
+		Histogram latency = new Histogram();
+
+		public Object call() {
+			GameSession[] current = round;
+			int count = current.length;
+			int k;
+			while((k = nextSession.getAndIncrement()) < count) {
+				GameSession session = current[(k + roundOffset) % count];
+				if(!session.closed) {
+					session.tick(TICK_TIME);
+					latency.record(System.nanoTime() - roundStart);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * This method runs a server from the command line, printing its statistics every five seconds.
+	 *
+	 * @param args are the port (default 7302) and the number of worker threads (default every core).
+	 *
+	 * @throws Exception if the server cannot start.
+	 */
+	public static void main(String[] args) throws Exception {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		GameServer gameServer = new GameServer(port, workerCount);
+		gameServer.start();
+		System.out.println("Listening on localhost:" + gameServer.getPort());
+		while(true) {
+			Thread.sleep(5000);
+			System.out.println(gameServer.getStats());
+			gameServer.resetStats();
+		}
+	}
+}
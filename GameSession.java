@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+
+/**
+ * This class is one player's game on a GameServer. It owns the player's Level, the Random used for every level
+ * the player plays, and the queue their input arrives on, so nothing in a session is shared with any other
+ * session. When a level ends the session starts the next one itself: a lost level starts again from level 1,
+ * and a won level moves on to the next level number.
+ *
+ * The player sends 6 byte input messages: byte held keys, byte pressed keys, short mouse x, short mouse y, with
+ * bit i of the key bytes being InputSnapshot.KEYS[i]. After every tick the server sends back a 12 byte status:
+ * int tick, short pants left, short fires left, int level number (negative for the tick a level was lost on).
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class GameSession {
+	//Size in bytes of an input message and of a status.
+	static final int MESSAGE_SIZE = 6;
+	static final int STATUS_SIZE = 12;
+	//Sessions never draw, so they all share one renderer.
+	private static final Renderer RENDERER = new NullRenderer();
+
+	//The player's connection.
+	private SocketChannel channel;
+	//Input waiting to be used in the next tick, and the input the level reads.
+	InputQueue queue = new InputQueue(64);
+	private InputSnapshot input = new InputSnapshot();
+	//Keys pressed in messages that could not be queued yet because the queue was full.
+	private int unsentPresses;
+	//The random object shared by every level of this session.
+	private Random randGen;
+	//The level being played.
+	private Level level;
+	//The number of ticks played so far.
+	private int tick = 0;
+	//Partly read input messages, and the status being sent.
+	private ByteBuffer readBuffer = ByteBuffer.allocate(MESSAGE_SIZE * 64);
+	private ByteBuffer status = ByteBuffer.allocate(STATUS_SIZE);
+	//Whether or not the player has gone.
+	volatile boolean closed = false;
+
+	/**
+	 * This constructor initializes a new GameSession and creates its first level.
+	 *
+	 * @param channel is the player's connection.
+	 * @param seed is the seed of the session's random object.
+	 */
+	public GameSession(SocketChannel channel, long seed) {
+		this.channel = channel;
+		randGen = new Random(seed);
+		status.limit(0);
+		startLevel(1);
+	}
+
+	/**
+	 * This method replaces the level with a new random level.
+	 *
+	 * @param number is the level number the new level has.
+	 */
+	private void startLevel(int number) {
+		level = new Level(randGen, "RANDOM", RENDERER, input);
+		level.level = number;
+	}
+
+	/**
+	 * This method reads every input message that has arrived and queues it for the
+	 * next tick. It is only called by the server's network thread.
+	 *
+	 * @return Return false if the player has disconnected, otherwise return true.
+	 *
+	 * @throws IOException if the connection fails.
+	 */
+	boolean read() throws IOException {
+		if(channel.read(readBuffer) < 0) {
+			return false;
+		}
+		readBuffer.flip();
+		while(readBuffer.remaining() >= MESSAGE_SIZE) {
+			int held = readBuffer.get();
+			int pressed = readBuffer.get() | unsentPresses;
+			int mouseX = readBuffer.getShort();
+			int mouseY = readBuffer.getShort();
+			/*
+			 * If the player sends faster than the server ticks, the newest input is dropped until there is room,
+			 * but its presses are carried on to the next message that is queued so that no tap is lost.
+			 */
+			if(queue.offer(InputQueue.pack(held, pressed, mouseX, mouseY))) {
+				unsentPresses = 0;
+			} else {
+				unsentPresses = pressed;
+			}
+		}
+		readBuffer.compact();
+		return true;
+	}
+
+	/**
+	 * This method plays one tick of the level with the input that has arrived since
+	 * the last tick, and sends the player the new status. Only one thread ticks a
+	 * session at a time.
+	 *
+	 * @param time is the time in milliseconds the tick covers.
+	 */
+	void tick(int time) {
+		queue.drainTo(input);
+		String result = level.update(time);
+		input.pressed = 0;
+		tick++;
+
+		//The counts are of the level that was played, so they are read before a new level replaces it.
+		int number = level.level;
+		int pantCount = level.getPantCount();
+		int fireCount = level.getFireCount();
+		if(result.equals("QUIT")) {
+			number = -number;
+			startLevel(1);
+		} else if(result.equals("ADVANCE")) {
+			//The level number has already been moved on by the level.
+			startLevel(level.level);
+		}
+		sendStatus(number, pantCount, fireCount);
+	}
+
+	/**
+	 * This method sends the player the status after a tick. If the player has not
+	 * taken the last status yet, the rest of it is sent and this one is skipped.
+	 *
+	 * @param number is the level number to send.
+	 * @param pantCount is the number of pants left in the level.
+	 * @param fireCount is the number of fires left in the level.
+	 */
+	private void sendStatus(int number, int pantCount, int fireCount) {
+		try {
+			if(status.hasRemaining()) {
+				channel.write(status);
+				if(status.hasRemaining()) {
+					return;
+				}
+			}
+			status.clear();
+			status.putInt(tick).putShort((short)pantCount).putShort((short)fireCount);
+			status.putInt(number);
+			status.flip();
+			channel.write(status);
+		} catch(IOException e) {
+			close();
+		}
+	}
+
+	/**
+	 * This method ends the session and closes the connection.
+	 */
+	void close() {
+		closed = true;
+		try {
+			channel.close();
+		} catch(IOException e) {
+			//The connection is being thrown away either way.
+		}
+	}
+
+	/**
+	 * This is an accessor method for the level being played.
+	 *
+	 * @return The level.
+	 */
+	public Level getLevel() {
+		return level;
+	}
+}
@@ -8,12 +8,34 @@ import java.util.ArrayList;
  * @version 1.0
  */
 public class Hero {
+	//The directions the hero faces when it walks right, down, left and up in control type 1.
+	static final float RIGHT = 0;
+	static final float DOWN = (float)(Math.PI / 2.0);
+	static final float LEFT = (float)Math.PI;
+	static final float UP = (float)(Math.PI * 3.0 / 2.0);
+	//The time in milliseconds between water objects while the mouse is held, one per usual 16 ms frame.
+	static final int SPRAY_TIME = 16;
+	
 	//Initialize the graphic to the HERO file.
 	private Graphic graphic = new Graphic("HERO"); 
 	//A multiplier to make the graphic move farther each time it is updated.
 	private float speed = 0.12f; 
 	//The way in which the hero is controlled.
 	int controlType; 
+	//Position of the hero before the last update, used to draw it between updates.
+	private float previousX;
+	private float previousY;
+	//Where the hero and the mouse were when the hero last turned to face the mouse, and the direction it faced.
+	private float facedFromX = Float.NaN;
+	private float facedFromY;
+	private int facedMouseX;
+	private int facedMouseY;
+	private float facedDirection;
+	//The cosine and sine of that direction, or NaN until they are needed.
+	private float facingX = Float.NaN;
+	private float facingY;
+	//Time in milliseconds until holding the mouse makes another water object.
+	private int sprayWait = 0;
 	
 	/**
 	 * This constructor initializes a new Hero object. It sets the position in 
@@ -27,8 +49,60 @@ public class Hero {
 		//Setting the hero's initial position and control type.
 		graphic.setX(x);
 		graphic.setY(y);
+		previousX = x;
+		previousY = y;
 		controlType = controlTypeP;
 	}
+
+	/**
+	 * This method puts the hero back where it was when a level was saved by a
+	 * LevelSnapshot.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the hero is facing.
+	 * @param previousX is the position on the x axis before the last update.
+	 * @param previousY is the position on the y axis before the last update.
+	 * @param sprayWait is the time in milliseconds until holding the mouse makes another water object.
+	 */
+	void restore(float x, float y, float direction, float previousX, float previousY, int sprayWait) {
+		graphic.setX(x);
+		graphic.setY(y);
+		graphic.setDirection(direction);
+		this.previousX = previousX;
+		this.previousY = previousY;
+		this.sprayWait = sprayWait;
+	}
+
+	/**
+	 * This is an accessor method for the time until holding the mouse makes
+	 * another water object.
+	 *
+	 * @return The time in milliseconds.
+	 */
+	int getSprayWait() {
+		return sprayWait;
+	}
+
+	/**
+	 * This is an accessor method for where the hero was on the x axis before the 
+	 * last update.
+	 * 
+	 * @return The previous position on the x axis.
+	 */
+	public float getPreviousX() {
+		return previousX;
+	}
+	
+	/**
+	 * This is an accessor method for where the hero was on the y axis before the 
+	 * last update.
+	 * 
+	 * @return The previous position on the y axis.
+	 */
+	public float getPreviousY() {
+		return previousY;
+	}
 	
 	/**
 	 * This is an accessor method to use in other classes to obtain this objects
@@ -41,21 +115,25 @@ public class Hero {
 	}
 	
 	/**
-	 * This method cycles through the fireball array list to see if any are colliding 
-	 * with the hero object.
+	 * This method asks the fireball grid for the fireballs near the hero and checks
+	 * whether any of them are colliding with the hero object.
 	 * 
 	 * @param fireballs is the array list of fireballs.
+	 * @param fireballGrid is the spatial grid holding the index of every fireball in the list.
 	 * 
 	 * @return Return true if the hero is colliding with a fireball, otherwise return
 	 * false.
 	 */
-	public boolean handleFireballCollisions(ArrayList<Fireball> fireballs) {
+	public boolean handleFireballCollisions(ArrayList<Fireball> fireballs, SpatialGrid fireballGrid) {
 		boolean hasCollided = false;
 		
-		//Cycle through the fireball array list.
-		for(int i = 0; i < fireballs.size(); i++) {
+		//Cycle through the fireballs near the hero.
+		int count = fireballGrid.query((previousX + graphic.getX()) / 2, (previousY + graphic.getY()) / 2);
+		for(int i = 0; i < count; i++) {
 			//Determine if the fireball has collided with hero
-			if(fireballs.get(i).getGraphic().isCollidingWith(this.getGraphic())) {
+			Fireball fireball = fireballs.get(fireballGrid.getResult(i));
+			if(SweptCollision.isColliding(fireball.getGraphic(), fireball.getPreviousX(), fireball.getPreviousY(),
+										  graphic, previousX, previousY)) {
 				hasCollided = true;
 				break;
 			}
@@ -63,97 +141,111 @@ public class Hero {
 		return hasCollided;
 	}
 
+	/**
+	 * This method draws the hero part of the way between where it was before the 
+	 * last simulation step and where it is now.
+	 * 
+	 * @param pass is the render pass the hero is added to.
+	 * @param alpha is how far through the next step the game is, from 0 to 1.
+	 */
+	public void draw(RenderPass pass, float alpha) {
+		pass.add(RenderPass.HERO, previousX + (graphic.getX() - previousX) * alpha, 
+				 previousY + (graphic.getY() - previousY) * alpha, graphic.getDirection());
+	}
+	
 	/** 
 	 * This method updates the hero object. It creates new water objects in the position of 
-	 * the hero and is drawn and moved based on the user input and control type chosen. 
+	 * the hero and is moved based on the user input and control type chosen. The keys are
+	 * read from the bit masks captured at the start of the frame.
 	 * 
 	 * @param time How much time has passed since the last time this method has been called.
-	 * @param waterArrayP Array list of water objects.
+	 * @param water holds the water objects, and new ones are added to it.
+	 * @param input is where the keyboard and mouse are read from.
+	 * @param pools is where new water objects are taken from.
 	 */
-	public void update(int time, Water[] waterArrayP) {
-		//Create new water objects if space or mouse is pressed.
-		if(GameEngine.isKeyPressed("SPACE") || GameEngine.isKeyHeld("MOUSE")) {
-			//Only create a water object if there is an empty spot in the array.
-			for(int i = 0; i < 8; i++) {
-				if(waterArrayP[i] == null) {
-					waterArrayP[i] = new Water(graphic.getX(), graphic.getY(), graphic.getDirection());
-					break;
-				}
+	public void update(int time, WaterSlots water, StepInput input, EntityPools pools) {
+		previousX = graphic.getX();
+		previousY = graphic.getY();
+		int held = input.getHeld();
+		float move = speed * time;
+		
+		//Create new water objects if space is pressed, or every SPRAY_TIME while the mouse is held.
+		if(sprayWait > 0) {
+			sprayWait -= time;
+		}
+		boolean spray = (held & InputSnapshot.MOUSE) != 0 && sprayWait <= 0;
+		if((input.getPressed() & InputSnapshot.SPACE) != 0 || spray) {
+			//Only create a water object if there is a free slot.
+			if(!water.isFull()) {
+				water.add(pools.acquireWater(previousX, previousY, graphic.getDirection()));
+			}
+			if(spray) {
+				sprayWait += SPRAY_TIME;
 			}
 		}
 		
 		//Switch statement for each of the control types.
 		switch(controlType) {
 		case 1:
-			float left = ((Double) Math.PI).floatValue(); //Pi as a float.
-			float down = ((Double) (Math.PI / 2.0)).floatValue(); //Pi/2 as a float.
-			float up   = ((Double) (Math.PI * 3.0 / 2.0)).floatValue(); //3Pi/2 as a float.
-			
-			//Move right if "D" is held and set the direction to the right.
-			if(GameEngine.isKeyHeld("D") == true) {
-				graphic.setX(graphic.getX() + (speed * time));
-				graphic.setDirection(0);
+			//Move in the direction of each held key and face that way, the last key winning.
+			if((held & InputSnapshot.D) != 0) {
+				graphic.setX(graphic.getX() + move);
+				graphic.setDirection(RIGHT);
 			}
-			//Move left if "A" is held and set direction to the left.
-			if(GameEngine.isKeyHeld("A") == true) {
-				graphic.setX(graphic.getX() - (speed * time));
-				graphic.setDirection(left);
+			if((held & InputSnapshot.A) != 0) {
+				graphic.setX(graphic.getX() - move);
+				graphic.setDirection(LEFT);
 			}
-			//Move up if "W" is held and set direction up.
-			if(GameEngine.isKeyHeld("W") == true) {
-				graphic.setY(graphic.getY() - (speed * time));
-				graphic.setDirection(up);
+			if((held & InputSnapshot.W) != 0) {
+				graphic.setY(graphic.getY() - move);
+				graphic.setDirection(UP);
 			}
-			//Move down if "S" is held and set direction down.
-			if(GameEngine.isKeyHeld("S") == true) {
-				graphic.setY(graphic.getY() + (speed * time));
-				graphic.setDirection(down);
+			if((held & InputSnapshot.S) != 0) {
+				graphic.setY(graphic.getY() + move);
+				graphic.setDirection(DOWN);
 			}
-			graphic.draw();
 			break;
 			
 		case 2:
 			//Hero will always face the mouse.
-			graphic.setDirection(GameEngine.getMouseX(), GameEngine.getMouseY());
+			faceMouse(input.getMouseX(), input.getMouseY());
 			
-			//Move right if "D" is held.
-			if(GameEngine.isKeyHeld("D") == true) {
-				graphic.setX(graphic.getX() + (speed * time));
+			//Move in the direction of each held key.
+			if((held & InputSnapshot.D) != 0) {
+				graphic.setX(graphic.getX() + move);
 			}
-			//Move left if "A" is held.
-			if(GameEngine.isKeyHeld("A") == true) {
-				graphic.setX(graphic.getX() - (speed * time));
+			if((held & InputSnapshot.A) != 0) {
+				graphic.setX(graphic.getX() - move);
 			}
-			//Move up if "W" is held.
-			if(GameEngine.isKeyHeld("W") == true) {
-				graphic.setY(graphic.getY() - (speed * time));
+			if((held & InputSnapshot.W) != 0) {
+				graphic.setY(graphic.getY() - move);
 			}
-			//Move down if "S" is held.
-			if(GameEngine.isKeyHeld("S") == true) {
-				graphic.setY(graphic.getY() + (speed * time));
+			if((held & InputSnapshot.S) != 0) {
+				graphic.setY(graphic.getY() + move);
 			}
-			
-			graphic.draw();
 			break;
 			
 		case 3:
-			//Distance on the x axis of the hero to the mouse.
-			float xDistance = Math.abs(graphic.getX() - GameEngine.getMouseX());
-			//Distance on the y axis of the hero to the mouse.
-			float yDistance = Math.abs(graphic.getY() - GameEngine.getMouseY());
+			int mouseX = input.getMouseX();
+			int mouseY = input.getMouseY();
+			//Distance on the x and y axis of the hero to the mouse.
+			float xDistance = previousX - mouseX;
+			float yDistance = previousY - mouseY;
 			//Distance from the hero to the mouse.
 			float distance = (float)Math.sqrt((xDistance * xDistance) + (yDistance * yDistance));
 			
 			//The hero will always face the mouse.
-			graphic.setDirection(GameEngine.getMouseX(), GameEngine.getMouseY());
+			faceMouse(mouseX, mouseY);
 			
 			//Move towards the mouse until the hero is within 20 pixels.
 			if(distance >= 20) {
-				graphic.setX(graphic.getX() + graphic.getDirectionX() * (speed * time));
-				graphic.setY(graphic.getY() + graphic.getDirectionY() * (speed * time));
+				if(Float.isNaN(facingX)) {
+					facingX = graphic.getDirectionX();
+					facingY = graphic.getDirectionY();
+				}
+				graphic.setX(previousX + facingX * move);
+				graphic.setY(previousY + facingY * move);
 			}
-			
-			graphic.draw();
 			break;
 			
 		default:
@@ -161,4 +253,27 @@ public class Hero {
 			
 		}
 	}
+	
+	/**
+	 * This method turns the hero to face the mouse. The direction is only worked out
+	 * again when the hero or the mouse has moved since the last time, since it takes
+	 * an arctangent, and its cosine and sine another two trig calls.
+	 * 
+	 * @param mouseX is the position of the mouse on the x axis.
+	 * @param mouseY is the position of the mouse on the y axis.
+	 */
+	private void faceMouse(int mouseX, int mouseY) {
+		float x = graphic.getX();
+		float y = graphic.getY();
+		if(x != facedFromX || y != facedFromY || mouseX != facedMouseX || mouseY != facedMouseY
+				|| graphic.getDirection() != facedDirection) {
+			graphic.setDirection(mouseX, mouseY);
+			facedFromX = x;
+			facedFromY = y;
+			facedMouseX = mouseX;
+			facedMouseY = mouseY;
+			facedDirection = graphic.getDirection();
+			facingX = Float.NaN;
+		}
+	}
 }
@@ -0,0 +1,18 @@
+/**
+ * This interface is an Input that decides what to press by itself, by looking at the level, instead of reading a
+ * person's keyboard and mouse. The hero reads it like any other Input. A Level given a HeroController calls
+ * think() at the start of every update, before the input of the update is captured, so a level played by a
+ * controller can be recorded and replayed like one played by a person.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public interface HeroController extends Input {
+	/**
+	 * This method looks at the level and decides which keys to hold and where to
+	 * put the mouse for the next update.
+	 *
+	 * @param level is the level being played.
+	 */
+	public void think(Level level);
+}
@@ -0,0 +1,73 @@
+import java.lang.reflect.Field;
+
+/**
+ * This class reads a private float field of one of the GameEngine's classes, such as the size of a Graphic, which
+ * the engine keeps to itself. The field is looked up the first time it is read and kept for every read after that.
+ * If it cannot be found, which happens if the engine is changed, a message is printed once and every read returns
+ * NaN, so the caller can fall back on the engine's public methods.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+class HiddenField {
+	//The class the field is declared in, and its name.
+	private Class<?> owner;
+	private String name;
+	//What the caller does instead if the field cannot be read, printed with the reason.
+	private String fallback;
+	//The field, or null if it has not been looked up yet or could not be found.
+	private Field field;
+	//Whether the field has been looked up yet.
+	private boolean isLookedUp = false;
+
+	/**
+	 * This constructor initializes a new HiddenField. The field is not looked up yet.
+	 *
+	 * @param owner is the class the field is declared in.
+	 * @param name is the name of the field.
+	 * @param fallback is what the caller does instead if the field cannot be read.
+	 */
+	HiddenField(Class<?> owner, String name, String fallback) {
+		this.owner = owner;
+		this.name = name;
+		this.fallback = fallback;
+	}
+
+	/**
+	 * This method looks the field up the first time it is called.
+	 *
+	 * @return The field, or null if it could not be found.
+	 */
+	private synchronized Field find() {
+		if(!isLookedUp) {
+			isLookedUp = true;
+			try {
+				Field found = owner.getDeclaredField(name);
+				found.setAccessible(true);
+				field = found;
+			} catch(ReflectiveOperationException | RuntimeException e) {
+				System.err.println(fallback + ": " + owner.getName() + "." + name + " could not be read, " + e);
+			}
+		}
+		return field;
+	}
+
+	/**
+	 * This method reads the field.
+	 *
+	 * @param target is the object to read it from, or null for a static field.
+	 *
+	 * @return The value, or NaN if the field could not be read.
+	 */
+	float getFloat(Object target) {
+		Field found = find();
+		if(found == null) {
+			return Float.NaN;
+		}
+		try {
+			return found.getFloat(target);
+		} catch(IllegalAccessException | RuntimeException e) {
+			return Float.NaN;
+		}
+	}
+}
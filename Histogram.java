@@ -0,0 +1,146 @@
+/**
+ * This class counts samples, such as times in nanoseconds, in buckets that grow with the size of the sample.
+ * Values below 4 have a bucket each, and every power of two above that is split into four buckets, so
+ * percentiles are accurate to within 25% and recording a sample never allocates. A histogram is not safe to
+ * record into from more than one thread at a time.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class Histogram {
+	//The number of samples in each bucket.
+	private long[] buckets = new long[256];
+	//The number of samples, their sum, and the largest one.
+	private long count;
+	private long total;
+	private long max;
+
+	/**
+	 * This method adds a sample. Negative samples are counted as 0.
+	 *
+	 * @param value is the sample.
+	 */
+	public void record(long value) {
+		if(value < 0) {
+			value = 0;
+		}
+		buckets[bucket(value)]++;
+		count++;
+		total += value;
+		if(value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * This method adds every sample of another histogram to this one.
+	 *
+	 * @param other is the histogram to add.
+	 */
+	public void add(Histogram other) {
+		for(int i = 0; i < buckets.length; i++) {
+			buckets[i] += other.buckets[i];
+		}
+		count += other.count;
+		total += other.total;
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * This method removes every sample.
+	 */
+	public void clear() {
+		for(int i = 0; i < buckets.length; i++) {
+			buckets[i] = 0;
+		}
+		count = 0;
+		total = 0;
+		max = 0;
+	}
+
+	/**
+	 * This is an accessor method for the number of samples.
+	 *
+	 * @return The number of samples.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * This is an accessor method for the sum of every sample.
+	 *
+	 * @return The sum.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * This is an accessor method for the largest sample.
+	 *
+	 * @return The largest sample, or 0 if there are none.
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * This method works out the average sample.
+	 *
+	 * @return The mean, or 0 if there are no samples.
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : (double)total / count;
+	}
+
+	/**
+	 * This method works out a percentile of the samples.
+	 *
+	 * @param fraction is how many of the samples should be at or below the result, from 0 to 1.
+	 *
+	 * @return The top of the bucket the percentile falls in, but never more than the largest sample.
+	 */
+	public long getPercentile(double fraction) {
+		long target = (long)Math.ceil(count * fraction);
+		long seen = 0;
+		for(int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if(seen >= target && seen > 0) {
+				return Math.min(top(i), max);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * This method finds the bucket a sample goes in.
+	 *
+	 * @param value is the sample, which is not negative.
+	 *
+	 * @return The index of the bucket.
+	 */
+	static int bucket(long value) {
+		if(value < 4) {
+			return (int)value;
+		}
+		int power = 63 - Long.numberOfLeadingZeros(value);
+		return (power - 1) * 4 + (int)((value >>> (power - 2)) & 3);
+	}
+
+	/**
+	 * This method finds the largest sample that goes in a bucket.
+	 *
+	 * @param bucket is the index of the bucket.
+	 *
+	 * @return The largest sample in the bucket.
+	 */
+	static long top(int bucket) {
+		if(bucket < 4) {
+			return bucket;
+		}
+		int power = bucket / 4 + 1;
+		long bottom = (4L + bucket % 4) << (power - 2);
+		return bottom + (1L << (power - 2)) - 1;
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * This interface is what the Hero reads the keyboard and mouse through. The game uses an EngineInput that reads 
+ * from the GameEngine window, while a NullInput lets a Level be updated without any window at all.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public interface Input {
+	/**
+	 * This method checks whether a key is being held down.
+	 * 
+	 * @param key is the name of the key, such as "W", "SPACE" or "MOUSE".
+	 * 
+	 * @return Return true if the key is held down, otherwise return false.
+	 */
+	public boolean isKeyHeld(String key);
+	
+	/**
+	 * This method checks whether a key was pressed since the last update.
+	 * 
+	 * @param key is the name of the key, such as "W", "SPACE" or "MOUSE".
+	 * 
+	 * @return Return true if the key was just pressed, otherwise return false.
+	 */
+	public boolean isKeyPressed(String key);
+	
+	/**
+	 * This is an accessor method for the position of the mouse on the x axis.
+	 * 
+	 * @return The position of the mouse on the x axis.
+	 */
+	public int getMouseX();
+	
+	/**
+	 * This is an accessor method for the position of the mouse on the y axis.
+	 * 
+	 * @return The position of the mouse on the y axis.
+	 */
+	public int getMouseY();
+}
@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is a lock-free queue of input messages for one GameSession. Exactly one thread (the server's network 
+ * thread) adds messages and exactly one thread at a time (whichever worker is ticking the session) takes them, 
+ * so a fixed ring of longs with a head and a tail counter is enough, and neither side ever blocks or allocates.
+ * 
+ * Each message is the state of the keys and mouse packed into a long by pack().
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class InputQueue {
+	//The messages. The length is a power of two so a counter can be turned into an index with a mask.
+	private long[] ring;
+	private int mask;
+	//The number of messages ever taken and ever added. Only the taking thread moves head and only the adding one moves tail.
+	private AtomicLong head = new AtomicLong();
+	private AtomicLong tail = new AtomicLong();
+	
+	/**
+	 * This constructor initializes a new empty InputQueue.
+	 * 
+	 * @param capacity is the most messages that can wait in the queue, rounded up to a power of two.
+	 */
+	public InputQueue(int capacity) {
+		int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		ring = new long[size];
+		mask = size - 1;
+	}
+	
+	/**
+	 * This method adds a message to the queue. Only one thread may add messages. If
+	 * the queue is full, the caller should carry the message's presses on to the next
+	 * message it offers, so that a press is never lost.
+	 * 
+	 * @param message is the message to add.
+	 * 
+	 * @return Return true if the message was added, or false if the queue is full.
+	 */
+	public boolean offer(long message) {
+		long t = tail.get();
+		if(t - head.get() == ring.length) {
+			return false;
+		}
+		ring[(int)t & mask] = message;
+		//Publish the message before the new tail can be seen.
+		tail.lazySet(t + 1);
+		return true;
+	}
+	
+	/**
+	 * This method takes every waiting message and merges them into an input snapshot. The keys held and the mouse 
+	 * come from the newest message, while a key counts as pressed if any message pressed it, so a quick tap is 
+	 * never lost between ticks. Only one thread at a time may take messages.
+	 * 
+	 * @param input is the snapshot to merge the messages into.
+	 * 
+	 * @return The number of messages taken.
+	 */
+	public int drainTo(InputSnapshot input) {
+		long h = head.get();
+		long t = tail.get();
+		for(long i = h; i < t; i++) {
+			long message = ring[(int)i & mask];
+			input.held = (int)(message >>> 48) & 0xFF;
+			input.pressed |= (int)(message >>> 40) & 0xFF;
+			input.mouseX = (short)(message >>> 16);
+			input.mouseY = (short)message;
+		}
+		head.lazySet(t);
+		return (int)(t - h);
+	}
+	
+	/**
+	 * This method packs the state of the keys and mouse into one message.
+	 * 
+	 * @param held has one bit for each key held down, in the order of InputSnapshot.KEYS.
+	 * @param pressed has one bit for each key pressed.
+	 * @param mouseX is the position of the mouse on the x axis.
+	 * @param mouseY is the position of the mouse on the y axis.
+	 * 
+	 * @return The message.
+	 */
+	public static long pack(int held, int pressed, int mouseX, int mouseY) {
+		return ((long)(held & 0xFF) << 48) | ((long)(pressed & 0xFF) << 40) | ((long)(mouseX & 0xFFFF) << 16) 
+				| (mouseY & 0xFFFF);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * This class is an Input that holds one fixed state of the keyboard and mouse. It is filled in once per frame,
+ * either by capturing a live Input at the start of every update or from a journal (when a session is being
+ * replayed), so the level sees exactly the same input in a recording and its replay. Only the keys in KEYS are
+ * kept, which are the only keys the hero reads, and the hero reads them straight from the bit masks.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class InputSnapshot implements Input {
+	//The keys that are kept. Key i is stored in bit i of the held and pressed masks.
+	static final String[] KEYS = {"W", "A", "S", "D", "SPACE", "MOUSE"};
+	//The bit of each key in the masks.
+	static final int W = 1 << 0;
+	static final int A = 1 << 1;
+	static final int S = 1 << 2;
+	static final int D = 1 << 3;
+	static final int SPACE = 1 << 4;
+	static final int MOUSE = 1 << 5;
+
+	//One bit for each key that is held down.
+	int held;
+	//One bit for each key that was pressed this frame.
+	int pressed;
+	//The position of the mouse.
+	int mouseX;
+	int mouseY;
+	
+	/**
+	 * This method copies the current state of every kept key and the mouse out of 
+	 * another input.
+	 * 
+	 * @param input is the live input to capture.
+	 */
+	public void capture(Input input) {
+		if(input instanceof InputSnapshot) {
+			//Another snapshot can be copied without looking up any keys.
+			InputSnapshot snapshot = (InputSnapshot)input;
+			held = snapshot.held;
+			pressed = snapshot.pressed;
+			mouseX = snapshot.mouseX;
+			mouseY = snapshot.mouseY;
+			return;
+		}
+		held = 0;
+		pressed = 0;
+		for(int i = 0; i < KEYS.length; i++) {
+			if(input.isKeyHeld(KEYS[i])) {
+				held |= 1 << i;
+			}
+			if(input.isKeyPressed(KEYS[i])) {
+				pressed |= 1 << i;
+			}
+		}
+		mouseX = input.getMouseX();
+		mouseY = input.getMouseY();
+	}
+	
+	public boolean isKeyHeld(String key) {
+		return (held & bit(key)) != 0;
+	}
+	
+	public boolean isKeyPressed(String key) {
+		return (pressed & bit(key)) != 0;
+	}
+	
+	public int getMouseX() {
+		return mouseX;
+	}
+	
+	public int getMouseY() {
+		return mouseY;
+	}
+	
+	/**
+	 * This method finds the bit a key is stored in.
+	 * 
+	 * @param key is the name of the key.
+	 * 
+	 * @return The key's bit, or 0 if the key is not kept.
+	 */
+	static int bit(String key) {
+		switch(key) {
+		case "W":
+			return W;
+		case "A":
+			return A;
+		case "S":
+			return S;
+		case "D":
+			return D;
+		case "SPACE":
+			return SPACE;
+		case "MOUSE":
+			return MOUSE;
+		default:
+			return 0;
+		}
+	}
+}
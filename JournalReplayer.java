@@ -0,0 +1,149 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * This class plays a journal written by JournalWriter back through a new Level, headless and as fast as the
+ * level can update. The level is created from the same seed and level text, and every update is given the same
+ * time and input as in the recorded session, so the level plays out exactly as it did when it was recorded.
+ *
+ * From the command line, to play a journal again (for example under a profiler):
+ * java -cp out:PantsOnFire.jar JournalReplayer <journal> [times to play it]
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class JournalReplayer {
+	//Where the journal is read from.
+	private DataInputStream in;
+	//The level being played, created from the journal's header.
+	private Level level;
+	//The input given to the level, filled in from each frame of the journal.
+	private InputSnapshot input = new InputSnapshot();
+	//The number of frames played so far.
+	private int frames = 0;
+	
+	/**
+	 * This constructor initializes a new JournalReplayer, reading the journal's header 
+	 * and creating the level it describes.
+	 * 
+	 * @param stream is where the journal is read from.
+	 * 
+	 * @throws IOException if the journal cannot be read or is not a journal.
+	 */
+	public JournalReplayer(InputStream stream) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(stream));
+		if(in.readInt() != JournalWriter.MAGIC) {
+			throw new IOException("This is not a journal.");
+		}
+		int version = in.readInt();
+		if(version != JournalWriter.VERSION) {
+			throw new IOException("Unsupported journal version " + version + ".");
+		}
+		long seed = in.readLong();
+		int width = in.readInt();
+		int height = in.readInt();
+		byte[] text = new byte[in.readInt()];
+		in.readFully(text);
+		level = new Level(new Random(seed), new String(text, StandardCharsets.UTF_8), 
+				new NullRenderer(width, height), input);
+	}
+	
+	/**
+	 * This method plays the next frame of the journal.
+	 * 
+	 * @return What the level's update returned, or null if the journal has no 
+	 * more frames.
+	 * 
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public String playFrame() throws IOException {
+		int time;
+		try {
+			time = in.readInt();
+		} catch(EOFException e) {
+			return null;
+		}
+		input.held = in.readUnsignedByte();
+		input.pressed = in.readUnsignedByte();
+		input.mouseX = in.readShort();
+		input.mouseY = in.readShort();
+		frames++;
+		return level.update(time);
+	}
+	
+	/**
+	 * This method plays every remaining frame of the journal, stopping early if the 
+	 * level ends.
+	 * 
+	 * @return What the level's last update returned, or "CONTINUE" if the journal 
+	 * ended while the level was still going.
+	 * 
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public String playAll() throws IOException {
+		String result = "CONTINUE";
+		String frame;
+		while(result.equals("CONTINUE") && (frame = playFrame()) != null) {
+			result = frame;
+		}
+		return result;
+	}
+	
+	/**
+	 * This is an accessor method for the level being played.
+	 * 
+	 * @return The level.
+	 */
+	public Level getLevel() {
+		return level;
+	}
+	
+	/**
+	 * This is an accessor method for the number of frames played so far.
+	 * 
+	 * @return The number of frames.
+	 */
+	public int getFrames() {
+		return frames;
+	}
+	
+	/**
+	 * This method closes the journal.
+	 * 
+	 * @throws IOException if the journal cannot be closed.
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+	
+	/**
+	 * This method plays a journal from the command line and prints how it ended.
+	 * 
+	 * @param args are the journal file and, optionally, how many times to play it.
+	 * 
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage: java JournalReplayer <journal> [times to play it]");
+			return;
+		}
+		int times = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		for(int i = 0; i < times; i++) {
+			long start = System.nanoTime();
+			JournalReplayer replayer = new JournalReplayer(Files.newInputStream(Paths.get(args[0])));
+			String result = replayer.playAll();
+			replayer.close();
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%s after %d frames, %d pants left (%.3f s, %.0f frames/s)%n", result, 
+					replayer.getFrames(), replayer.getLevel().getPantCount(), seconds, replayer.getFrames() / seconds);
+		}
+	}
+}
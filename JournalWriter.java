@@ -0,0 +1,118 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class records a session of a level to a compact binary journal, so that it can be played again exactly
+ * by JournalReplayer. The journal starts with everything needed to create the same level again:
+ *
+ * int magic ("PJNL"), int version, long seed of the level's Random,
+ * int screen width, int screen height, int length of the level text, the level text as UTF-8
+ *
+ * followed by one 10 byte record for every call to Level.update:
+ *
+ * int time, byte held keys, byte pressed keys, short mouse x, short mouse y
+ *
+ * where bit i of the key bytes is InputSnapshot.KEYS[i].
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class JournalWriter {
+	//The first four bytes of every journal.
+	static final int MAGIC = 0x504A4E4C;
+	//The version of the format written by this class.
+	static final int VERSION = 1;
+	//The system property naming a folder to record every GameEngine level into.
+	static final String RECORD_PROPERTY = "pantsonfire.record";
+	
+	//Where the journal is written.
+	private DataOutputStream out;
+	//Closes the journal if the game is shut down before the level ends.
+	private Thread closeOnExit;
+	
+	/**
+	 * This constructor initializes a new JournalWriter and writes the journal's header.
+	 * 
+	 * @param out is where the journal is written.
+	 * @param seed is the seed the level's Random was given before the level was created.
+	 * @param level is the "RANDOM" or level file contents the level was created from.
+	 * @param width is the width of the screen the level is played on.
+	 * @param height is the height of the screen the level is played on.
+	 * 
+	 * @throws IOException if the header cannot be written.
+	 */
+	public JournalWriter(OutputStream out, long seed, String level, int width, int height) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		byte[] text = level.getBytes(StandardCharsets.UTF_8);
+		this.out.writeInt(MAGIC);
+		this.out.writeInt(VERSION);
+		this.out.writeLong(seed);
+		this.out.writeInt(width);
+		this.out.writeInt(height);
+		this.out.writeInt(text.length);
+		this.out.write(text);
+	}
+	
+	/**
+	 * This method creates a journal file. The file is closed when the level ends, or 
+	 * when the program exits if the level never ends.
+	 * 
+	 * @param file is the journal file to write.
+	 * @param seed is the seed the level's Random was given before the level was created.
+	 * @param level is the "RANDOM" or level file contents the level was created from.
+	 * @param renderer gives the size of the screen the level is played on.
+	 * 
+	 * @return The new journal.
+	 * 
+	 * @throws IOException if the file cannot be created.
+	 */
+	public static JournalWriter open(Path file, long seed, String level, Renderer renderer) throws IOException {
+		final JournalWriter journal = new JournalWriter(Files.newOutputStream(file), seed, level, 
+				renderer.getWidth(), renderer.getHeight());
+		journal.closeOnExit = new Thread() {
+			public void run() {
+				try {
+					journal.out.close();
+				} catch(IOException e) {
+					System.err.println("Could not finish the journal: " + e.getMessage());
+				}
+			}
+		};
+		Runtime.getRuntime().addShutdownHook(journal.closeOnExit);
+		return journal;
+	}
+	
+	/**
+	 * This method records one call to Level.update.
+	 * 
+	 * @param time is the time passed to update.
+	 * @param input is the input the level sees during the update.
+	 * 
+	 * @throws IOException if the journal cannot be written.
+	 */
+	public void writeFrame(int time, InputSnapshot input) throws IOException {
+		out.writeInt(time);
+		out.writeByte(input.held);
+		out.writeByte(input.pressed);
+		out.writeShort(input.mouseX);
+		out.writeShort(input.mouseY);
+	}
+	
+	/**
+	 * This method finishes the journal.
+	 * 
+	 * @throws IOException if the end of the journal cannot be written.
+	 */
+	public void close() throws IOException {
+		if(closeOnExit != null) {
+			Runtime.getRuntime().removeShutdownHook(closeOnExit);
+			closeOnExit = null;
+		}
+		out.close();
+	}
+}
@@ -1,7 +1,11 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
-import java.util.Scanner;
 import java.lang.Object;
 
 /**
@@ -14,36 +18,101 @@ import java.lang.Object;
  * @version 1.0
  */
 public class Level {
+	//What every object in the level is drawn with.
+	Renderer renderer;
+	//Where the hero reads the keyboard and mouse from.
+	Input input;
+	//The input again if it decides for itself what to press, otherwise null.
+	HeroController controller;
+	//Where every update is recorded to, or null if the level is not being recorded.
+	JournalWriter journal;
+	//The input captured at the start of each update, which is all the hero reads during the steps of the update.
+	InputSnapshot frameInput = new InputSnapshot();
+	//Measures each phase of every update, or null if the level is not being profiled.
+	FrameProfiler profiler;
+	//Decides when each fire shoots its next fireball.
+	FireScheduler fireScheduler = new FireScheduler();
+	//Fires whose heat ran out in the last step, to be put out at the start of the next one.
+	ArrayList<Fire> coldFires = new ArrayList<Fire>();
+	//Collects everything drawn in a frame so it can be culled and drawn in batches.
+	RenderPass renderPass = new RenderPass();
+	//The living pants, which never move, so the renderer can keep them drawn in an image of their own.
+	StaticLayer pantLayer = new StaticLayer(RenderPass.CULL_MARGIN);
+	//Whether the pants have been replaced since the layer was filled, so it has to be filled again.
+	boolean isPantLayerStale = true;
 	//Middle of the screen on the x-axis.
-	float heroX = GameEngine.getWidth() / 2; 
+	float heroX; 
 	//Middle of the screen on the y-axis.
-	float heroY = GameEngine.getHeight() / 2; 
+	float heroY; 
 	//Which way the user controls the hero.
 	int controlType; 
 	//The random object to generate random numbers.
-	Random randGen = new Random(); 
+	Random randGen; 
 	//Number of pants the game starts with.
 	int startingPantNumber = 20;
 	//Number of fires the game starts with.
 	int startingFireNumber = 6; 
 	//The game will end if set to true.
 	boolean gameLose = false; 
-	//The current level of the game.
-	static int level = 1; 
+	//The level the GameEngine's game is up to. Only levels played by the GameEngine read or change this.
+	static int engineLevel = 1;
+	//The number of this level, shown in the HUD.
+	int level = 1;
+	//Whether this level is being played by the GameEngine, so that finishing it moves engineLevel on.
+	boolean playedByEngine = false;
+	//The level files given to main, which are read ahead of the GameEngine instead of by it, or null.
+	static String[] engineFiles;
+	//Reads the GameEngine's next level file while the current level is played, once the first level has started.
+	static LevelPrefetcher prefetcher;
 	
 	//The hero object that will be initialized later.
 	Hero hero;
 	
-	//The initialization of the array of water objects.
-	Water[] water = new Water[] {null, null, null, null, null, null, null, null};
+	//The slots the hero's water objects are kept in.
+	WaterSlots water = new WaterSlots(WaterSlots.DEFAULT_CAPACITY);
 	
 	//The initialization of the array lists of pant, fireball, and fire objects.
 	ArrayList<Pant> pants = new ArrayList<Pant>();
 	ArrayList<Fireball> fireballs = new ArrayList<Fireball>();
 	ArrayList<Fire> fires = new ArrayList<Fire>();
 	
+	//Size in pixels of a collision grid cell. This must be at least the largest collision distance between two sprites.
+	static final float COLLISION_CELL_SIZE = 64;
+	//Spatial grids that are rebuilt every update so that collision checks only look at nearby objects.
+	SpatialGrid fireballGrid = new SpatialGrid(COLLISION_CELL_SIZE, 1024);
+	SpatialGrid waterGrid = new SpatialGrid(COLLISION_CELL_SIZE, 64);
+	//Whether fireballs have been removed or replaced since the fireball grid was built, so it has to be built again.
+	boolean isFireballGridStale = true;
+	//The fires, filed for a controller looking for the nearest one. Fires never move, so it is only built again once
+	//a fire has been added or removed.
+	SpatialGrid fireGrid = new SpatialGrid(COLLISION_CELL_SIZE, 1024);
+	boolean isFireGridStale = true;
+	
+	//Default length in milliseconds of one simulation step.
+	static final int STEP_TIME = 4;
+	/*
+	 * Length of one simulation step for this level. The game always advances by exactly this much at a time. 
+	 * Swept collisions keep hits reliable with longer steps too, as long as half of a water object's movement 
+	 * in one step plus the collision distance still fits in a grid cell, which holds up to about 60 ms.
+	 */
+	int stepTime = STEP_TIME;
+	//Most steps run in one update, so a long stall slows the game down instead of taking ages to catch up.
+	static final int MAX_STEPS_PER_UPDATE = 25;
+	//Time in milliseconds that has passed but has not been simulated yet.
+	int accumulator = 0;
+	//The input the hero reads during each step.
+	StepInput stepInput;
+	
+	//Removed fireballs, water and fires that are kept to be used again instead of creating new ones.
+	EntityPools pools = new EntityPools();
+	
+	//The data-oriented store of pants, fires and fireballs, or null if the array lists above are used instead.
+	EntityStore store;
+	
+	//The thread the level is simulated on, or null if update() simulates it.
+	SimulationThread simulation;
+	
 	//Return values from different classes.
-	Fireball fireballReturn;
 	Water waterReturn;
 	Fire fire;
 	
@@ -59,7 +128,99 @@ public class Level {
 	 * contents of a level file that should be loaded and played. 
 	 */
 	public Level(Random randGen, String level) { 
-		System.out.println("Level: " + level);
+		this(randGen, new EngineRenderer(), new EngineInput());
+		this.level = engineLevel;
+		playedByEngine = true;
+		profiler = FrameProfiler.getEngineProfiler();
+		
+		//Take the level from the files being read ahead, when they were given to main instead of the GameEngine.
+		PreparedLevel prepared = null;
+		if(engineFiles != null && level.equals("RANDOM")) {
+			if(prefetcher == null) {
+				prefetcher = new LevelPrefetcher(engineFiles, randGen, 
+						System.getProperty(JournalWriter.RECORD_PROPERTY) != null);
+			}
+			prepared = prefetcher.take(this.level - 1);
+			if(prepared != null && prepared.text != null) {
+				level = prepared.text;
+			}
+		}
+		
+		//Record the level to a journal if a folder has been given for them.
+		String folder = System.getProperty(JournalWriter.RECORD_PROPERTY);
+		if(folder != null) {
+			//Start the Random from a known seed, so the journal can create the same level again.
+			long seed = randGen.nextLong();
+			randGen.setSeed(seed);
+			try {
+				record(JournalWriter.open(Paths.get(folder, "level" + this.level + "-" + System.currentTimeMillis() 
+						+ ".pjnl"), seed, level, renderer));
+			} catch(IOException e) {
+				System.err.println("Could not start recording the level: " + e.getMessage());
+			}
+		}
+		if(prepared != null) {
+			loadLevel(prepared);
+		} else {
+			create(level);
+		}
+		
+		//Simulate the level on its own thread if asked to.
+		if(FrameProfiler.isOn(SimulationThread.THREAD_PROPERTY)) {
+			if(journal != null) {
+				System.err.println("A level being recorded is not run on a simulation thread.");
+			} else {
+				startSimulationThread();
+			}
+		}
+	}
+	
+	/**
+	 * This constructor initializes a new Level object that draws and reads input
+	 * through the given renderer and input instead of the GameEngine. Passing a
+	 * NullRenderer and NullInput lets the level be updated headless, without the
+	 * GameEngine window.
+	 * 
+	 * @param randGen is the only Random number generator that should be used
+	 * throughout this level, by the Level itself and all of the Objects within.
+	 * @param level is a string that either contains the word "RANDOM", or the 
+	 * contents of a level file that should be loaded and played. 
+	 * @param renderer is what every object in the level is drawn with.
+	 * @param input is where the hero reads the keyboard and mouse from.
+	 */
+	public Level(Random randGen, String level, Renderer renderer, Input input) { 
+		this(randGen, renderer, input);
+		create(level);
+	}
+	
+	/**
+	 * This constructor initializes a new Level object with no objects in it yet,
+	 * for loaders such as BinaryLevel that fill the level in themselves.
+	 * 
+	 * @param randGen is the only Random number generator that should be used
+	 * throughout this level, by the Level itself and all of the Objects within.
+	 * @param renderer is what every object in the level is drawn with.
+	 * @param input is where the hero reads the keyboard and mouse from.
+	 */
+	Level(Random randGen, Renderer renderer, Input input) {
+		this.randGen = randGen;
+		this.renderer = renderer;
+		this.input = input;
+		if(input instanceof HeroController) {
+			controller = (HeroController)input;
+		}
+		stepInput = new StepInput(frameInput);
+		heroX = renderer.getWidth() / 2;
+		heroY = renderer.getHeight() / 2;
+	}
+	
+	/**
+	 * This method creates the objects in the level.
+	 * 
+	 * @param level is a string that either contains the word "RANDOM", or the 
+	 * contents of a level file that should be loaded and played. 
+	 */
+	private void create(String level) {
 		if(level.equals("RANDOM")) {
 			createRandomLevel();
 		} else {
@@ -67,6 +228,18 @@ public class Level {
 		}
 	}
 	
+	/**
+	 * This method starts recording the time and input of every update to a journal,
+	 * until the level ends. The input is captured once at the start of each update and 
+	 * the level then reads only that captured copy, so a replay sees exactly the same 
+	 * input. It must be called before the first update.
+	 * 
+	 * @param journal is where the updates are recorded.
+	 */
+	public void record(JournalWriter journal) {
+		this.journal = journal;
+	}
+	
 	/**
 	 * The GameEngine calls this method repeatedly to update all of the objects
 	 * within your game, and to enforce all of the rules of your game.
@@ -83,44 +256,207 @@ public class Level {
 	 * will simply continue to call this update() method as usual. 
 	 */
 	public String update(int time) {	
+		if(simulation != null) {
+			return drawSimulation();
+		}
+		if(profiler != null) {
+			profiler.beginFrame();
+		}
+		//Let a controller decide on its input before it is captured, so a recording replays the same.
+		if(controller != null) {
+			controller.think(this);
+		}
+		captureInput();
+		if(journal != null) {
+			try {
+				journal.writeFrame(time, frameInput);
+			} catch(IOException e) {
+				System.err.println("Stopped recording the level: " + e.getMessage());
+				stopRecording();
+			}
+		}
+		
+		/*
+		 * Run as many fixed steps as fit in the time that has passed. The time left over is carried on to the 
+		 * next update, so the game behaves the same whatever the frame rate is.
+		 */
+		accumulator += time;
+		String result = "CONTINUE";
+		int steps = 0;
+		while(accumulator >= stepTime && steps < MAX_STEPS_PER_UPDATE && result.equals("CONTINUE")) {
+			result = step(stepTime);
+			accumulator -= stepTime;
+			steps++;
+		}
+		
+		//After a long stall, drop the time that could not be caught up on.
+		if(accumulator >= stepTime) {
+			accumulator = stepTime - 1;
+		}
+		
+		//Draw everything part of the way towards the next step.
+		if(profiler != null) {
+			profiler.beginStep();
+		}
+		render((float)accumulator / stepTime);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.RENDER);
+			profiler.endFrame(getPantCount(), getFireCount(), getFireballCount(), getWaterCount());
+		}
+		
+		if(journal != null && !result.equals("CONTINUE")) {
+			stopRecording();
+		}
+		return result;
+	}
+	
+	/**
+	 * This method moves the simulation of the level onto a SimulationThread of its
+	 * own. From then on update() only passes the input on and draws the newest step
+	 * the simulation has reached, and the level must not be changed from any other
+	 * thread.
+	 * 
+	 * @throws IllegalStateException if the level is already on a simulation thread
+	 * or is being recorded.
+	 */
+	public void startSimulationThread() {
+		if(simulation != null || journal != null) {
+			throw new IllegalStateException("The level is already on a simulation thread or being recorded");
+		}
+		simulation = new SimulationThread(this);
+		simulation.start();
+	}
+	
+	/**
+	 * This method stops the simulation thread, if there is one. The level stays 
+	 * where the simulation left it, and does not move again.
+	 */
+	public void stopSimulationThread() {
+		if(simulation != null) {
+			simulation.stop();
+		}
+	}
+	
+	/**
+	 * This method is update() for a level on a simulation thread. It passes the
+	 * input on and draws the newest frame, part of the way towards the next step.
+	 * 
+	 * @return What the step of the newest frame returned.
+	 */
+	private String drawSimulation() {
+		//A controller is run by the simulation thread itself.
+		if(controller == null) {
+			simulation.offer(input);
+		}
+		WorldFrame frame = simulation.getFrame();
+		renderPass.begin(renderer.getWidth(), renderer.getHeight());
+		//The pants are in the frame, and the pant layer belongs to the simulation thread.
+		renderPass.setLayer(RenderPass.PANT, null);
+		frame.draw(renderPass, simulation.getAlpha(frame));
+		renderPass.submit(renderer);
+		if(!frame.result.equals("CONTINUE")) {
+			simulation.stop();
+		}
+		return frame.result;
+	}
+	
+	/**
+	 * This method captures the keys and mouse for the steps that follow. update()
+	 * calls it once at the start of every update, so a headless simulation that
+	 * calls step() directly should call it before each run of steps.
+	 */
+	public void captureInput() {
+		frameInput.capture(input);
+		stepInput.addPresses();
+	}
+	
+	/**
+	 * This method finishes the journal the level is being recorded to. The level keeps
+	 * reading its input through the captured copy, as it always does.
+	 */
+	private void stopRecording() {
+		try {
+			journal.close();
+		} catch(IOException e) {
+			System.err.println("Could not finish the journal: " + e.getMessage());
+		}
+		journal = null;
+	}
+	
+	/**
+	 * This method advances the game by a single step without drawing anything. 
+	 * update() calls it with stepTime, and a headless simulation can call it 
+	 * directly to run faster than real time, after captureInput().
+	 * 
+	 * @param time is the time in milliseconds to advance the game by.
+	 * 
+	 * @return "QUIT", "ADVANCE" or "CONTINUE", the same as update().
+	 */
+	public String step(int time) {
+		if(profiler != null) {
+			profiler.beginStep();
+		}
+		
 		//Call the update method of the hero class.
-		hero.update(time, water);
+		hero.update(time, water, stepInput, pools);
+		stepInput.endStep();
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.HERO);
+		}
 		
-		//Cycle through the water array and update water objects if it exists.
-		for(int i = 0; i < water.length; i++) {
-			if(water[i] != null) {
-		    	waterReturn = water[i].update(time);
-		    	//If the water object had reached its distance limit and returns null then delete water from the array.
-		    	if(waterReturn == null) {
-		    		water[i] = null;
-		    	}
-		    }
+		//Cycle through the water objects backwards, so removing one never skips another.
+		for(int i = water.size() - 1; i >= 0; i--) {
+			int slot = water.getLiveSlot(i);
+			waterReturn = water.get(slot).update(time);
+			//If the water object had reached its distance limit and returns null then free its slot.
+			if(waterReturn == null) {
+				pools.releaseWater(water.remove(slot));
+			}
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.WATER);
 		}
 		
-		//Cycle through the pants array list and update each one.
-		for(int j = 0; j < pants.size(); j++) {
-			pants.get(j).update(time);
+		//Pants, fires and fireballs are updated from the entity store instead if it is being used.
+		if(store != null) {
+			return updateStore(time);
 		}
 		
 		//Cycle through the fireballs array list and update each one.
 		for(int k = 0; k < fireballs.size(); k++) {
-			fireballs.get(k).update(time);
-		}
-		
-		//Cycle through the fires array list and update each one.
-		for(int l = 0; l < fires.size(); l++) {
-			fireballReturn = fires.get(l).update(time);
-			/*
-			 * If the time has reached 0 for the fire's fireball timer and returns a new fireball then add the new 
-			 * fireball to the array list.
-			*/
-			if(fireballReturn != null) {
-				fireballs.add(fireballReturn);
-			}
+			fireballs.get(k).update(time, renderer);
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIREBALLS);
+		}
+		
+		//Put out every fire whose heat was used up by water in the last step.
+		for(int l = 0; l < coldFires.size(); l++) {
+			coldFires.get(l).isAlive = false;
+		}
+		coldFires.clear();
+		
+		//Only the fires whose countdowns have run out shoot, in the same order as the fires array list.
+		fireScheduler.advance(time, fireballs, pools);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIRES);
+		}
+		
+		/*
+		 * Rebuild the collision grids now that every object has moved. Water and fireballs are filed under the 
+		 * middle of the path they moved along, so the swept collision tests find anything they passed through.
+		 */
+		buildFireballGrid();
+		buildWaterGrid();
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.GRIDS);
 		}
 		
 		//If hero is hit by a fireball set game lose to true.
-		gameLose = hero.handleFireballCollisions(fireballs);
+		gameLose = hero.handleFireballCollisions(fireballs, fireballGrid);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.HERO_COLLISIONS);
+		}
 		
 		//If game lose equal true then end the game.
 		if(gameLose == true) {
@@ -129,58 +465,494 @@ public class Level {
 		
 		//Cycle through the fireball array list to see if fireballs are colliding with water.
 		for(int m = 0; m < fireballs.size(); m++) {
-			fireballs.get(m).handleWaterCollisions(water);
+			fireballs.get(m).handleWaterCollisions(water, waterGrid, pools);
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIREBALL_WATER_COLLISIONS);
 		}
 		
 		//Cycle through the fire array list to see if fires are colliding with water.
 		for(int n = 0; n < fires.size(); n++) {
-			fires.get(n).handleWaterCollisions(water);
+			Fire fire = fires.get(n);
+			int heat = fire.getHeat();
+			fire.handleWaterCollisions(water, waterGrid, pools);
+			//Remember the fire if this step used up its heat, so it is put out in the next step.
+			if(heat > 0 && fire.getHeat() <= 0) {
+				coldFires.add(fire);
+			}
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIRE_WATER_COLLISIONS);
 		}
 		
 		//Cycle through the pant array list to see if fireballs are colliding with pants.
 		for(int o = 0; o < pants.size(); o++) {
-			fire = pants.get(o).handleFireballCollisions(fireballs);
-			//If fireballs collide with pants, remove the pant and add the new fire to the array list.
+			fire = pants.get(o).handleFireballCollisions(fireballs, fireballGrid, pools);
+			//If fireballs collide with pants, destroy the pant and add the new fire to the array list.
 			if(fire != null) {
-				fires.add(fire);
-				pants.remove(o);
+				addFire(fire);
+				pants.get(o).destroy();
+				//Only the area around the burned pant has to be drawn again.
+				removeFromLayer(pants.get(o));
 			}
 		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.PANT_FIREBALL_COLLISIONS);
+		}
+		
+		//Remove every fireball, fire and pant that is not alive anymore.
+		removeDeadObjects();
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.REMOVAL);
+		}
 		
-		//Cycle through the fireball array list to see if any should be remove because they are not alive anymore.
+		//If all pants die then end the game.
+		String result = "CONTINUE";
+		if(pants.size() == 0) {
+			result = "QUIT";
+		} else if(fires.size() == 0) {
+			//If all fires have been put out then progress to next level.
+			advance();
+			result = "ADVANCE";
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.CHECKS);
+		}
+		return result; 
+	}
+
+	/**
+	 * This method adds a fire to the level and schedules its first fireball.
+	 * 
+	 * @param fire is the new fire.
+	 */
+	void addFire(Fire fire) {
+		fires.add(fire);
+		fireScheduler.schedule(fire);
+		isFireGridStale = true;
+	}
+	
+	/**
+	 * This method removes every fireball, fire and pant that should be removed, in a 
+	 * single pass over each array list. The objects that are still alive are slid 
+	 * down over the removed ones so they keep their order, and removed fireballs and 
+	 * fires are released back to the pools.
+	 */
+	void removeDeadObjects() {
+		int kept = 0;
 		for(int p = 0; p < fireballs.size(); p++) {
-			if(fireballs.get(p).shouldRemove() == false) {
-				fireballs.remove(p);
+			Fireball fireball = fireballs.get(p);
+			if(fireball.shouldRemove()) {
+				fireballs.set(kept++, fireball);
+			} else {
+				pools.releaseFireball(fireball);
 			}
 		}
+		if(kept < fireballs.size()) {
+			isFireballGridStale = true;
+		}
+		truncate(fireballs, kept);
 		
-		//Cycle through the fire array list to see if any should be remove because they are not alive anymore.
+		kept = 0;
 		for(int q = 0; q < fires.size(); q++) {
-			if(fires.get(q).shouldRemove() == false) {
-				fires.remove(q);
+			Fire fire = fires.get(q);
+			if(fire.shouldRemove()) {
+				fires.set(kept++, fire);
+			} else {
+				fireScheduler.cancel(fire);
+				pools.releaseFire(fire);
 			}
 		}
-		//Cycle through the pant array list to see if any should be remove because they are not alive anymore.
+		if(kept < fires.size()) {
+			isFireGridStale = true;
+		}
+		truncate(fires, kept);
+		
+		kept = 0;
 		for(int r = 0; r < pants.size(); r++) {
-			if(pants.get(r).shouldRemove() == false) {
-				pants.remove(r);
+			Pant pant = pants.get(r);
+			if(pant.shouldRemove()) {
+				pants.set(kept++, pant);
 			}
 		}
+		truncate(pants, kept);
+	}
+	
+	/**
+	 * This method shortens an array list by clearing its tail in one call, which never 
+	 * has to shift any other elements.
+	 * 
+	 * @param list is the array list to shorten.
+	 * @param size is the number of elements to keep.
+	 */
+	private static <T> void truncate(ArrayList<T> list, int size) {
+		list.subList(size, list.size()).clear();
+	}
+	
+	/**
+	 * This method does the rest of update() for pants, fires and fireballs that are kept
+	 * in the entity store. The rules are the same as for the array lists.
+	 * 
+	 * @param time is the time in milliseconds that have elapsed since the last update.
+	 * 
+	 * @return "QUIT", "ADVANCE" or "CONTINUE", the same as update().
+	 */
+	private String updateStore(int time) {
+		store.updateFireballs(time, renderer);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIREBALLS);
+		}
+		store.updateFires(time);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIRES);
+		}
 		
-		//If all pants die then end the game.
-		if(pants.size() == 0) {
+		buildFireballGrid();
+		buildWaterGrid();
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.GRIDS);
+		}
+		
+		//If hero is hit by a fireball then end the game.
+		boolean isHit = store.isHeroHit(hero.getGraphic(), hero.getPreviousX(), hero.getPreviousY(), fireballGrid);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.HERO_COLLISIONS);
+		}
+		if(isHit) {
 			return "QUIT";
 		}
 		
-		//If all fires have been put out then progress to next level.
-		if(fires.size() == 0) {
-			level++;
-			return "ADVANCE";
+		store.handleFireballWaterCollisions(water, waterGrid, pools);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIREBALL_WATER_COLLISIONS);
+		}
+		store.handleFireWaterCollisions(water, waterGrid, pools);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.FIRE_WATER_COLLISIONS);
+		}
+		//Burning pants only add fires and removal only takes them away, so either changes the count.
+		int fireCount = store.fires.size;
+		store.handlePantFireballCollisions(fireballGrid, pantLayer);
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.PANT_FIREBALL_COLLISIONS);
+		}
+		int fireballCount = store.fireballs.size;
+		int burningCount = store.fires.size;
+		store.removeDead();
+		if(store.fires.size != burningCount || burningCount != fireCount) {
+			isFireGridStale = true;
+		}
+		if(store.fireballs.size != fireballCount) {
+			isFireballGridStale = true;
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.REMOVAL);
 		}
 		
-		return "CONTINUE"; 
+		//If all pants die then end the game.
+		String result = "CONTINUE";
+		if(store.pants.size == 0) {
+			result = "QUIT";
+		} else if(store.fires.size == 0) {
+			//If all fires have been put out then progress to next level.
+			advance();
+			result = "ADVANCE";
+		}
+		if(profiler != null) {
+			profiler.endPhase(FrameProfiler.CHECKS);
+		}
+		return result;
 	}
-
+	
+	/**
+	 * This method moves on to the next level number once every fire has been put out.
+	 */
+	private void advance() {
+		level++;
+		if(playedByEngine) {
+			engineLevel = level;
+		}
+	}
+	
+	/**
+	 * This method draws every object in the level. Moving objects are drawn part of 
+	 * the way between their last two steps so that they look smooth.
+	 * 
+	 * @param alpha is how far through the next step the game is, from 0 to 1.
+	 */
+	void render(float alpha) {
+		renderPass.begin(renderer.getWidth(), renderer.getHeight());
+		if(isPantLayerStale) {
+			fillPantLayer();
+		}
+		renderPass.setLayer(RenderPass.PANT, pantLayer);
+		hero.draw(renderPass, alpha);
+		for(int i = 0; i < water.size(); i++) {
+			water.get(water.getLiveSlot(i)).draw(renderPass, alpha);
+		}
+		
+		//The pants are drawn from the pant layer.
+		if(store != null) {
+			store.drawFireballs(renderPass, alpha);
+			store.drawFires(renderPass);
+		} else {
+			for(int k = 0; k < fireballs.size(); k++) {
+				fireballs.get(k).draw(renderPass, alpha);
+			}
+			for(int l = 0; l < fires.size(); l++) {
+				fires.get(l).draw(renderPass);
+			}
+		}
+		
+		//Draw everything that is on the screen, one batch for each type of sprite.
+		renderPass.submit(renderer);
+	}
+	
+	/**
+	 * This method rebuilds the fireball grid, filing the index of each fireball under
+	 * the middle of the path it moved along in the last step.
+	 */
+	private void buildFireballGrid() {
+		if(store != null) {
+			store.buildFireballGrid(fireballGrid);
+		} else {
+			fireballGrid.clear();
+			for(int f = 0; f < fireballs.size(); f++) {
+				Graphic graphic = fireballs.get(f).getGraphic();
+				fireballGrid.insert(f, (fireballs.get(f).getPreviousX() + graphic.getX()) / 2, 
+									   (fireballs.get(f).getPreviousY() + graphic.getY()) / 2);
+			}
+		}
+		isFireballGridStale = false;
+	}
+	
+	/**
+	 * This is an accessor method for the fireball grid, for a controller deciding
+	 * what to dodge. The grid is built again first if any fireball has been removed
+	 * since the last step built it, so every index in it is a current fireball.
+	 * 
+	 * @return The grid of fireball indexes.
+	 */
+	SpatialGrid getFireballGrid() {
+		if(isFireballGridStale) {
+			buildFireballGrid();
+		}
+		return fireballGrid;
+	}
+	
+	/**
+	 * This is an accessor method for the grid of fire indexes, for a controller
+	 * looking for the nearest fire. The grid is built again first if any fire has
+	 * been added or removed since it was last built.
+	 * 
+	 * @return The grid of fire indexes.
+	 */
+	SpatialGrid getFireGrid() {
+		if(isFireGridStale) {
+			fireGrid.clear();
+			if(store != null) {
+				for(int i = 0; i < store.fires.size; i++) {
+					fireGrid.insert(i, store.fires.x[i], store.fires.y[i]);
+				}
+			} else {
+				for(int i = 0; i < fires.size(); i++) {
+					Graphic graphic = fires.get(i).getGraphic();
+					fireGrid.insert(i, graphic.getX(), graphic.getY());
+				}
+			}
+			isFireGridStale = false;
+		}
+		return fireGrid;
+	}
+	
+	/**
+	 * This method rebuilds the water grid from the water objects that still exist,
+	 * filing the slot of each one under the middle of the path it moved along in the
+	 * last step.
+	 */
+	private void buildWaterGrid() {
+		waterGrid.clear();
+		for(int i = 0; i < water.size(); i++) {
+			int slot = water.getLiveSlot(i);
+			Water drop = water.get(slot);
+			Graphic graphic = drop.getGraphic();
+			waterGrid.insert(slot, (drop.getPreviousX() + graphic.getX()) / 2, 
+							 (drop.getPreviousY() + graphic.getY()) / 2);
+		}
+	}
+	
+	/**
+	 * This method moves every pant, fire and fireball out of the array lists and into
+	 * a data-oriented EntityStore, which update() then uses from here on. It should be
+	 * called once, right after the level has been created.
+	 */
+	public void useEntityStore() {
+		store = new EntityStore(randGen, Math.max(pants.size(), fires.size()));
+		for(int i = 0; i < pants.size(); i++) {
+			Graphic graphic = pants.get(i).getGraphic();
+			store.addPant(graphic.getX(), graphic.getY());
+		}
+		for(int i = 0; i < fires.size(); i++) {
+			Graphic graphic = fires.get(i).getGraphic();
+			store.addFire(graphic.getX(), graphic.getY(), fireScheduler.getCountdown(fires.get(i)), fires.get(i).getHeat());
+		}
+		for(int i = 0; i < fireballs.size(); i++) {
+			Graphic graphic = fireballs.get(i).getGraphic();
+			store.addFireball(graphic.getX(), graphic.getY(), graphic.getDirection());
+		}
+		pants.clear();
+		fires.clear();
+		fireballs.clear();
+		fireScheduler.clear();
+		isPantLayerStale = true;
+		isFireballGridStale = true;
+		isFireGridStale = true;
+	}
+	
+	/**
+	 * This method puts every living pant in the pant layer, replacing whatever was
+	 * in it before.
+	 */
+	private void fillPantLayer() {
+		pantLayer.clear();
+		if(store != null) {
+			EntityTable table = store.pants;
+			for(int i = 0; i < table.size; i++) {
+				table.layerHandle[i] = table.alive[i] ? pantLayer.add(table.x[i], table.y[i], 0) : -1;
+			}
+		} else {
+			for(int i = 0; i < pants.size(); i++) {
+				Pant pant = pants.get(i);
+				Graphic graphic = pant.getGraphic();
+				//shouldRemove() returns whether the object is still alive.
+				pant.layerHandle = pant.shouldRemove() ? pantLayer.add(graphic.getX(), graphic.getY(), 
+																		 graphic.getDirection()) : -1;
+			}
+		}
+		isPantLayerStale = false;
+	}
+	
+	/**
+	 * This method takes a pant out of the pant layer, if it is in it.
+	 * 
+	 * @param pant is the pant.
+	 */
+	private void removeFromLayer(Pant pant) {
+		if(pant.layerHandle >= 0 && !isPantLayerStale) {
+			pantLayer.remove(pant.layerHandle);
+		}
+		pant.layerHandle = -1;
+	}
+	
+	/**
+	 * This method fills in a frame with where every object is before and after the
+	 * last step, for a SimulationThread to hand to the thread drawing the game.
+	 * 
+	 * @param frame is the frame to fill in.
+	 */
+	void capture(WorldFrame frame) {
+		frame.clear();
+		Graphic graphic = hero.getGraphic();
+		frame.add(RenderPass.HERO, hero.getPreviousX(), hero.getPreviousY(), graphic.getX(), graphic.getY(), 
+				  graphic.getDirection());
+		for(int i = 0; i < water.size(); i++) {
+			Water drop = water.get(water.getLiveSlot(i));
+			graphic = drop.getGraphic();
+			frame.add(RenderPass.WATER, drop.getPreviousX(), drop.getPreviousY(), graphic.getX(), graphic.getY(), 
+					  graphic.getDirection());
+		}
+		
+		if(store != null) {
+			store.capture(frame);
+		} else {
+			for(int j = 0; j < pants.size(); j++) {
+				//shouldRemove() returns whether the object is still alive.
+				if(pants.get(j).shouldRemove()) {
+					graphic = pants.get(j).getGraphic();
+					frame.add(RenderPass.PANT, graphic.getX(), graphic.getY(), graphic.getDirection());
+				}
+			}
+			for(int k = 0; k < fireballs.size(); k++) {
+				Fireball fireball = fireballs.get(k);
+				graphic = fireball.getGraphic();
+				frame.add(RenderPass.FIREBALL, fireball.getPreviousX(), fireball.getPreviousY(), graphic.getX(), 
+						  graphic.getY(), graphic.getDirection());
+			}
+			for(int l = 0; l < fires.size(); l++) {
+				if(fires.get(l).isAlive) {
+					graphic = fires.get(l).getGraphic();
+					frame.add(RenderPass.FIRE, graphic.getX(), graphic.getY(), graphic.getDirection());
+				}
+			}
+		}
+		frame.level = level;
+		frame.pantCount = getPantCount();
+		frame.fireCount = getFireCount();
+	}
+	
+	/**
+	 * This is an accessor method for the number of pants left in the level.
+	 * 
+	 * @return The number of pants.
+	 */
+	public int getPantCount() {
+		return store == null ? pants.size() : store.pants.size;
+	}
+	
+	/**
+	 * This is an accessor method for the number of fires left in the level.
+	 * 
+	 * @return The number of fires.
+	 */
+	public int getFireCount() {
+		return store == null ? fires.size() : store.fires.size;
+	}
+	
+	/**
+	 * This is an accessor method for the number of fireballs in the level.
+	 * 
+	 * @return The number of fireballs.
+	 */
+	public int getFireballCount() {
+		return store == null ? fireballs.size() : store.fireballs.size;
+	}
+	
+	/**
+	 * This is an accessor method for the number of water objects that are still moving.
+	 * 
+	 * @return The number of water objects.
+	 */
+	public int getWaterCount() {
+		return water.size();
+	}
+	
+	/**
+	 * This method changes how many water objects the hero can have at once, such as
+	 * for a power-up. Water objects that are already moving are kept, up to the new
+	 * number, and the rest are removed.
+	 * 
+	 * @param capacity is the number of water slots, at least 1. Levels start with 8.
+	 */
+	public void setWaterCapacity(int capacity) {
+		WaterSlots resized = new WaterSlots(capacity);
+		for(int i = 0; i < water.size(); i++) {
+			Water drop = water.get(water.getLiveSlot(i));
+			if(resized.add(drop) < 0) {
+				pools.releaseWater(drop);
+			}
+		}
+		water = resized;
+	}
+	
+	/**
+	 * This method starts measuring every update of the level with a profiler.
+	 * 
+	 * @param profiler measures each phase of the updates, or null to stop measuring.
+	 */
+	public void profile(FrameProfiler profiler) {
+		this.profiler = profiler;
+	}
+	
 	/**
 	 * This method returns a string of text that will be displayed in the
 	 * upper left hand corner of the game window.  Ultimately this text should 
@@ -192,7 +964,19 @@ public class Level {
 	 * of the screen by the GameEngine.
 	 */
 	public String getHUDMessage() {
-		return "Level: " + level + "\nPants left: " + pants.size() + "\nFires left: " + fires.size(); 
+		String message;
+		if(simulation != null) {
+			//Read the counts from the frame being drawn, since the level is changing on the other thread.
+			WorldFrame frame = simulation.getFrame();
+			message = "Level: " + frame.level + "\nPants left: " + frame.pantCount + "\nFires left: " + frame.fireCount;
+		} else {
+			message = "Level: " + level + "\nPants left: " + getPantCount() + "\nFires left: " + getFireCount();
+		}
+		//Add the profiler's overlay below the counts if it is turned on.
+		if(profiler != null) {
+			message += profiler.getOverlay();
+		}
+		return message;
 	}
 
 	/**
@@ -210,15 +994,16 @@ public class Level {
 		//Create the amount of pants stated above to start the game with.
 		for(int a = 0; a < startingPantNumber; a++) {
 			//Create a new pant object in a random position and add to the array list.
-			pants.add(new Pant(randGen.nextInt(GameEngine.getWidth()), 
-								randGen.nextInt(GameEngine.getHeight()), randGen));
+			pants.add(new Pant(randGen.nextInt(renderer.getWidth()), 
+								randGen.nextInt(renderer.getHeight()), randGen));
 		}
+		isPantLayerStale = true;
 					
 		//Create the amount of fires stated above to start the game with.
 		for(int b = 0; b < startingFireNumber; b++) {
 			//Create a fire object in a random position and add to the array list.
-			fires.add(new Fire(randGen.nextInt(GameEngine.getWidth()), 
-								randGen.nextInt(GameEngine.getHeight()), randGen));
+			addFire(new Fire(randGen.nextInt(renderer.getWidth()), 
+								randGen.nextInt(renderer.getHeight()), randGen));
 		}		
 	}
 
@@ -240,70 +1025,104 @@ public class Level {
 	 * position for each such line in the level String.
 	 */
 	public void loadLevel(String level) { 
-		//Beginning of a line that is for a new hero object.
-		final String HERO = "HERO @"; 
-		//Beginning of a line that is for a new pant object.
-		final String PANT = "PANT @"; 
-		//Beginning of a line that is for a new fire object.
-		final String FIRE = "FIRE @"; 
-		//Beginning of a line that is for the control type.
-		final String CONTROL_TYPE = "ControlType:"; 
-		
-		Scanner scnr = new Scanner(level);
-		
-		//While there are still lines left in the file.
-		while(scnr.hasNextLine()) {
-			String line = scnr.nextLine();
-			
-			if (line.startsWith(CONTROL_TYPE)) {
-				//Read in the type number and convert it into an int.
-				String controlTypeS = line.substring(CONTROL_TYPE.length()).trim();
-				int controlTypeI = Integer.parseInt(controlTypeS);
+		try {
+			loadLevel(new StringReader(level));
+		} catch(IOException e) {
+			//A StringReader never fails to read.
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * This method initializes the current game from a level file that is read
+	 * a chunk at a time, so that the whole file never has to be held in memory.
+	 * Lines are read by a LevelParser in the same format as loadLevel(String).
+	 * 
+	 * @param reader is where the level file is read from. It is not closed.
+	 * 
+	 * @throws IOException if the reader cannot be read.
+	 * @throws LevelFormatException if a line is not in the level format.
+	 */
+	public void loadLevel(Reader reader) throws IOException {
+		new LevelParser().parse(reader, createLoader());
+	}
+
+	/**
+	 * This method initializes the current game from a level made by a
+	 * LevelGenerator, without writing it out as text first.
+	 * 
+	 * @param generator is the generator the level was generated by.
+	 */
+	public void loadLevel(LevelGenerator generator) {
+		generator.emit(createLoader());
+	}
+
+	/**
+	 * This method initializes the current game from a level that has already been
+	 * read and parsed, such as by a LevelPrefetcher. The pants are taken as they are,
+	 * and every fire is given its fireball countdown from this level's Random in the
+	 * same order loadLevel(String) would.
+	 * 
+	 * @param prepared is the level. It must have been made with this level's Random,
+	 * and it must not be used again.
+	 */
+	public void loadLevel(PreparedLevel prepared) {
+		controlType = prepared.controlType;
+		if(prepared.hero != null) {
+			hero = prepared.hero;
+		}
+		if(pants.isEmpty()) {
+			pants = prepared.pants;
+		} else {
+			pants.addAll(prepared.pants);
+		}
+		isPantLayerStale = true;
+		for(int i = 0; i < prepared.fires.size(); i++) {
+			Fire fire = prepared.fires.get(i);
+			fire.reset(fire.getGraphic().getX(), fire.getGraphic().getY(), randGen);
+			addFire(fire);
+		}
+	}
+
+	/**
+	 * This method creates the handler that adds the objects of a level being
+	 * loaded to this level.
+	 * 
+	 * @return The handler.
+	 */
+	private LevelHandler createLoader() {
+		return new LevelHandler() {
+			public void controlType(int type) {
 				//Set the control type for the level.
-				controlType = controlTypeI;
-				
-			} else if(line.startsWith(FIRE)) {
-				//Create a new string of the coordinates after the object type and remove spaces.
-				String coords = line.substring(FIRE.length()).trim();
-				//Split the coordinates up into two strings in an array.
-				String[] coordsArray = coords.split(",");
-				//Convert strings into floats and create a new fire object.
-				float fX = (float)Double.parseDouble(coordsArray[0]);
-				float fY = (float)Double.parseDouble( coordsArray[1]);		
-				fires.add(new Fire(fX, fY, randGen));
-				
-			} else if(line.startsWith(HERO)) {
-				//Create a new string of the coordinates after the object type and remove spaces.
-				String coords = line.substring(HERO.length()).trim();
-				//Split the coordinates up into two strings in an array.
-				String[] coordsArray = coords.split(",");
-				//Convert strings into floats and create a new hero object.
-				float hX = (float)Double.parseDouble(coordsArray[0]);
-				float hY = (float)Double.parseDouble( coordsArray[1]);		
-				hero = new Hero(hX, hY, controlType);
-				
-			} else if(line.startsWith(PANT)) {
-				//Create a new string of the coordinates after the object type and remove spaces.
-				String coords = line.substring(PANT.length()).trim();
-				//Split the coordinates up into two strings in an array.
-				String[] coordsArray = coords.split(",");
-				//Convert strings into floats and create a new pant object.
-				float pX = (float)Double.parseDouble(coordsArray[0]);
-				float pY = (float)Double.parseDouble( coordsArray[1]);		
-				pants.add(new Pant(pX, pY, randGen));
+				controlType = type;
 			}
-		}
-		scnr.close();
+			
+			public void hero(float x, float y) {
+				hero = new Hero(x, y, controlType);
+			}
+			
+			public void pant(float x, float y) {
+				pants.add(new Pant(x, y, randGen));
+				isPantLayerStale = true;
+			}
+			
+			public void fire(float x, float y) {
+				addFire(new Fire(x, y, randGen));
+			}
+		};
 	}
 
 	/**
 	 * This method creates and runs a new GameEngine with its first Level.  Any
 	 * command line arguments passed into this program are treated as a list of
-	 * custom level filenames that should be played in a particular order.
+	 * custom level filenames that should be played in a particular order. They are
+	 * read ahead by a LevelPrefetcher, so the GameEngine is not given them and asks
+	 * for random levels, which take the next file until there are none left.
 	 * 
 	 * @param args is the sequence of custom level files to play through.
 	 */
 	public static void main(String[] args) {
-		GameEngine.start(null,args);
+		engineFiles = args;
+		GameEngine.start(null, null);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+/**
+ * This exception is thrown by LevelParser when a line of a level file cannot be read. The message says which 
+ * line and column the problem was found at.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelFormatException extends IllegalArgumentException {
+	private static final long serialVersionUID = 1L;
+	
+	//The line of the level file the problem is on, counting from 1.
+	private int line;
+	//The column of the line the problem is at, counting from 1.
+	private int column;
+	
+	/**
+	 * This constructor initializes a new LevelFormatException.
+	 * 
+	 * @param message describes what was wrong.
+	 * @param line is the line of the level file the problem is on, counting from 1.
+	 * @param column is the column of the line the problem is at, counting from 1.
+	 */
+	public LevelFormatException(String message, int line, int column) {
+		super("Line " + line + ", column " + column + ": " + message);
+		this.line = line;
+		this.column = column;
+	}
+	
+	/**
+	 * This is an accessor method for the line the problem is on.
+	 * 
+	 * @return The line number, counting from 1.
+	 */
+	public int getLine() {
+		return line;
+	}
+	
+	/**
+	 * This is an accessor method for the column the problem is at.
+	 * 
+	 * @return The column number, counting from 1.
+	 */
+	public int getColumn() {
+		return column;
+	}
+}
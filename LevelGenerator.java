@@ -0,0 +1,429 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class creates random levels of any size, with pants and fires that are never closer than a minimum
+ * spacing to each other or to the hero, who starts in the middle. Positions are picked with Poisson-disc
+ * sampling (Bridson's algorithm): every new point is tried in a ring around a point already placed, and is only
+ * kept if a background grid, whose cells are small enough to hold one point each, has no point too close to it.
+ * Each point tries a fixed number of places, so placing n points takes O(n) time.
+ *
+ * The world is split into square tiles that are filled in four rounds, like the squares of a checkerboard
+ * split two ways, so the tiles filled at the same time are always a whole tile apart and never read or write
+ * the same grid cells. The tiles of a round are filled in parallel on a ForkJoinPool. Each tile has its own
+ * random stream split off the seed in tile order, so the same seed gives the same level however many threads
+ * there are. The objects are then picked at random from every point placed.
+ *
+ * Positions are whole pixels, the same as createRandomLevel's, so the text level format holds them exactly. A
+ * generated level can be loaded straight into a Level, written as a level file, or given to any LevelHandler.
+ *
+ * From the command line, to write a level file:
+ * java -cp out:PantsOnFire.jar LevelGenerator [pants] [fires] [width] [height] [spacing] [seed] > level.txt
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelGenerator {
+	//Places tried around each point before it stops being used to place new ones.
+	static final int CANDIDATES = 30;
+	//Random places tried in each tile for points to grow from.
+	static final int SEED_ATTEMPTS = 30;
+	//The width of a tile in grid cells. A point looks two cells around itself, so this must be at least 3.
+	static final int TILE_CELLS = 32;
+
+	//The size of the world in pixels, and the smallest distance allowed between two objects.
+	private int width;
+	private int height;
+	private float spacing;
+	//The seed everything random is picked with.
+	private long seed;
+	//The threads that fill the tiles.
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	//The background grid. Each cell holds the x and y of the one point in it next to each other, or -1 if it is empty.
+	private float cellSize;
+	private int columns;
+	private int rows;
+	private int[] cells;
+	//The number of tiles across and down, and the points each tile placed as x and y pairs.
+	private int tileColumns;
+	private int tileRows;
+	private int[][] tilePoints;
+	private int[] tilePointCounts;
+
+	//The level that was generated.
+	private int controlType;
+	private int heroX;
+	private int heroY;
+	private int[] pantX = new int[0];
+	private int[] pantY = new int[0];
+	private int[] fireX = new int[0];
+	private int[] fireY = new int[0];
+
+	/**
+	 * This constructor initializes a new LevelGenerator.
+	 *
+	 * @param width is the width of the world in pixels.
+	 * @param height is the height of the world in pixels.
+	 * @param spacing is the smallest distance in pixels allowed between two objects, at least 1.
+	 * @param seed is the seed the level is generated from.
+	 */
+	public LevelGenerator(int width, int height, float spacing, long seed) {
+		if(width < 1 || height < 1 || !(spacing >= 1)) {
+			throw new IllegalArgumentException("The world must be at least 1 pixel and the spacing at least 1");
+		}
+		this.width = width;
+		this.height = height;
+		this.spacing = spacing;
+		this.seed = seed;
+	}
+
+	/**
+	 * This is a mutator method for the threads the tiles are filled on.
+	 *
+	 * @param pool is the pool to use. The common pool is used by default.
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * This method generates a level. It can then be loaded or written as many times
+	 * as needed.
+	 *
+	 * @param pantCount is the number of pants.
+	 * @param fireCount is the number of fires.
+	 *
+	 * @throws IllegalArgumentException if that many objects do not fit in the world with the spacing.
+	 */
+	public void generate(int pantCount, int fireCount) {
+		SplittableRandom randGen = new SplittableRandom(seed);
+		controlType = randGen.nextInt(3) + 1;
+		heroX = width / 2;
+		heroY = height / 2;
+
+		cellSize = spacing / (float)Math.sqrt(2);
+		columns = (int)Math.ceil(width / cellSize);
+		rows = (int)Math.ceil(height / cellSize);
+		cells = new int[columns * rows * 2];
+		Arrays.fill(cells, -1);
+		//Keep everything away from the hero.
+		insert(heroX, heroY);
+
+		tileColumns = (columns + TILE_CELLS - 1) / TILE_CELLS;
+		tileRows = (rows + TILE_CELLS - 1) / TILE_CELLS;
+		int tileCount = tileColumns * tileRows;
+		tilePoints = new int[tileCount][];
+		tilePointCounts = new int[tileCount];
+		SplittableRandom[] tileRandoms = new SplittableRandom[tileCount];
+		for(int t = 0; t < tileCount; t++) {
+			tileRandoms[t] = randGen.split();
+		}
+
+		//Fill the tiles in four rounds, by whether their column and row are odd or even.
+		int[] round = new int[tileCount];
+		for(int phase = 0; phase < 4; phase++) {
+			int roundSize = 0;
+			for(int t = 0; t < tileCount; t++) {
+				if((t % tileColumns) % 2 == phase % 2 && (t / tileColumns) % 2 == phase / 2) {
+					round[roundSize++] = t;
+				}
+			}
+			pool.invoke(new Round(round, tileRandoms, 0, roundSize));
+		}
+
+		//Gather the points in tile order and pick the objects from them at random.
+		int total = 0;
+		for(int t = 0; t < tileCount; t++) {
+			total += tilePointCounts[t];
+		}
+		int wanted = pantCount + fireCount;
+		if(wanted > total) {
+			throw new IllegalArgumentException("Only " + total + " objects fit in a " + width + " by " + height
+					+ " world with a spacing of " + spacing);
+		}
+		int[] x = new int[total];
+		int[] y = new int[total];
+		int next = 0;
+		for(int t = 0; t < tileCount; t++) {
+			for(int i = 0; i < tilePointCounts[t]; i++) {
+				x[next] = tilePoints[t][i * 2];
+				y[next] = tilePoints[t][i * 2 + 1];
+				next++;
+			}
+		}
+		for(int i = 0; i < wanted; i++) {
+			int j = i + randGen.nextInt(total - i);
+			int swap = x[i];
+			x[i] = x[j];
+			x[j] = swap;
+			swap = y[i];
+			y[i] = y[j];
+			y[j] = swap;
+		}
+		pantX = Arrays.copyOfRange(x, 0, pantCount);
+		pantY = Arrays.copyOfRange(y, 0, pantCount);
+		fireX = Arrays.copyOfRange(x, pantCount, wanted);
+		fireY = Arrays.copyOfRange(y, pantCount, wanted);
+
+		//The grid is only needed while generating.
+		cells = null;
+		tilePoints = null;
+	}
+
+	/**
+	 * This method gives the generated level to a handler, in the same order as a
+	 * level file: the control type, the hero, the pants, then the fires.
+	 *
+	 * @param handler is given every object in the level.
+	 */
+	public void emit(LevelHandler handler) {
+		handler.controlType(controlType);
+		handler.hero(heroX, heroY);
+		for(int i = 0; i < pantX.length; i++) {
+			handler.pant(pantX[i], pantY[i]);
+		}
+		for(int i = 0; i < fireX.length; i++) {
+			handler.fire(fireX[i], fireY[i]);
+		}
+	}
+
+	/**
+	 * This method writes the generated level in the text level format.
+	 *
+	 * @param out is where the level is written. It is not closed.
+	 *
+	 * @throws IOException if the level cannot be written.
+	 */
+	public void write(Writer out) throws IOException {
+		out.write("ControlType: " + controlType + "\n");
+		out.write("HERO @ " + heroX + ", " + heroY + "\n");
+		StringBuilder line = new StringBuilder(32);
+		for(int i = 0; i < pantX.length; i++) {
+			line.setLength(0);
+			line.append("PANT @ ").append(pantX[i]).append(", ").append(pantY[i]).append('\n');
+			out.append(line);
+		}
+		for(int i = 0; i < fireX.length; i++) {
+			line.setLength(0);
+			line.append("FIRE @ ").append(fireX[i]).append(", ").append(fireY[i]).append('\n');
+			out.append(line);
+		}
+	}
+
+	/**
+	 * This is an accessor method for the number of pants generated.
+	 *
+	 * @return The number of pants.
+	 */
+	public int getPantCount() {
+		return pantX.length;
+	}
+
+	/**
+	 * This is an accessor method for the number of fires generated.
+	 *
+	 * @return The number of fires.
+	 */
+	public int getFireCount() {
+		return fireX.length;
+	}
+
+	/**
+	 * This method fills one tile with points, growing outwards from a few random
+	 * places in it.
+	 *
+	 * @param tile is the index of the tile.
+	 * @param randGen is the tile's own random stream.
+	 */
+	private void fillTile(int tile, SplittableRandom randGen) {
+		int firstColumn = (tile % tileColumns) * TILE_CELLS;
+		int firstRow = (tile / tileColumns) * TILE_CELLS;
+		int lastColumn = Math.min(firstColumn + TILE_CELLS, columns);
+		int lastRow = Math.min(firstRow + TILE_CELLS, rows);
+		int left = (int)Math.ceil(firstColumn * cellSize);
+		int top = (int)Math.ceil(firstRow * cellSize);
+		int right = Math.min((int)Math.ceil(lastColumn * cellSize), width);
+		int bottom = Math.min((int)Math.ceil(lastRow * cellSize), height);
+
+		int[] points = new int[64];
+		int count = 0;
+		//The points that new ones are still being tried around, as indexes into points.
+		int[] active = new int[32];
+		int activeCount = 0;
+
+		for(int attempt = 0; attempt < SEED_ATTEMPTS; attempt++) {
+			if(right <= left || bottom <= top) {
+				break;
+			}
+			int x = left + randGen.nextInt(right - left);
+			int y = top + randGen.nextInt(bottom - top);
+			if(!fits(x, y, firstColumn, firstRow, lastColumn, lastRow)) {
+				continue;
+			}
+			insert(x, y);
+			if(count * 2 == points.length) {
+				points = Arrays.copyOf(points, points.length * 2);
+			}
+			points[count * 2] = x;
+			points[count * 2 + 1] = y;
+			active[activeCount++] = count++;
+
+			//Try places in the ring between one and two spacings around a random active point.
+			while(activeCount > 0) {
+				int a = randGen.nextInt(activeCount);
+				int px = points[active[a] * 2];
+				int py = points[active[a] * 2 + 1];
+				boolean placed = false;
+				for(int c = 0; c < CANDIDATES && !placed; c++) {
+					//Pick a place in the square around the ring until it is in the ring, which is faster than trigonometry.
+					double dx;
+					double dy;
+					double distance;
+					do {
+						dx = (randGen.nextDouble() * 4 - 2) * spacing;
+						dy = (randGen.nextDouble() * 4 - 2) * spacing;
+						distance = dx * dx + dy * dy;
+					} while(distance < spacing * spacing || distance > 4 * spacing * spacing);
+					int cx = (int)Math.round(px + dx);
+					int cy = (int)Math.round(py + dy);
+					if(fits(cx, cy, firstColumn, firstRow, lastColumn, lastRow)) {
+						insert(cx, cy);
+						if(count * 2 == points.length) {
+							points = Arrays.copyOf(points, points.length * 2);
+						}
+						points[count * 2] = cx;
+						points[count * 2 + 1] = cy;
+						if(activeCount == active.length) {
+							active = Arrays.copyOf(active, active.length * 2);
+						}
+						active[activeCount++] = count++;
+						placed = true;
+					}
+				}
+				if(!placed) {
+					active[a] = active[--activeCount];
+				}
+			}
+		}
+		tilePoints[tile] = points;
+		tilePointCounts[tile] = count;
+	}
+
+	/**
+	 * This method checks whether a point can be placed: it must be in the tile, its
+	 * grid cell must be empty, and no point may be closer than the spacing.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param firstColumn is the first grid column of the tile.
+	 * @param firstRow is the first grid row of the tile.
+	 * @param lastColumn is the grid column after the tile.
+	 * @param lastRow is the grid row after the tile.
+	 *
+	 * @return Return true if the point can be placed, otherwise return false.
+	 */
+	private boolean fits(int x, int y, int firstColumn, int firstRow, int lastColumn, int lastRow) {
+		if(x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		int column = (int)(x / cellSize);
+		int row = (int)(y / cellSize);
+		if(column < firstColumn || column >= lastColumn || row < firstRow || row >= lastRow
+				|| cells[(row * columns + column) * 2] >= 0) {
+			return false;
+		}
+		//A cell is the spacing divided by the square root of 2 wide, so anything too close is within 2 cells,
+		//and not in the corner cells, whose nearest corner is exactly the spacing away.
+		float limit = spacing * spacing;
+		for(int r = Math.max(row - 2, 0); r <= Math.min(row + 2, rows - 1); r++) {
+			for(int c = Math.max(column - 2, 0); c <= Math.min(column + 2, columns - 1); c++) {
+				if(Math.abs(r - row) == 2 && Math.abs(c - column) == 2) {
+					continue;
+				}
+				int cell = (r * columns + c) * 2;
+				if(cells[cell] >= 0) {
+					float dx = cells[cell] - x;
+					float dy = cells[cell + 1] - y;
+					if(dx * dx + dy * dy < limit) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method puts a point in the grid cell it falls in.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 */
+	private void insert(int x, int y) {
+		int cell = ((int)(y / cellSize) * columns + (int)(x / cellSize)) * 2;
+		cells[cell] = x;
+		cells[cell + 1] = y;
+	}
+
+	/**
+	 * This task fills a range of the tiles of one round, splitting the range in half
+	 * until it is a single tile.
+	 */
+	private class Round extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		//The tiles of the round and the random stream of every tile.
+		private int[] tiles;
+		private SplittableRandom[] randoms;
+		//The first tile of the range, and the tile after the last.
+		private int from;
+		private int to;
+
+		Round(int[] tiles, SplittableRandom[] randoms, int from, int to) {
+			this.tiles = tiles;
+			this.randoms = randoms;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if(to - from == 1) {
+				fillTile(tiles[from], randoms[tiles[from]]);
+			} else if(to - from > 1) {
+				int middle = (from + to) / 2;
+				invokeAll(new Round(tiles, randoms, from, middle), new Round(tiles, randoms, middle, to));
+			}
+		}
+	}
+
+	/**
+	 * This method generates a level from the command line and writes it to standard
+	 * output as a level file.
+	 *
+	 * @param args are the number of pants (default 20) and fires (default 6), the world's width (default 800)
+	 * and height (default 600), the spacing (default 32) and the seed (default the time).
+	 *
+	 * @throws IOException if the level cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		int pants = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int fires = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+		int width = args.length > 2 ? Integer.parseInt(args[2]) : 800;
+		int height = args.length > 3 ? Integer.parseInt(args[3]) : 600;
+		float spacing = args.length > 4 ? Float.parseFloat(args[4]) : 32;
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : System.currentTimeMillis();
+		LevelGenerator generator = new LevelGenerator(width, height, spacing, seed);
+		generator.generate(pants, fires);
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		generator.write(out);
+		out.flush();
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * This interface receives the contents of a text level file from a LevelParser, one line at a time, in the order
+ * the lines appear in the file.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public interface LevelHandler {
+	/**
+	 * This method is called for a "ControlType: #" line.
+	 * 
+	 * @param controlType is the way the user controls the hero (1 through 3).
+	 */
+	public void controlType(int controlType);
+	
+	/**
+	 * This method is called for a "HERO @ X, Y" line.
+	 * 
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 */
+	public void hero(float x, float y);
+	
+	/**
+	 * This method is called for a "PANT @ X, Y" line.
+	 * 
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 */
+	public void pant(float x, float y);
+	
+	/**
+	 * This method is called for a "FIRE @ X, Y" line.
+	 * 
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 */
+	public void fire(float x, float y);
+}
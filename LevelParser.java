@@ -0,0 +1,367 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * This class reads the text level format ("ControlType: #" followed by "TYPE @ X, Y" lines) as a stream, a chunk
+ * at a time, and passes each line on to a LevelHandler. Unlike splitting the file into Strings with a Scanner,
+ * the numbers are read straight out of a reused character buffer, so parsing a level does not create any
+ * objects per line and the memory used stays the same however large the file is. A line that cannot be read
+ * causes a LevelFormatException giving its line and column. Lines that do not start with one of the known
+ * types are skipped, the same as in the original Level.loadLevel.
+ *
+ * One LevelParser can be used for any number of files, but only by one thread at a time.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelParser {
+	//Beginning of each kind of line.
+	private static final char[] CONTROL_TYPE = "ControlType:".toCharArray();
+	private static final char[] HERO = "HERO @".toCharArray();
+	private static final char[] PANT = "PANT @".toCharArray();
+	private static final char[] FIRE = "FIRE @".toCharArray();
+
+	//Largest whole number a double holds exactly, and the powers of ten that a double holds exactly.
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	//Where each chunk of the file is read into.
+	private char[] chunk = new char[8192];
+	private byte[] byteChunk = new byte[8192];
+	//The line currently being read, and how many characters of it have been read so far.
+	private char[] line = new char[256];
+	private int lineLength;
+	//The number of the line currently being read, counting from 1.
+	private int lineNumber;
+	//Whether the last character read was a carriage return, so that a "\r\n" pair ends only one line.
+	private boolean afterCarriageReturn;
+	//Where each number read by readFloat ended, so the next one can be read after it.
+	private int position;
+
+	/**
+	 * This method reads a whole level from a Reader. The Reader is not closed.
+	 *
+	 * @param reader is where the level text is read from.
+	 * @param handler is given the contents of each line in order.
+	 *
+	 * @throws IOException if the reader cannot be read.
+	 * @throws LevelFormatException if a line is not in the level format.
+	 */
+	public void parse(Reader reader, LevelHandler handler) throws IOException {
+		start();
+		int count;
+		while((count = reader.read(chunk, 0, chunk.length)) != -1) {
+			for(int i = 0; i < count; i++) {
+				accept(chunk[i], handler);
+			}
+		}
+		finish(handler);
+	}
+
+	/**
+	 * This method reads a whole level from the remaining bytes of a buffer, such as a memory-mapped file.
+	 * The level text is read as ASCII, which is all the level format uses. The buffer's position is moved
+	 * to its limit.
+	 *
+	 * @param buffer holds the level text.
+	 * @param handler is given the contents of each line in order.
+	 *
+	 * @throws LevelFormatException if a line is not in the level format.
+	 */
+	public void parse(ByteBuffer buffer, LevelHandler handler) {
+		start();
+		while(buffer.hasRemaining()) {
+			int count = Math.min(buffer.remaining(), byteChunk.length);
+			buffer.get(byteChunk, 0, count);
+			for(int i = 0; i < count; i++) {
+				accept((char)(byteChunk[i] & 0xFF), handler);
+			}
+		}
+		finish(handler);
+	}
+
+	/**
+	 * This method gets ready to read a new level.
+	 */
+	private void start() {
+		lineLength = 0;
+		lineNumber = 1;
+		afterCarriageReturn = false;
+	}
+
+	/**
+	 * This method adds one character to the current line, and reads the line once it ends.
+	 *
+	 * @param c is the next character of the level.
+	 * @param handler is given the contents of the line.
+	 */
+	private void accept(char c, LevelHandler handler) {
+		if(c == '\n' || c == '\r') {
+			//The "\n" of a "\r\n" pair has already been counted.
+			if(c == '\n' && afterCarriageReturn) {
+				afterCarriageReturn = false;
+				return;
+			}
+			afterCarriageReturn = c == '\r';
+			readLine(handler);
+			lineLength = 0;
+			lineNumber++;
+			return;
+		}
+		afterCarriageReturn = false;
+		if(lineLength == line.length) {
+			char[] longerLine = new char[line.length * 2];
+			System.arraycopy(line, 0, longerLine, 0, lineLength);
+			line = longerLine;
+		}
+		line[lineLength++] = c;
+	}
+
+	/**
+	 * This method reads the last line of the level, if the level does not end with a new line.
+	 *
+	 * @param handler is given the contents of the line.
+	 */
+	private void finish(LevelHandler handler) {
+		if(lineLength > 0) {
+			readLine(handler);
+			lineLength = 0;
+		}
+	}
+
+	/**
+	 * This method works out which kind of line has just been read and passes its values to the handler.
+	 *
+	 * @param handler is given the contents of the line.
+	 */
+	private void readLine(LevelHandler handler) {
+		if(startsWith(CONTROL_TYPE)) {
+			handler.controlType(readInt(CONTROL_TYPE.length));
+		} else if(startsWith(FIRE)) {
+			float x = readFloat(FIRE.length, true);
+			handler.fire(x, readFloat(position + 1, false));
+		} else if(startsWith(HERO)) {
+			float x = readFloat(HERO.length, true);
+			handler.hero(x, readFloat(position + 1, false));
+		} else if(startsWith(PANT)) {
+			float x = readFloat(PANT.length, true);
+			handler.pant(x, readFloat(position + 1, false));
+		}
+	}
+
+	/**
+	 * This method checks whether the current line begins with a prefix.
+	 *
+	 * @param prefix is the beginning to look for.
+	 *
+	 * @return Return true if the line begins with the prefix, otherwise return false.
+	 */
+	private boolean startsWith(char[] prefix) {
+		if(lineLength < prefix.length) {
+			return false;
+		}
+		for(int i = 0; i < prefix.length; i++) {
+			if(line[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method reads the whole number that makes up the rest of the current line.
+	 *
+	 * @param start is where in the line the number begins, before any spaces.
+	 *
+	 * @return The number.
+	 */
+	private int readInt(int start) {
+		int end = lineLength;
+		start = skipSpaces(start, end);
+		end = trimSpaces(start, end);
+
+		int i = start;
+		boolean negative = false;
+		if(i < end && (line[i] == '-' || line[i] == '+')) {
+			negative = line[i] == '-';
+			i++;
+		}
+		//Nine digits always fit in an int, anything longer is checked the slow way.
+		if(i == end || end - i > 9) {
+			return readIntSlowly(start, end);
+		}
+		int value = 0;
+		for(; i < end; i++) {
+			char c = line[i];
+			if(c < '0' || c > '9') {
+				throw error("Expected a whole number", i);
+			}
+			value = value * 10 + (c - '0');
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * This method reads a whole number using Integer.parseInt, for the rare numbers readInt cannot be sure of.
+	 *
+	 * @param start is where in the line the number begins.
+	 * @param end is where in the line the number ends.
+	 *
+	 * @return The number.
+	 */
+	private int readIntSlowly(int start, int end) {
+		try {
+			return Integer.parseInt(new String(line, start, end - start));
+		} catch(NumberFormatException e) {
+			throw error("Expected a whole number", start);
+		}
+	}
+
+	/**
+	 * This method reads one coordinate from the current line. A coordinate ends at the next comma or at
+	 * the end of the line, and may have spaces on either side. After this method returns, position is the
+	 * index of the character that ended the coordinate.
+	 *
+	 * @param start is where in the line the coordinate begins.
+	 * @param needsComma is true if the coordinate must be followed by a comma.
+	 *
+	 * @return The coordinate, rounded to a float the same way (float)Double.parseDouble would round it.
+	 */
+	private float readFloat(int start, boolean needsComma) {
+		int end = start;
+		while(end < lineLength && line[end] != ',') {
+			end++;
+		}
+		if(needsComma && end == lineLength) {
+			throw error("Expected \",\" between the coordinates", lineLength);
+		}
+		position = end;
+		start = skipSpaces(start, end);
+		end = trimSpaces(start, end);
+		if(start == end) {
+			throw error("Expected a coordinate", start);
+		}
+
+		int i = start;
+		boolean negative = false;
+		if(line[i] == '-' || line[i] == '+') {
+			negative = line[i] == '-';
+			i++;
+		}
+		//Read every digit into one whole number, and remember where the decimal point was.
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean hasDigits = false;
+		for(; i < end && line[i] >= '0' && line[i] <= '9'; i++) {
+			hasDigits = true;
+			if(mantissa != 0 || line[i] != '0') {
+				mantissa = mantissa * 10 + (line[i] - '0');
+				digits++;
+			}
+		}
+		if(i < end && line[i] == '.') {
+			for(i++; i < end && line[i] >= '0' && line[i] <= '9'; i++) {
+				hasDigits = true;
+				if(mantissa != 0 || line[i] != '0') {
+					mantissa = mantissa * 10 + (line[i] - '0');
+					digits++;
+				}
+				exponent--;
+			}
+		}
+		if(hasDigits && i < end && (line[i] == 'e' || line[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if(i < end && (line[i] == '-' || line[i] == '+')) {
+				negativeExponent = line[i] == '-';
+				i++;
+			}
+			int written = 0;
+			int value = 0;
+			for(; i < end && line[i] >= '0' && line[i] <= '9' && written < 6; i++, written++) {
+				value = value * 10 + (line[i] - '0');
+			}
+			if(written == 0) {
+				return readFloatSlowly(start, end);
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+
+		/*
+		 * When the digits and the power of ten both fit exactly in a double, one multiply or divide gives
+		 * the correctly rounded double, which is the same one Double.parseDouble returns. Anything else (very
+		 * long or very large numbers, hexadecimal, "Infinity" or a bad coordinate) is left to parseDouble.
+		 */
+		if(!hasDigits || i != end || digits > 18 || mantissa >= MAX_EXACT_MANTISSA || exponent < -22
+				|| exponent > 22) {
+			return readFloatSlowly(start, end);
+		}
+		double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+		return (float)(negative ? -value : value);
+	}
+
+	/**
+	 * This method reads a coordinate using Double.parseDouble, for the rare coordinates readFloat cannot
+	 * read exactly by itself.
+	 *
+	 * @param start is where in the line the coordinate begins.
+	 * @param end is where in the line the coordinate ends.
+	 *
+	 * @return The coordinate.
+	 */
+	private float readFloatSlowly(int start, int end) {
+		try {
+			return (float)Double.parseDouble(new String(line, start, end - start));
+		} catch(NumberFormatException e) {
+			throw error("Expected a number", start);
+		}
+	}
+
+	/**
+	 * This method skips the spaces at the start of part of the current line.
+	 *
+	 * @param start is where the part begins.
+	 * @param end is where the part ends.
+	 *
+	 * @return The index of the first character that is not a space, or end.
+	 */
+	private int skipSpaces(int start, int end) {
+		while(start < end && line[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * This method skips the spaces at the end of part of the current line.
+	 *
+	 * @param start is where the part begins.
+	 * @param end is where the part ends.
+	 *
+	 * @return The index just after the last character that is not a space, or start.
+	 */
+	private int trimSpaces(int start, int end) {
+		while(end > start && line[end - 1] <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * This method creates the exception for a problem in the current line.
+	 *
+	 * @param message describes what was wrong.
+	 * @param index is where in the line the problem is.
+	 *
+	 * @return The exception to throw.
+	 */
+	private LevelFormatException error(String message, int index) {
+		return new LevelFormatException(message + " in \"" + new String(line, 0, lineLength) + "\"", lineNumber,
+				index + 1);
+	}
+}
@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class reads and parses the level files given to Level.main on a thread of its own, one level ahead of the
+ * game. When the GameEngine is given the files itself, it reads and parses each one on its own thread when the
+ * level before it is won, which holds the game up for as long as that takes on a large level. Instead, as soon as
+ * a level is taken from the prefetcher, the file after it is read into a PreparedLevel while the level is played,
+ * so winning a level only has to put the objects that are already waiting into the next Level.
+ *
+ * A file that cannot be read or is empty gives a random level, the same as in the GameEngine. A file that is not
+ * in the level format throws its LevelFormatException from take(), on the game's thread.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelPrefetcher {
+	//The level files, in the order they are played.
+	private String[] files;
+	//The Random of the levels the objects are put in.
+	private Random randGen;
+	//Whether the text of each level is kept too, for recording it.
+	private boolean keepText;
+	//The thread the files are read and parsed on.
+	private ExecutorService reader;
+	//The level being read ahead, and its index in files.
+	private Future<PreparedLevel> next;
+	private int nextIndex = -1;
+
+	/**
+	 * This constructor initializes a new LevelPrefetcher. Nothing is read until the
+	 * first level is taken.
+	 *
+	 * @param files are the level files, in the order they are played.
+	 * @param randGen is the Random of the levels the objects are put in.
+	 * @param keepText is whether the text of each level is kept, for recording it.
+	 */
+	public LevelPrefetcher(String[] files, Random randGen, boolean keepText) {
+		this.files = files;
+		this.randGen = randGen;
+		this.keepText = keepText;
+		reader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "Level prefetch");
+				//Never keep the game running, and give way to the game's own threads.
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * This method takes a level, waiting for it to be read if it has not been read
+	 * ahead, and starts reading the level after it.
+	 *
+	 * @param index is the index of the level in the files.
+	 *
+	 * @return The level, or null if a random level should be played instead.
+	 *
+	 * @throws LevelFormatException if the file is not in the level format.
+	 */
+	public PreparedLevel take(int index) {
+		Future<PreparedLevel> future = index == nextIndex ? next : submit(index);
+		nextIndex = index + 1;
+		next = submit(nextIndex);
+		if(future == null) {
+			return null;
+		}
+
+		try {
+			return future.get();
+		} catch(InterruptedException e) {
+			//Read it on this thread instead.
+			Thread.currentThread().interrupt();
+			return prepare(index);
+		} catch(ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			if(e.getCause() instanceof Error) {
+				throw (Error)e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * This method starts reading a level on the prefetch thread.
+	 *
+	 * @param index is the index of the level in the files.
+	 *
+	 * @return The level being read, or null if there is no such file.
+	 */
+	private Future<PreparedLevel> submit(final int index) {
+		if(index >= files.length) {
+			return null;
+		}
+		return reader.submit(new Callable<PreparedLevel>() {
+			public PreparedLevel call() {
+				return prepare(index);
+			}
+		});
+	}
+
+	/**
+	 * This method reads and parses a level file.
+	 *
+	 * @param index is the index of the level in the files.
+	 *
+	 * @return The level, or null if a random level should be played instead.
+	 *
+	 * @throws LevelFormatException if the file is not in the level format.
+	 */
+	PreparedLevel prepare(int index) {
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(Paths.get(files[index]));
+		} catch(IOException | InvalidPathException e) {
+			System.err.println("Could not read " + files[index] + ", so a random level is played: " + e);
+			return null;
+		}
+		if(isBlank(bytes)) {
+			return null;
+		}
+
+		PreparedLevel prepared = new PreparedLevel(randGen);
+		new LevelParser().parse(ByteBuffer.wrap(bytes), prepared);
+		if(keepText) {
+			prepared.text = new String(bytes, Charset.defaultCharset());
+		}
+		return prepared;
+	}
+
+	/**
+	 * This method checks whether a file holds nothing but white space, the way
+	 * String.trim() sees it.
+	 *
+	 * @param bytes are the contents of the file.
+	 *
+	 * @return Return true if the file is blank, otherwise return false.
+	 */
+	private static boolean isBlank(byte[] bytes) {
+		for(int i = 0; i < bytes.length; i++) {
+			if((bytes[i] & 0xFF) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
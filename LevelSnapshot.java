@@ -0,0 +1,687 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class saves everything about a running Level into a ByteBuffer, and puts a level back the way it was from
+ * what was saved, so that a level can be rolled back a few frames or picked up again after the game has crashed.
+ * The buffer can be written anywhere, such as a FileChannel or the memory-mapped slots of a SnapshotRing.
+ *
+ * There are two kinds of snapshot. A full snapshot holds the whole level. A delta snapshot holds only what has
+ * changed since the last full snapshot this LevelSnapshot wrote or restored: which of its pants and fires are
+ * left, the fires whose heat or next fireball have changed, and any new pants and fires. Pants never move and
+ * fires rarely change, so in a big level a delta is mostly the hero, water and fireballs, which move every step
+ * and so are always written in full. A delta is restored by restoring its full snapshot and then applying it.
+ *
+ * Along with the objects, a snapshot holds the level's clock and the state of its Random, so a restored level
+ * plays on exactly the same as the saved one would have. Levels are saved and restored between updates, and only
+ * levels using the array lists can be saved, not ones using the EntityStore. A snapshot is laid out as:
+ *
+ * Header: int MAGIC, byte VERSION, byte FULL or DELTA, long sequence number, long sequence number of the full
+ * snapshot a delta is against (the snapshot's own for a full snapshot).
+ * Level: int level number, int control type, int step time, int accumulator, long clock, long next fire order,
+ * long Random seed.
+ * Full pants: int count, then float x, float y of each pant.
+ * Full fires: int count, then float x, float y, int heat, int time until the next fireball, long order of each.
+ * Delta pants: int full snapshot's count, one bit per pant that is left, then new pants as in a full snapshot.
+ * Delta fires: int full snapshot's count, one bit per fire that is left, int count of changed fires, then int
+ * index, int heat, int time until the next fireball of each, then new fires as in a full snapshot.
+ * Moving objects: byte 1 if there is a hero, then float x, y, direction, previous x, previous y, int time until
+ * holding the mouse sprays; int water capacity, int water count, then float x, y, direction, previous x,
+ * previous y, distance traveled of each; int fireball count, then float x, y, direction, previous x, previous y
+ * of each.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelSnapshot {
+	//Written at the start of every snapshot, "PSNP".
+	static final int MAGIC = 0x50534E50;
+	//The version of the layout.
+	static final byte VERSION = 3;
+	//The kinds of snapshot.
+	static final byte FULL = 0;
+	static final byte DELTA = 1;
+	//The size in bytes of the header.
+	static final int HEADER_SIZE = 22;
+
+	//Random's multiplier, which setSeed mixes into the seed it is given.
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	//Whether a Random is serialized the way readSeed expects, checked on a Random with a known seed.
+	private static final boolean SEED_READABLE =
+			readSerializedSeed(new Random(42)) == ((42 ^ MULTIPLIER) & ((1L << 48) - 1));
+
+	//Sequence number of the full snapshot deltas are written against, or -1 if there is none.
+	private long baseSequence = -1;
+	//The pants in the full snapshot.
+	private Pant[] basePants = new Pant[64];
+	private int basePantCount = 0;
+	//The fires in the full snapshot, with the order, heat and fireball time of each when it was taken.
+	private Fire[] baseFires = new Fire[64];
+	private long[] baseOrders = new long[64];
+	private int[] baseHeats = new int[64];
+	private long[] baseTimes = new long[64];
+	private int baseFireCount = 0;
+	//Indexes of the full snapshot's fires that have changed, filled in while writing a delta.
+	private int[] changed = new int[64];
+	//Pants taken out of a level by a restore, kept to be used again by the next one.
+	private ArrayList<Pant> sparePants = new ArrayList<Pant>();
+
+	//The clock, next fire order and Random seed read from the last level section.
+	private long clock;
+	private long nextOrder;
+	private long seed;
+
+	/**
+	 * This method writes a full snapshot of a level, which later delta snapshots are
+	 * written against.
+	 *
+	 * @param level is the level to save.
+	 * @param sequence is a number that identifies the snapshot, such as a count of the snapshots taken.
+	 * @param out is where the snapshot is written, starting at its position.
+	 *
+	 * @return The size of the snapshot in bytes.
+	 *
+	 * @throws java.nio.BufferOverflowException if the snapshot does not fit in the buffer. No delta can then
+	 * be written until another full snapshot is.
+	 */
+	public int writeFull(Level level, long sequence, ByteBuffer out) {
+		checkLevel(level);
+		baseSequence = -1;
+		int start = out.position();
+		writeHeader(out, FULL, sequence, sequence);
+		writeLevel(level, out);
+
+		ArrayList<Pant> pants = level.pants;
+		int pantCount = pants.size();
+		if(basePants.length < pantCount) {
+			basePants = new Pant[pantCount];
+		}
+		out.putInt(pantCount);
+		for(int i = 0; i < pantCount; i++) {
+			Pant pant = pants.get(i);
+			writePant(pant, out);
+			basePants[i] = pant;
+		}
+		basePantCount = pantCount;
+
+		ArrayList<Fire> fires = level.fires;
+		int fireCount = fires.size();
+		if(baseFires.length < fireCount) {
+			baseFires = new Fire[fireCount];
+			baseOrders = new long[fireCount];
+			baseHeats = new int[fireCount];
+			baseTimes = new long[fireCount];
+			changed = new int[fireCount];
+		}
+		out.putInt(fireCount);
+		for(int i = 0; i < fireCount; i++) {
+			Fire fire = fires.get(i);
+			writeFire(fire, level.fireScheduler, out);
+			baseFires[i] = fire;
+			baseOrders[i] = fire.order;
+			baseHeats[i] = fire.getHeat();
+			baseTimes[i] = fire.fireballTime;
+		}
+		baseFireCount = fireCount;
+
+		writeMovingObjects(level, out);
+		baseSequence = sequence;
+		return out.position() - start;
+	}
+
+	/**
+	 * This method writes a delta snapshot of a level, holding only what has changed
+	 * since the last full snapshot this LevelSnapshot wrote or restored, which must
+	 * have been of the same level.
+	 *
+	 * @param level is the level to save.
+	 * @param sequence is a number that identifies the snapshot, such as a count of the snapshots taken.
+	 * @param out is where the snapshot is written, starting at its position.
+	 *
+	 * @return The size of the snapshot in bytes.
+	 *
+	 * @throws IllegalStateException if there is no full snapshot to write the delta against.
+	 * @throws java.nio.BufferOverflowException if the snapshot does not fit in the buffer.
+	 */
+	public int writeDelta(Level level, long sequence, ByteBuffer out) {
+		checkLevel(level);
+		if(baseSequence < 0) {
+			throw new IllegalStateException("A full snapshot has to be written or restored before a delta");
+		}
+		int start = out.position();
+		writeHeader(out, DELTA, sequence, baseSequence);
+		writeLevel(level, out);
+
+		/*
+		 * Objects are only ever added to the end of the array lists, and removing objects keeps the rest in order,
+		 * so the full snapshot's pants and fires that are left come first, in the same order, followed by new ones.
+		 */
+		ArrayList<Pant> pants = level.pants;
+		out.putInt(basePantCount);
+		int j = 0;
+		int bits = 0;
+		for(int i = 0; i < basePantCount; i++) {
+			if(j < pants.size() && pants.get(j) == basePants[i]) {
+				bits |= 1 << (i & 7);
+				j++;
+			}
+			if((i & 7) == 7 || i == basePantCount - 1) {
+				out.put((byte)bits);
+				bits = 0;
+			}
+		}
+		out.putInt(pants.size() - j);
+		for(; j < pants.size(); j++) {
+			writePant(pants.get(j), out);
+		}
+
+		//A pooled fire can come back as a new fire, but it is then given a new order.
+		ArrayList<Fire> fires = level.fires;
+		out.putInt(baseFireCount);
+		j = 0;
+		bits = 0;
+		int changedCount = 0;
+		for(int i = 0; i < baseFireCount; i++) {
+			Fire fire = baseFires[i];
+			if(j < fires.size() && fires.get(j) == fire && fire.order == baseOrders[i]) {
+				bits |= 1 << (i & 7);
+				j++;
+				if(fire.getHeat() != baseHeats[i] || fire.fireballTime != baseTimes[i]) {
+					changed[changedCount++] = i;
+				}
+			}
+			if((i & 7) == 7 || i == baseFireCount - 1) {
+				out.put((byte)bits);
+				bits = 0;
+			}
+		}
+		out.putInt(changedCount);
+		for(int c = 0; c < changedCount; c++) {
+			Fire fire = baseFires[changed[c]];
+			out.putInt(changed[c]).putInt(fire.getHeat()).putInt(level.fireScheduler.getCountdown(fire));
+		}
+		out.putInt(fires.size() - j);
+		for(; j < fires.size(); j++) {
+			writeFire(fires.get(j), level.fireScheduler, out);
+		}
+
+		writeMovingObjects(level, out);
+		return out.position() - start;
+	}
+
+	/**
+	 * This method puts a level back the way it was when a full snapshot was taken.
+	 * Later deltas are written against this snapshot.
+	 *
+	 * @param level is the level to restore, which must be the one the snapshot was taken of or one created
+	 * from the same level with the same renderer size.
+	 * @param full is the full snapshot, read from its position.
+	 *
+	 * @throws IllegalArgumentException if the buffer does not hold a full snapshot.
+	 */
+	public void restore(Level level, ByteBuffer full) {
+		restore(level, full, null);
+	}
+
+	/**
+	 * This method puts a level back the way it was when a delta snapshot was taken.
+	 * Later deltas are written against the delta's full snapshot.
+	 *
+	 * @param level is the level to restore, which must be the one the snapshots were taken of or one created
+	 * from the same level with the same renderer size.
+	 * @param full is the full snapshot the delta was written against, read from its position.
+	 * @param delta is the delta snapshot, read from its position, or null to restore the full snapshot alone.
+	 *
+	 * @throws IllegalArgumentException if the buffers do not hold the snapshots, or the delta was not written
+	 * against the full snapshot.
+	 */
+	public void restore(Level level, ByteBuffer full, ByteBuffer delta) {
+		checkLevel(level);
+		baseSequence = -1;
+		checkHeader(full, FULL);
+		long sequence = full.getLong();
+		full.getLong();
+		readLevel(level, full);
+		readPants(level, full);
+		level.isPantLayerStale = true;
+		level.isFireballGridStale = true;
+		level.isFireGridStale = true;
+		level.fireScheduler.clear();
+		level.coldFires.clear();
+		readFires(level, full);
+
+		ByteBuffer moving = full;
+		if(delta != null) {
+			checkHeader(delta, DELTA);
+			delta.getLong();
+			if(delta.getLong() != sequence) {
+				throw new IllegalArgumentException("The delta snapshot was not written against full snapshot "
+						+ sequence);
+			}
+			readLevel(level, delta);
+			applyPants(level, delta);
+			applyFires(level, delta);
+			moving = delta;
+		}
+		readMovingObjects(level, moving);
+
+		//Put the fires back on the clock in their old order, and find the ones that are about to go out.
+		level.fireScheduler.restore(clock, nextOrder);
+		for(int i = 0; i < level.fires.size(); i++) {
+			Fire fire = level.fires.get(i);
+			level.fireScheduler.reschedule(fire);
+			if(fire.getHeat() <= 0) {
+				level.coldFires.add(fire);
+			}
+		}
+		//The Random is set last, because taking fires from the pools uses it.
+		level.randGen.setSeed(seed ^ MULTIPLIER);
+		baseSequence = sequence;
+	}
+
+	/**
+	 * This method reads the sequence number of the full snapshot a snapshot belongs to.
+	 *
+	 * @param snapshot is a full or delta snapshot, read from its position without moving it.
+	 *
+	 * @return The snapshot's own sequence number for a full snapshot, otherwise the sequence number of the full
+	 * snapshot the delta was written against.
+	 *
+	 * @throws IllegalArgumentException if the buffer does not hold a snapshot.
+	 */
+	public static long getFullSequence(ByteBuffer snapshot) {
+		int start = snapshot.position();
+		if(snapshot.getInt(start) != MAGIC || snapshot.get(start + 4) != VERSION) {
+			throw new IllegalArgumentException("Not a level snapshot");
+		}
+		return snapshot.getLong(start + 14);
+	}
+
+	/**
+	 * This method makes sure a level can be saved and restored.
+	 *
+	 * @param level is the level.
+	 *
+	 * @throws IllegalStateException if the level uses the entity store.
+	 */
+	private static void checkLevel(Level level) {
+		if(level.store != null) {
+			throw new IllegalStateException("Levels that use the entity store cannot be saved");
+		}
+	}
+
+	/**
+	 * This method writes the header of a snapshot.
+	 *
+	 * @param out is where the header is written.
+	 * @param kind is FULL or DELTA.
+	 * @param sequence is the snapshot's sequence number.
+	 * @param fullSequence is the sequence number of the full snapshot it belongs to.
+	 */
+	private static void writeHeader(ByteBuffer out, byte kind, long sequence, long fullSequence) {
+		out.putInt(MAGIC).put(VERSION).put(kind).putLong(sequence).putLong(fullSequence);
+	}
+
+	/**
+	 * This method reads the start of a header, up to the sequence numbers.
+	 *
+	 * @param in is where the header is read from.
+	 * @param kind is the kind of snapshot expected.
+	 *
+	 * @throws IllegalArgumentException if the buffer does not hold a snapshot of that kind.
+	 */
+	private static void checkHeader(ByteBuffer in, byte kind) {
+		if(in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) {
+			throw new IllegalArgumentException("Not a level snapshot");
+		}
+		if(in.get() != VERSION) {
+			throw new IllegalArgumentException("Unsupported level snapshot version");
+		}
+		if(in.get() != kind) {
+			throw new IllegalArgumentException(kind == FULL ? "Not a full level snapshot" : "Not a delta level snapshot");
+		}
+	}
+
+	/**
+	 * This method writes the level's numbers, clock and Random.
+	 *
+	 * @param level is the level being saved.
+	 * @param out is where they are written.
+	 */
+	private static void writeLevel(Level level, ByteBuffer out) {
+		out.putInt(level.level).putInt(level.controlType).putInt(level.stepTime).putInt(level.accumulator);
+		out.putLong(level.fireScheduler.getClock()).putLong(level.fireScheduler.getNextOrder());
+		out.putLong(readSeed(level.randGen));
+	}
+
+	/**
+	 * This method reads the level's numbers back into it, and keeps the clock, next
+	 * fire order and Random seed to be set once the objects are restored.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where they are read from.
+	 */
+	private void readLevel(Level level, ByteBuffer in) {
+		level.level = in.getInt();
+		level.controlType = in.getInt();
+		level.stepTime = in.getInt();
+		level.accumulator = in.getInt();
+		clock = in.getLong();
+		nextOrder = in.getLong();
+		seed = in.getLong();
+	}
+
+	/**
+	 * This method writes a pant.
+	 *
+	 * @param pant is the pant.
+	 * @param out is where it is written.
+	 */
+	private static void writePant(Pant pant, ByteBuffer out) {
+		out.putFloat(pant.getGraphic().getX()).putFloat(pant.getGraphic().getY());
+	}
+
+	/**
+	 * This method reads a pant and adds it to the level, using a pant taken out by an
+	 * earlier restore if there is one.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where the pant is read from.
+	 *
+	 * @return The pant.
+	 */
+	private Pant readPant(Level level, ByteBuffer in) {
+		float x = in.getFloat();
+		float y = in.getFloat();
+		Pant pant;
+		if(sparePants.isEmpty()) {
+			pant = new Pant(x, y, level.randGen);
+		} else {
+			pant = sparePants.remove(sparePants.size() - 1);
+			pant.reset(x, y, level.randGen);
+		}
+		level.pants.add(pant);
+		return pant;
+	}
+
+	/**
+	 * This method replaces the level's pants with the ones in a full snapshot.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where the pants are read from.
+	 */
+	private void readPants(Level level, ByteBuffer in) {
+		for(int i = 0; i < level.pants.size(); i++) {
+			sparePants.add(level.pants.get(i));
+		}
+		level.pants.clear();
+		int count = in.getInt();
+		if(basePants.length < count) {
+			basePants = new Pant[count];
+		}
+		for(int i = 0; i < count; i++) {
+			basePants[i] = readPant(level, in);
+		}
+		basePantCount = count;
+	}
+
+	/**
+	 * This method removes the full snapshot's pants that were gone when a delta was
+	 * taken, and adds the new ones.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where the delta's pants are read from.
+	 */
+	private void applyPants(Level level, ByteBuffer in) {
+		if(in.getInt() != basePantCount) {
+			throw new IllegalArgumentException("The delta snapshot does not match its full snapshot");
+		}
+		ArrayList<Pant> pants = level.pants;
+		int kept = 0;
+		int bits = 0;
+		for(int i = 0; i < basePantCount; i++) {
+			if((i & 7) == 0) {
+				bits = in.get();
+			}
+			if((bits & (1 << (i & 7))) != 0) {
+				pants.set(kept++, basePants[i]);
+			} else {
+				sparePants.add(basePants[i]);
+			}
+		}
+		pants.subList(kept, pants.size()).clear();
+		int added = in.getInt();
+		for(int i = 0; i < added; i++) {
+			readPant(level, in);
+		}
+	}
+
+	/**
+	 * This method writes a fire.
+	 *
+	 * @param fire is the fire.
+	 * @param scheduler is the scheduler the fire is on.
+	 * @param out is where it is written.
+	 */
+	private static void writeFire(Fire fire, FireScheduler scheduler, ByteBuffer out) {
+		out.putFloat(fire.getGraphic().getX()).putFloat(fire.getGraphic().getY());
+		out.putInt(fire.getHeat()).putInt(scheduler.getCountdown(fire)).putLong(fire.order);
+	}
+
+	/**
+	 * This method reads a fire and adds it to the level. It is put on the level's
+	 * fire scheduler once every fire has been read.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where the fire is read from.
+	 *
+	 * @return The fire.
+	 */
+	private Fire readFire(Level level, ByteBuffer in) {
+		Fire fire = level.pools.acquireFire(in.getFloat(), in.getFloat(), level.randGen);
+		fire.restore(in.getInt());
+		fire.fireballTime = clock + in.getInt();
+		fire.order = in.getLong();
+		level.fires.add(fire);
+		return fire;
+	}
+
+	/**
+	 * This method replaces the level's fires with the ones in a full snapshot. The
+	 * level's fire scheduler must already be empty.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where the fires are read from.
+	 */
+	private void readFires(Level level, ByteBuffer in) {
+		for(int i = 0; i < level.fires.size(); i++) {
+			level.pools.releaseFire(level.fires.get(i));
+		}
+		level.fires.clear();
+		int count = in.getInt();
+		if(baseFires.length < count) {
+			baseFires = new Fire[count];
+			baseOrders = new long[count];
+			baseHeats = new int[count];
+			baseTimes = new long[count];
+			changed = new int[count];
+		}
+		for(int i = 0; i < count; i++) {
+			Fire fire = readFire(level, in);
+			baseFires[i] = fire;
+			baseOrders[i] = fire.order;
+			baseHeats[i] = fire.getHeat();
+			baseTimes[i] = fire.fireballTime;
+		}
+		baseFireCount = count;
+	}
+
+	/**
+	 * This method removes the full snapshot's fires that were gone when a delta was
+	 * taken, updates the ones that changed, and adds the new ones.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where the delta's fires are read from.
+	 */
+	private void applyFires(Level level, ByteBuffer in) {
+		if(in.getInt() != baseFireCount) {
+			throw new IllegalArgumentException("The delta snapshot does not match its full snapshot");
+		}
+		ArrayList<Fire> fires = level.fires;
+		int kept = 0;
+		int bits = 0;
+		for(int i = 0; i < baseFireCount; i++) {
+			if((i & 7) == 0) {
+				bits = in.get();
+			}
+			if((bits & (1 << (i & 7))) != 0) {
+				fires.set(kept++, baseFires[i]);
+			} else {
+				level.pools.releaseFire(baseFires[i]);
+			}
+		}
+		fires.subList(kept, fires.size()).clear();
+		int changedCount = in.getInt();
+		for(int c = 0; c < changedCount; c++) {
+			Fire fire = baseFires[in.getInt()];
+			fire.restore(in.getInt());
+			fire.fireballTime = clock + in.getInt();
+		}
+		int added = in.getInt();
+		for(int i = 0; i < added; i++) {
+			readFire(level, in);
+		}
+	}
+
+	/**
+	 * This method writes the hero, water and fireballs.
+	 *
+	 * @param level is the level being saved.
+	 * @param out is where they are written.
+	 */
+	private static void writeMovingObjects(Level level, ByteBuffer out) {
+		Hero hero = level.hero;
+		if(hero == null) {
+			out.put((byte)0);
+		} else {
+			Graphic graphic = hero.getGraphic();
+			out.put((byte)1).putFloat(graphic.getX()).putFloat(graphic.getY()).putFloat(graphic.getDirection());
+			out.putFloat(hero.getPreviousX()).putFloat(hero.getPreviousY()).putInt(hero.getSprayWait());
+		}
+
+		WaterSlots water = level.water;
+		out.putInt(water.getCapacity()).putInt(water.size());
+		for(int i = 0; i < water.size(); i++) {
+			Water drop = water.get(water.getLiveSlot(i));
+			Graphic graphic = drop.getGraphic();
+			out.putFloat(graphic.getX()).putFloat(graphic.getY()).putFloat(graphic.getDirection());
+			out.putFloat(drop.getPreviousX()).putFloat(drop.getPreviousY()).putFloat(drop.getDistanceTraveled());
+		}
+
+		ArrayList<Fireball> fireballs = level.fireballs;
+		out.putInt(fireballs.size());
+		for(int i = 0; i < fireballs.size(); i++) {
+			Fireball fireball = fireballs.get(i);
+			Graphic graphic = fireball.getGraphic();
+			out.putFloat(graphic.getX()).putFloat(graphic.getY()).putFloat(graphic.getDirection());
+			out.putFloat(fireball.getPreviousX()).putFloat(fireball.getPreviousY());
+		}
+	}
+
+	/**
+	 * This method replaces the level's hero, water and fireballs with the saved ones.
+	 *
+	 * @param level is the level being restored.
+	 * @param in is where they are read from.
+	 */
+	private static void readMovingObjects(Level level, ByteBuffer in) {
+		if(in.get() != 0) {
+			float x = in.getFloat();
+			float y = in.getFloat();
+			if(level.hero == null) {
+				level.hero = new Hero(x, y, level.controlType);
+			}
+			level.hero.controlType = level.controlType;
+			level.hero.restore(x, y, in.getFloat(), in.getFloat(), in.getFloat(), in.getInt());
+		} else {
+			level.hero = null;
+		}
+
+		//The water objects are added back in the same order, so they are updated in the same order.
+		for(int i = 0; i < level.water.size(); i++) {
+			level.pools.releaseWater(level.water.get(level.water.getLiveSlot(i)));
+		}
+		level.water.clear();
+		int capacity = in.getInt();
+		if(capacity != level.water.getCapacity()) {
+			level.setWaterCapacity(capacity);
+		}
+		int waterCount = in.getInt();
+		for(int i = 0; i < waterCount; i++) {
+			Water drop = level.pools.acquireWater(in.getFloat(), in.getFloat(), in.getFloat());
+			drop.restore(in.getFloat(), in.getFloat(), in.getFloat());
+			level.water.add(drop);
+		}
+
+		ArrayList<Fireball> fireballs = level.fireballs;
+		for(int i = 0; i < fireballs.size(); i++) {
+			level.pools.releaseFireball(fireballs.get(i));
+		}
+		fireballs.clear();
+		int count = in.getInt();
+		for(int i = 0; i < count; i++) {
+			Fireball fireball = level.pools.acquireFireball(in.getFloat(), in.getFloat(), in.getFloat());
+			fireball.restore(in.getFloat(), in.getFloat());
+			fireballs.add(fireball);
+		}
+	}
+
+	/**
+	 * This method reads the internal seed of a Random, which it has no accessor for.
+	 *
+	 * @param randGen is the Random to read.
+	 *
+	 * @return The seed, which setSeed(seed ^ MULTIPLIER) puts back.
+	 *
+	 * @throws IllegalArgumentException if the random object is a subclass of Random.
+	 * @throws IllegalStateException if this JVM does not serialize a Random the expected way.
+	 */
+	static long readSeed(Random randGen) {
+		if(randGen.getClass() != Random.class) {
+			throw new IllegalArgumentException("Only a java.util.Random can be saved, not a "
+					+ randGen.getClass().getName());
+		}
+		if(!SEED_READABLE) {
+			throw new IllegalStateException("This JVM's Random cannot be saved");
+		}
+		return readSerializedSeed(randGen);
+	}
+
+	/**
+	 * This method reads the seed of a Random from its serialized form. The serialized
+	 * fields of Random are part of its specification, and the seed is the last of
+	 * them, followed by the end of block marker.
+	 *
+	 * @param randGen is the Random to read.
+	 *
+	 * @return The seed.
+	 */
+	private static long readSerializedSeed(Random randGen) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(randGen);
+			out.close();
+		} catch(IOException e) {
+			//A ByteArrayOutputStream never fails to write.
+			throw new UncheckedIOException(e);
+		}
+		byte[] data = bytes.toByteArray();
+		return ByteBuffer.wrap(data, data.length - 9, 8).getLong();
+	}
+}
@@ -0,0 +1,24 @@
+/**
+ * This is an Input for running a Level headless, without the GameEngine window. No keys are ever held or 
+ * pressed and the mouse stays at the top left corner of the screen.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class NullInput implements Input {
+	public boolean isKeyHeld(String key) {
+		return false;
+	}
+	
+	public boolean isKeyPressed(String key) {
+		return false;
+	}
+	
+	public int getMouseX() {
+		return 0;
+	}
+	
+	public int getMouseY() {
+		return 0;
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * This is a Renderer for running a Level headless, without the GameEngine window. Drawing does nothing and the
+ * screen size is fixed when the renderer is created.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class NullRenderer implements Renderer {
+	//Width of the pretend screen.
+	private int width;
+	//Height of the pretend screen.
+	private int height;
+	
+	static {
+		/*
+		 * Graphic objects can only be created once Graphic has been registered with a PApplet, which normally
+		 * happens in GameEngine.start(). A PApplet that is never started is enough for positions and collisions.
+		 * One graphic of each type is created here so that Graphic's shared image cache is filled before any 
+		 * other thread can use it.
+		 */
+		Graphic.register(new processing.core.PApplet());
+		String[] types = {"HERO", "PANT", "FIRE", "FIREBALL", "WATER"};
+		for(int i = 0; i < types.length; i++) {
+			new Graphic(types[i]);
+		}
+	}
+	
+	/**
+	 * This constructor initializes a new NullRenderer with the same screen size 
+	 * as the GameEngine window.
+	 */
+	public NullRenderer() {
+		this(800, 600);
+	}
+	
+	/**
+	 * This constructor initializes a new NullRenderer with a chosen screen size.
+	 * 
+	 * @param width is the width of the pretend screen in pixels.
+	 * @param height is the height of the pretend screen in pixels.
+	 */
+	public NullRenderer(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+	
+	public void draw(Graphic graphic) {
+		//Nothing is drawn when running headless.
+	}
+	
+	public void drawBatch(Graphic sprite, SpriteBatch batch) {
+		//Nothing is drawn when running headless.
+	}
+	
+	public void drawLayer(Graphic sprite, StaticLayer layer) {
+		//Nothing is drawn when running headless, so every change counts as drawn.
+		layer.markDrawn();
+	}
+	
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+}
@@ -15,6 +15,8 @@ public class Pant {
 	private Random randGen;
 	//Whether or not te pant object still exists.
 	private boolean isAlive = true;
+	//The pant's handle in the level's static layer, or -1 if it is not in it.
+	int layerHandle = -1;
 	 
 	/**
 	 * This constructor initializes a new Pant object. It sets the position in 
@@ -30,7 +32,22 @@ public class Pant {
 		graphic.setX(x);
 		graphic.setY(y);
 	}
-	
+
+	/**
+	 * This method puts a pant object back into the state of a brand new pant at
+	 * the given position, so it can be used again when a level is restored.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param randGen is the random object that is passed to generate random numbers.
+	 */
+	void reset(float x, float y, Random randGen) {
+		this.randGen = randGen;
+		graphic.setX(x);
+		graphic.setY(y);
+		isAlive = true;
+	}
+
 	/**
 	 * This is an accessor method to use in other classes to obtain this objects
 	 * graphic.
@@ -41,37 +58,64 @@ public class Pant {
 		return this.graphic;
 	}
 	
-	public void update(int time) {
+	/**
+	 * This method draws the pant object if it still exists.
+	 * 
+	 * @param pass is the render pass the pant is added to.
+	 */
+	public void draw(RenderPass pass) {
 		//If the pant exists draw it.
 		if(isAlive) {
-			graphic.draw();
+			pass.add(RenderPass.PANT, graphic.getX(), graphic.getY(), graphic.getDirection());
 		}
 	}
 	
 	/**
-	 * This method cycles through the fireball array list to see if any are colliding 
-	 * with the pant object.
+	 * This method asks the fireball grid for the fireballs near the pant object and 
+	 * checks whether any of them are colliding with it. If several are colliding, the
+	 * one that comes first in the array list is used.
 	 * 
 	 * @param fireballs is the array list of fireballs.
+	 * @param fireballGrid is the spatial grid holding the index of every fireball in the list.
+	 * @param pools is where the new fire is taken from.
 	 * 
 	 * @return Return the new fire object created in the postion where the pants were
 	 * destroyed.
 	 */
-	public Fire handleFireballCollisions(ArrayList<Fireball> fireballs) {
-		//Cycle through the fireball array list.
-		for(int i = 0; i < fireballs.size(); i++) {
-				//Check to see if any fireball is colliding with the pant object.
-				if(fireballs.get(i).getGraphic().isCollidingWith(getGraphic())) {	
-					//If so remove the fireball and create a new fire where the pant used to be.
-					fireballs.get(i).destroy();
-					Fire fire = new Fire(getGraphic().getX(), getGraphic().getY(), randGen);
-					return fire;
+	public Fire handleFireballCollisions(ArrayList<Fireball> fireballs, SpatialGrid fireballGrid, EntityPools pools) {
+		//The index of the first colliding fireball in the array list.
+		int hit = -1;
+		
+		//Cycle through the fireballs near the pant object.
+		int count = fireballGrid.query(graphic.getX(), graphic.getY());
+		for(int j = 0; j < count; j++) {
+			int i = fireballGrid.getResult(j);
+			//Check to see if any fireball is colliding with the pant object.
+			if(hit == -1 || i < hit) {
+				Fireball fireball = fireballs.get(i);
+				if(SweptCollision.isColliding(fireball.getGraphic(), fireball.getPreviousX(), fireball.getPreviousY(),
+											  graphic, graphic.getX(), graphic.getY())) {
+					hit = i;
 				}
-			
+			}
+		}
+		
+		if(hit != -1) {
+			//If so remove the fireball and create a new fire where the pant used to be.
+			fireballs.get(hit).destroy();
+			Fire fire = pools.acquireFire(getGraphic().getX(), getGraphic().getY(), randGen);
+			return fire;
 		}
 		return null;
 	}
 	
+	/**
+	 * This is a mutator method to set the pant's isAlive field to false.
+	 */
+	public void destroy() {
+		this.isAlive = false;
+	}
+	
 	/**
 	 * This method checks the objects isAlive field to see whether or not the 
 	 * object is still alive or should be removed.
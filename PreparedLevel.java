@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class holds every object of a text level once it has been parsed, ready to be put into a Level by
+ * Level.loadLevel(PreparedLevel) without reading or parsing anything. A LevelPrefetcher fills one in on a thread of
+ * its own while the level before it is played, by passing it to a LevelParser.
+ *
+ * The objects are created in the same way Level.loadLevel creates them, except that nothing may use the level's
+ * Random here, since the game is using it on another thread. Each fire is given its fireball countdown from a
+ * Random of its own for now, and the level gives every fire a countdown again from its own Random when the level
+ * is loaded, in the same order Level.loadLevel would. Graphic's image cache must be filled before another thread
+ * fills a PreparedLevel in, which the GameEngine's first Level does when it creates its RenderPass.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class PreparedLevel implements LevelHandler {
+	//The Random every pant is given, which is only kept by the pants until they burn.
+	private Random randGen;
+	//Where the fires take their countdowns from until the level gives them new ones.
+	private Random placeholder = new Random(0);
+
+	//The way the hero is controlled, or 0 if the level does not say.
+	int controlType = 0;
+	//The hero, or null if the level has none.
+	Hero hero;
+	//The pants and fires, in the order they appear in the level.
+	ArrayList<Pant> pants = new ArrayList<Pant>();
+	ArrayList<Fire> fires = new ArrayList<Fire>();
+	//The level text, for recording the level, or null if it was not kept.
+	String text;
+
+	/**
+	 * This constructor initializes a new empty PreparedLevel.
+	 *
+	 * @param randGen is the Random of the level the objects will be put in.
+	 */
+	public PreparedLevel(Random randGen) {
+		this.randGen = randGen;
+	}
+
+	public void controlType(int type) {
+		controlType = type;
+	}
+
+	public void hero(float x, float y) {
+		hero = new Hero(x, y, controlType);
+	}
+
+	public void pant(float x, float y) {
+		pants.add(new Pant(x, y, randGen));
+	}
+
+	public void fire(float x, float y) {
+		fires.add(new Fire(x, y, placeholder));
+	}
+
+	/**
+	 * This is an accessor method for the Random the pants were given.
+	 *
+	 * @return The Random of the level the objects will be put in.
+	 */
+	public Random getRandom() {
+		return randGen;
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * This class collects everything a Level draws in a frame, grouped by sprite type, and then submits each type to
+ * the Renderer in a single batched call. Sprites that are entirely off the screen are culled as they are added,
+ * which matters most for fireballs, since they are kept alive until they are well past the edge of the screen.
+ * 
+ * The types are submitted in the order the Level has always drawn them in: hero, water, pants, fireballs, fires.
+ * A type can also be given a StaticLayer of sprites that do not move, which is drawn just before the type's batch.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class RenderPass {
+	//The sprite types, in the order they are submitted.
+	static final int HERO = 0;
+	static final int WATER = 1;
+	static final int PANT = 2;
+	static final int FIREBALL = 3;
+	static final int FIRE = 4;
+	//The Graphic type of each sprite type.
+	static final String[] TYPES = {"HERO", "WATER", "PANT", "FIREBALL", "FIRE"};
+	//How far past the edge of the screen a sprite's center can be while part of it could still be seen.
+	static final float CULL_MARGIN = 64;
+	
+	//One batch for each sprite type.
+	private SpriteBatch[] batches = new SpriteBatch[TYPES.length];
+	//One graphic of each type, handed to the renderer with its batch.
+	private Graphic[] sprites = new Graphic[TYPES.length];
+	//The static layer of each type, or null if the type has none.
+	private StaticLayer[] layers = new StaticLayer[TYPES.length];
+	//The edges of the area sprites are kept in, including the margin.
+	private float minimumX;
+	private float minimumY;
+	private float maximumX;
+	private float maximumY;
+	//Number of sprites culled this frame.
+	private int culled;
+	
+	/**
+	 * This constructor initializes a new RenderPass with an empty batch for every sprite type.
+	 */
+	public RenderPass() {
+		for(int i = 0; i < TYPES.length; i++) {
+			batches[i] = new SpriteBatch();
+			sprites[i] = new Graphic(TYPES[i]);
+		}
+	}
+	
+	/**
+	 * This method starts a new frame, emptying every batch.
+	 * 
+	 * @param width is the width of the screen in pixels.
+	 * @param height is the height of the screen in pixels.
+	 */
+	public void begin(int width, int height) {
+		for(int i = 0; i < batches.length; i++) {
+			batches[i].clear();
+		}
+		minimumX = -CULL_MARGIN;
+		minimumY = -CULL_MARGIN;
+		maximumX = width + CULL_MARGIN;
+		maximumY = height + CULL_MARGIN;
+		culled = 0;
+	}
+	
+	/**
+	 * This method adds a sprite to the frame, unless it is off the screen.
+	 * 
+	 * @param type is the sprite type, such as PANT.
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the sprite is facing.
+	 */
+	public void add(int type, float x, float y, float direction) {
+		if(x < minimumX || x > maximumX || y < minimumY || y > maximumY) {
+			culled++;
+			return;
+		}
+		batches[type].add(x, y, direction);
+	}
+	
+	/**
+	 * This method gives a sprite type a static layer, which is drawn every frame
+	 * whatever is added to the type's batch.
+	 * 
+	 * @param type is the sprite type, such as PANT.
+	 * @param layer is the layer, or null to stop drawing one.
+	 */
+	public void setLayer(int type, StaticLayer layer) {
+		layers[type] = layer;
+	}
+	
+	/**
+	 * This method draws every sprite added this frame, with one call to the renderer
+	 * for each sprite type that has any, and one for each static layer.
+	 * 
+	 * @param renderer is what the sprites are drawn with.
+	 */
+	public void submit(Renderer renderer) {
+		for(int i = 0; i < batches.length; i++) {
+			if(layers[i] != null) {
+				renderer.drawLayer(sprites[i], layers[i]);
+			}
+			if(batches[i].size > 0) {
+				renderer.drawBatch(sprites[i], batches[i]);
+			}
+		}
+	}
+	
+	/**
+	 * This is an accessor method for the sprites of one type added this frame.
+	 * 
+	 * @param type is the sprite type, such as PANT.
+	 * 
+	 * @return The batch of sprites.
+	 */
+	public SpriteBatch getBatch(int type) {
+		return batches[type];
+	}
+	
+	/**
+	 * This is an accessor method for the number of sprites culled this frame.
+	 * 
+	 * @return The number of sprites that were off the screen.
+	 */
+	public int getCulled() {
+		return culled;
+	}
+}
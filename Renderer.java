@@ -0,0 +1,51 @@
+/**
+ * This interface is what the Level and every object in it draw through. The game uses an EngineRenderer that 
+ * draws with the GameEngine window, while a NullRenderer lets a Level be updated without any window at all.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public interface Renderer {
+	/**
+	 * This method draws a graphic at its current position and direction.
+	 * 
+	 * @param graphic is the graphic to draw.
+	 */
+	public void draw(Graphic graphic);
+	
+	/**
+	 * This method draws one graphic at every position and direction in a batch. All 
+	 * of the sprites in a batch share the graphic's type, so they can be drawn 
+	 * together without switching images.
+	 * 
+	 * @param sprite is a graphic of the type to draw. Its position and direction 
+	 * may be changed.
+	 * @param batch holds the position and direction of every sprite to draw.
+	 */
+	public void drawBatch(Graphic sprite, SpriteBatch batch);
+	
+	/**
+	 * This method draws every sprite in a static layer. A renderer may keep an image
+	 * of the layer and only draw the parts of it that have changed again, and must 
+	 * call markDrawn() on the layer once it has.
+	 * 
+	 * @param sprite is a graphic of the type to draw. Its position and direction 
+	 * may be changed.
+	 * @param layer holds the sprites to draw.
+	 */
+	public void drawLayer(Graphic sprite, StaticLayer layer);
+	
+	/**
+	 * This is an accessor method for the width of the screen.
+	 * 
+	 * @return The width of the screen in pixels.
+	 */
+	public int getWidth();
+	
+	/**
+	 * This is an accessor method for the height of the screen.
+	 * 
+	 * @return The height of the screen in pixels.
+	 */
+	public int getHeight();
+}
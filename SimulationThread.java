@@ -0,0 +1,207 @@
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class runs the simulation of a Level on a thread of its own, so that a slow frame on the GameEngine's thread
+ * does not hold up the game and a slow step does not hold up drawing. The two threads share nothing but a lock-free
+ * InputQueue going one way and three WorldFrames going the other:
+ *
+ * - The GameEngine's thread offers the keys and mouse to the InputQueue every frame. The simulation merges every
+ *   waiting message into its own InputSnapshot before each step, so a key pressed between two steps is still seen.
+ * - After each run of steps, the simulation fills in its back frame and swaps it with the middle frame. The drawing
+ *   thread swaps its front frame with the middle one whenever the middle one is newer. Each frame is only ever
+ *   changed by the thread that holds it, so neither thread waits for the other (triple buffering).
+ *
+ * The simulation runs the same fixed steps as Level.update(), timed from System.nanoTime(). The drawing thread
+ * works out how far the game is through the next step from when the newest frame was reached. A level run this
+ * way cannot be recorded, since steps no longer line up with the GameEngine's frames, and a profiler only
+ * measures the steps. A HeroController thinks on the simulation thread, once every THINK_TIME of game time, so it
+ * plays the same way it does when the GameEngine updates the level every 16 milliseconds.
+ *
+ * To play the GameEngine's levels this way: java -Dpantsonfire.simthread=on -cp out:PantsOnFire.jar Level
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class SimulationThread implements Runnable {
+	//The system property that runs the GameEngine's levels on a simulation thread when it is "on" or "true".
+	static final String THREAD_PROPERTY = "pantsonfire.simthread";
+	//How often in milliseconds of game time a HeroController decides what to press, the usual frame time.
+	static final int THINK_TIME = 16;
+
+	//The level being simulated. Only the simulation thread touches it once the thread has started.
+	private Level level;
+	//The thread the level is simulated on.
+	private Thread thread;
+	//Whether the simulation should keep going.
+	private volatile boolean running = true;
+
+	//The input from the GameEngine's thread, and the input the hero reads, merged from it before every step.
+	private InputQueue queue = new InputQueue(64);
+	private InputSnapshot input = new InputSnapshot();
+	//The input being offered, and keys pressed that could not be offered yet because the queue was full.
+	private InputSnapshot offered = new InputSnapshot();
+	private int unsentPresses;
+
+	//The frame being filled in by the simulation, the newest frame handed over, and the frame being drawn.
+	private WorldFrame back = new WorldFrame();
+	private AtomicReference<WorldFrame> middle = new AtomicReference<WorldFrame>(new WorldFrame());
+	private WorldFrame front = new WorldFrame();
+	//The number of frames published so far.
+	private long published;
+	//The length of one step in nanoseconds.
+	private long stepNanos;
+
+	/**
+	 * This constructor initializes a new SimulationThread for a level, and publishes
+	 * the level as it is now as the first frame. The thread is not started yet.
+	 *
+	 * @param level is the level to simulate.
+	 */
+	public SimulationThread(Level level) {
+		this.level = level;
+		stepNanos = level.stepTime * 1000000L;
+		//The hero reads the presses merged in before each step, and they are cleared once a step reads them.
+		level.stepInput = new StepInput(input);
+		publish("CONTINUE", System.nanoTime());
+		front = middle.getAndSet(front);
+	}
+
+	/**
+	 * This method starts simulating the level.
+	 */
+	public void start() {
+		thread = new Thread(this, "Simulation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * This method stops simulating the level and waits for the step being run to
+	 * finish.
+	 */
+	public void stop() {
+		running = false;
+		LockSupport.unpark(thread);
+		if(thread != Thread.currentThread()) {
+			try {
+				thread.join();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * This method passes the current state of the keys and mouse to the simulation.
+	 * It is called from the GameEngine's thread once per frame.
+	 *
+	 * @param source is the input to read.
+	 */
+	public void offer(Input source) {
+		offered.capture(source);
+		int pressed = offered.pressed | unsentPresses;
+		if(queue.offer(InputQueue.pack(offered.held, pressed, offered.mouseX, offered.mouseY))) {
+			unsentPresses = 0;
+		} else {
+			unsentPresses = pressed;
+		}
+	}
+
+	/**
+	 * This method returns the newest frame the simulation has reached. It is called
+	 * from the thread that draws the game, and the frame stays the same until it is
+	 * called again.
+	 *
+	 * @return The frame to draw.
+	 */
+	public WorldFrame getFrame() {
+		if(middle.get().sequence > front.sequence) {
+			front = middle.getAndSet(front);
+		}
+		return front;
+	}
+
+	/**
+	 * This method works out how far the game is through the step after a frame.
+	 *
+	 * @param frame is the frame being drawn.
+	 *
+	 * @return How far through the next step the game is, from 0 to 1.
+	 */
+	public float getAlpha(WorldFrame frame) {
+		float alpha = (float)(System.nanoTime() - frame.time) / stepNanos;
+		return Math.max(0, Math.min(alpha, 1));
+	}
+
+	public void run() {
+		long last = System.nanoTime();
+		//Time in nanoseconds that has passed but has not been simulated yet.
+		long accumulator = 0;
+		//Game time in milliseconds since a controller last thought.
+		int sinceThought = THINK_TIME;
+		String result = "CONTINUE";
+		while(running) {
+			long now = System.nanoTime();
+			accumulator += now - last;
+			last = now;
+
+			int steps = 0;
+			if(level.profiler != null && accumulator >= stepNanos) {
+				level.profiler.beginFrame();
+			}
+			while(accumulator >= stepNanos && steps < Level.MAX_STEPS_PER_UPDATE && result.equals("CONTINUE")) {
+				if(level.controller != null) {
+					if(sinceThought >= THINK_TIME) {
+						level.controller.think(level);
+						input.capture(level.controller);
+						//A press is made once, on the first step after the controller thought.
+						level.stepInput.addPresses();
+						sinceThought = 0;
+					}
+					sinceThought += level.stepTime;
+				} else {
+					input.pressed = 0;
+					queue.drainTo(input);
+					level.stepInput.addPresses();
+				}
+				result = level.step(level.stepTime);
+				accumulator -= stepNanos;
+				steps++;
+			}
+			//After a long stall, drop the time that could not be caught up on.
+			if(accumulator >= stepNanos) {
+				accumulator = stepNanos - 1;
+			}
+
+			if(steps > 0) {
+				if(level.profiler != null) {
+					level.profiler.endFrame(level.getPantCount(), level.getFireCount(), level.getFireballCount(),
+							level.getWaterCount());
+				}
+				//The game reached this frame when the time left over had not passed yet.
+				publish(result, now - accumulator);
+			}
+			if(!result.equals("CONTINUE")) {
+				running = false;
+			} else {
+				LockSupport.parkNanos(stepNanos - accumulator);
+			}
+		}
+	}
+
+	/**
+	 * This method fills in the back frame from the level and hands it over as the
+	 * newest frame.
+	 *
+	 * @param result is what the last step returned.
+	 * @param time is the System.nanoTime() the game reached the frame at.
+	 */
+	private void publish(String result, long time) {
+		level.capture(back);
+		back.result = result;
+		back.time = time;
+		back.sequence = ++published;
+		back = middle.getAndSet(back);
+	}
+}
@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class keeps the last few snapshots of a Level in a memory-mapped file split into equal slots, which are
+ * written round and round like a ring. A save writes a LevelSnapshot straight into the next slot, so it is only a
+ * copy into memory, and the operating system writes it to disk in the background. The snapshots are still in the
+ * file if the game crashes, and a ring opened on the same file can restore the newest one.
+ *
+ * Every fullInterval-th save is a full snapshot and the rest are deltas against the last full one, so most saves
+ * only write what has changed. There must be at least as many slots as the full interval, so the full snapshot a
+ * delta needs is never written over while the delta is still in the ring.
+ *
+ * Each slot starts with a long sequence number and an int length, followed by the snapshot. Sequence numbers
+ * start at 1, and a slot's sequence number is set to 0 while it is being written and only set once the snapshot
+ * is complete, so a save cut short by a crash is never read.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class SnapshotRing {
+	//The size in bytes of the header of each slot.
+	static final int SLOT_HEADER_SIZE = 12;
+
+	//The file and its mapping.
+	private FileChannel channel;
+	private MappedByteBuffer map;
+	//The number of slots and the size of each one in bytes, including its header.
+	private int slotCount;
+	private int slotSize;
+	//How often a full snapshot is written instead of a delta.
+	private int fullInterval;
+	//Writes and restores the snapshots, and remembers the full snapshot deltas are written against.
+	private LevelSnapshot snapshot = new LevelSnapshot();
+	//The sequence number of the newest snapshot, or 0 if the ring is empty.
+	private long lastSequence = 0;
+	//The sequence number of the full snapshot deltas are written against, or 0 if there is none yet.
+	private long fullSequence = 0;
+
+	/**
+	 * This constructor opens a ring in a file, creating the file if it does not
+	 * exist. Snapshots already in the file can be restored.
+	 *
+	 * @param file is the file the ring is kept in.
+	 * @param slotCount is the number of snapshots kept.
+	 * @param slotSize is the size of each slot in bytes, which must fit the largest snapshot taken.
+	 * @param fullInterval is how often a full snapshot is written. 1 writes only full snapshots.
+	 *
+	 * @throws IOException if the file cannot be opened.
+	 * @throws IllegalArgumentException if there are fewer slots than the full interval, or the ring would be
+	 * larger than 2 GB.
+	 */
+	public SnapshotRing(Path file, int slotCount, int slotSize, int fullInterval) throws IOException {
+		if(fullInterval < 1 || slotCount < fullInterval) {
+			throw new IllegalArgumentException("A ring needs at least as many slots as its full interval");
+		}
+		if(slotSize <= SLOT_HEADER_SIZE || (long)slotCount * slotSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Slots must be larger than their header and fit in a 2 GB file");
+		}
+		this.slotCount = slotCount;
+		this.slotSize = slotSize;
+		this.fullInterval = fullInterval;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			map = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long)slotCount * slotSize);
+		} catch(IOException e) {
+			channel.close();
+			throw e;
+		}
+
+		//Carry on numbering from the newest snapshot already in the file.
+		for(int i = 0; i < slotCount; i++) {
+			lastSequence = Math.max(lastSequence, map.getLong(i * slotSize));
+		}
+	}
+
+	/**
+	 * This method saves a level into the next slot, writing over the oldest
+	 * snapshot once the ring is full.
+	 *
+	 * @param level is the level to save. Every level saved to a ring must be the same one.
+	 *
+	 * @return The sequence number of the snapshot.
+	 *
+	 * @throws IllegalStateException if the snapshot does not fit in a slot.
+	 */
+	public long save(Level level) {
+		long sequence = lastSequence + 1;
+		int start = slotStart(sequence);
+		map.putLong(start, 0);
+		ByteBuffer body = slot(start, slotSize - SLOT_HEADER_SIZE);
+		boolean isFull = fullSequence == 0 || sequence - fullSequence >= fullInterval;
+		int length;
+		try {
+			if(isFull) {
+				fullSequence = 0;
+				length = snapshot.writeFull(level, sequence, body);
+				fullSequence = sequence;
+			} else {
+				length = snapshot.writeDelta(level, sequence, body);
+			}
+		} catch(BufferOverflowException e) {
+			throw new IllegalStateException("The snapshot does not fit in a " + slotSize + " byte slot");
+		}
+		map.putInt(start + 8, length);
+		map.putLong(start, sequence);
+		lastSequence = sequence;
+		return sequence;
+	}
+
+	/**
+	 * This method puts a level back the way it was when a snapshot in the ring was
+	 * taken. Saves after this carry on from the newest snapshot's sequence number.
+	 *
+	 * @param level is the level to restore.
+	 * @param sequence is the sequence number of the snapshot.
+	 *
+	 * @throws IllegalArgumentException if the snapshot, or the full snapshot it needs, is not in the ring.
+	 */
+	public void restore(Level level, long sequence) {
+		ByteBuffer saved = find(sequence);
+		long full = LevelSnapshot.getFullSequence(saved);
+		if(full == sequence) {
+			snapshot.restore(level, saved);
+		} else {
+			snapshot.restore(level, find(full), saved);
+		}
+		fullSequence = full;
+	}
+
+	/**
+	 * This method puts a level back the way it was when the newest snapshot in the
+	 * ring was taken.
+	 *
+	 * @param level is the level to restore.
+	 *
+	 * @return Return false if the ring is empty, otherwise return true.
+	 */
+	public boolean restoreLatest(Level level) {
+		if(lastSequence == 0) {
+			return false;
+		}
+		restore(level, lastSequence);
+		return true;
+	}
+
+	/**
+	 * This is an accessor method for the sequence number of the newest snapshot.
+	 *
+	 * @return The sequence number, or 0 if the ring is empty.
+	 */
+	public long getLastSequence() {
+		return lastSequence;
+	}
+
+	/**
+	 * This method waits until every snapshot saved so far has been written to disk.
+	 */
+	public void flush() {
+		map.force();
+	}
+
+	/**
+	 * This method closes the file. Snapshots that have been saved are still written
+	 * to it by the operating system.
+	 *
+	 * @throws IOException if the file cannot be closed.
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * This method finds a snapshot in the ring.
+	 *
+	 * @param sequence is the sequence number of the snapshot.
+	 *
+	 * @return A buffer holding just the snapshot.
+	 *
+	 * @throws IllegalArgumentException if the snapshot is not in the ring.
+	 */
+	private ByteBuffer find(long sequence) {
+		int start = slotStart(sequence);
+		if(sequence < 1 || map.getLong(start) != sequence) {
+			throw new IllegalArgumentException("Snapshot " + sequence + " is not in the ring");
+		}
+		return slot(start, map.getInt(start + 8));
+	}
+
+	/**
+	 * This method works out where the slot of a snapshot starts.
+	 *
+	 * @param sequence is the sequence number of the snapshot.
+	 *
+	 * @return The position of the slot's header in the file.
+	 */
+	private int slotStart(long sequence) {
+		return (int)(Math.floorMod(sequence - 1, (long)slotCount) * slotSize);
+	}
+
+	/**
+	 * This method returns a buffer over the part of a slot after its header.
+	 *
+	 * @param start is the position of the slot's header in the file.
+	 * @param length is the number of bytes the buffer covers.
+	 *
+	 * @return The buffer, positioned at the start of the snapshot.
+	 */
+	private ByteBuffer slot(int start, int length) {
+		ByteBuffer body = map.duplicate();
+		body.position(start + SLOT_HEADER_SIZE);
+		body.limit(start + SLOT_HEADER_SIZE + length);
+		return body.slice();
+	}
+}
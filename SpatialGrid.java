@@ -0,0 +1,319 @@
+import java.util.Arrays;
+
+/**
+ * This class is a uniform grid spatial hash used as the broad phase for collision checks. Objects are inserted
+ * by their index at their x and y position, and a query returns the indices of every object stored in the 3x3
+ * block of cells around a point. Only those nearby objects need the exact Graphic.isCollidingWith test, so a
+ * frame no longer has to compare every object against every other object.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class SpatialGrid {
+	//Width and height of a single cell in pixels. Two objects further apart than this are never returned together.
+	private float cellSize;
+	//Mask used to wrap a cell hash into the bucket array (the bucket count is always a power of two).
+	private int bucketMask;
+	//Index of the first entry in each bucket, or -1 if the bucket is empty.
+	private int[] bucketHead;
+	//Index of the next entry in the same bucket, or -1 at the end of the bucket.
+	private int[] entryNext = new int[64];
+	//The object index stored in each entry.
+	private int[] entryId = new int[64];
+	//Number of entries inserted since the last clear.
+	private int entryCount = 0;
+	//Object indices found by the last query.
+	private int[] results = new int[64];
+	//Number of object indices found by the last query.
+	private int resultCount = 0;
+	//Buckets already visited by the current query, so a hash collision never reports an object twice.
+	private int[] visited = new int[9];
+	//The query that last visited each bucket, for the larger queries that visit too many buckets to list.
+	private int[] bucketQueries;
+	private int queryNumber = 0;
+	//The smallest and largest cell coordinates an object has been inserted in since the last clear.
+	private int minCellX;
+	private int minCellY;
+	private int maxCellX;
+	private int maxCellY;
+
+	/**
+	 * This constructor initializes a new empty SpatialGrid.
+	 *
+	 * @param cellSize is the width and height of a cell in pixels. It must be at least as large as the
+	 * biggest collision distance that will be tested against the objects in this grid.
+	 * @param bucketCount is the number of hash buckets, rounded up to a power of two.
+	 */
+	public SpatialGrid(float cellSize, int bucketCount) {
+		this.cellSize = cellSize;
+		int buckets = Integer.highestOneBit(Math.max(bucketCount, 1));
+		if(buckets < bucketCount) {
+			buckets *= 2;
+		}
+		bucketMask = buckets - 1;
+		bucketHead = new int[buckets];
+		Arrays.fill(bucketHead, -1);
+		bucketQueries = new int[buckets];
+	}
+
+	/**
+	 * This method removes every object from the grid so that it can be rebuilt for a new frame.
+	 */
+	public void clear() {
+		Arrays.fill(bucketHead, -1);
+		entryCount = 0;
+	}
+
+	/**
+	 * This method adds an object to the cell that contains the given position.
+	 *
+	 * @param id is the index of the object in the caller's list or array.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 */
+	public void insert(int id, float x, float y) {
+		//Grow the entry arrays if they are full.
+		if(entryCount == entryId.length) {
+			entryId = Arrays.copyOf(entryId, entryCount * 2);
+			entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+		}
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		if(entryCount == 0) {
+			minCellX = maxCellX = cellX;
+			minCellY = maxCellY = cellY;
+		} else {
+			minCellX = Math.min(minCellX, cellX);
+			maxCellX = Math.max(maxCellX, cellX);
+			minCellY = Math.min(minCellY, cellY);
+			maxCellY = Math.max(maxCellY, cellY);
+		}
+		int bucket = bucketOf(cellX, cellY);
+		entryId[entryCount] = id;
+		entryNext[entryCount] = bucketHead[bucket];
+		bucketHead[bucket] = entryCount;
+		entryCount++;
+	}
+
+	/**
+	 * This method finds every object in the 3x3 block of cells around a position. The results can then be
+	 * read with getResult(). Objects are returned in no particular order.
+	 *
+	 * @param x is the position on the x axis to search around.
+	 * @param y is the position on the y axis to search around.
+	 *
+	 * @return The number of objects that were found.
+	 */
+	public int query(float x, float y) {
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		int visitedCount = 0;
+		resultCount = 0;
+
+		//Cycle through the cell and its eight neighbours.
+		for(int dy = -1; dy <= 1; dy++) {
+			for(int dx = -1; dx <= 1; dx++) {
+				int bucket = bucketOf(cellX + dx, cellY + dy);
+
+				//Skip buckets that another neighbouring cell has already hashed into.
+				boolean seen = false;
+				for(int v = 0; v < visitedCount; v++) {
+					if(visited[v] == bucket) {
+						seen = true;
+						break;
+					}
+				}
+				if(seen) {
+					continue;
+				}
+				visited[visitedCount++] = bucket;
+
+				//Copy every object index in the bucket into the results.
+				for(int e = bucketHead[bucket]; e != -1; e = entryNext[e]) {
+					if(resultCount == results.length) {
+						results = Arrays.copyOf(results, resultCount * 2);
+					}
+					results[resultCount++] = entryId[e];
+				}
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * This method finds every object in the square block of cells that reaches a number of rings out from the cell
+	 * around a position, where ring 1 is the eight cells around it, ring 2 the sixteen around those, and so on.
+	 * query(x, y) is the same as a block of one ring. The results can then be read with getResult().
+	 *
+	 * @param x is the position on the x axis to search around.
+	 * @param y is the position on the y axis to search around.
+	 * @param rings is how many rings of cells around the position's cell to search.
+	 *
+	 * @return The number of objects that were found.
+	 */
+	public int query(float x, float y, int rings) {
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		beginQuery();
+		for(int dy = -rings; dy <= rings; dy++) {
+			for(int dx = -rings; dx <= rings; dx++) {
+				collect(cellX + dx, cellY + dy);
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * This method finds every object in one ring of cells around a position, so that a search can grow outwards a
+	 * ring at a time until it has found what it is looking for. Ring 0 is the position's own cell. Once something
+	 * closer than getRingDistance() of a ring has been found, that ring and the ones after it hold nothing closer.
+	 * The results can then be read with getResult(). Cells in different rings can share a bucket, so an object can
+	 * also be found in a ring it is not in, or found again.
+	 *
+	 * @param x is the position on the x axis to search around.
+	 * @param y is the position on the y axis to search around.
+	 * @param ring is how many cells out from the position's cell the ring is.
+	 *
+	 * @return The number of objects that were found.
+	 */
+	public int queryRing(float x, float y, int ring) {
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		beginQuery();
+		if(ring == 0) {
+			collect(cellX, cellY);
+			return resultCount;
+		}
+		//The top and bottom rows of the ring, then the left and right columns between them.
+		for(int d = -ring; d <= ring; d++) {
+			collect(cellX + d, cellY - ring);
+			collect(cellX + d, cellY + ring);
+		}
+		for(int d = -ring + 1; d < ring; d++) {
+			collect(cellX - ring, cellY + d);
+			collect(cellX + ring, cellY + d);
+		}
+		return resultCount;
+	}
+
+	/**
+	 * This method works out how close to a position the cells of a ring around it,
+	 * and every ring after it, can be.
+	 *
+	 * @param x is the position on the x axis to search around.
+	 * @param y is the position on the y axis to search around.
+	 * @param ring is how many cells out from the position's cell the ring is.
+	 *
+	 * @return The shortest distance in pixels from the position to the ring.
+	 */
+	public float getRingDistance(float x, float y, int ring) {
+		if(ring == 0) {
+			return 0;
+		}
+		//The distance to the nearest edge of the block of cells inside the ring.
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		float left = x - (cellX - ring + 1) * cellSize;
+		float right = (cellX + ring) * cellSize - x;
+		float top = y - (cellY - ring + 1) * cellSize;
+		float bottom = (cellY + ring) * cellSize - y;
+		return Math.max(Math.min(Math.min(left, right), Math.min(top, bottom)), 0);
+	}
+
+	/**
+	 * This method works out the last ring around a position that has any cell an
+	 * object was inserted in, so that a search growing outwards knows when to stop.
+	 *
+	 * @param x is the position on the x axis to search around.
+	 * @param y is the position on the y axis to search around.
+	 *
+	 * @return The ring, or -1 if the grid is empty.
+	 */
+	public int getRingLimit(float x, float y) {
+		if(entryCount == 0) {
+			return -1;
+		}
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		return Math.max(Math.max(cellX - minCellX, maxCellX - cellX), Math.max(cellY - minCellY, maxCellY - cellY));
+	}
+
+	/**
+	 * This method starts a query that uses the bucket query numbers to skip buckets
+	 * it has already visited.
+	 */
+	private void beginQuery() {
+		resultCount = 0;
+		queryNumber++;
+		if(queryNumber == Integer.MAX_VALUE) {
+			//Start the numbers again before they wrap around.
+			Arrays.fill(bucketQueries, 0);
+			queryNumber = 1;
+		}
+	}
+
+	/**
+	 * This method copies every object index in a cell's bucket into the results,
+	 * unless the current query has already visited the bucket.
+	 *
+	 * @param cellX is the cell coordinate on the x axis.
+	 * @param cellY is the cell coordinate on the y axis.
+	 */
+	private void collect(int cellX, int cellY) {
+		int bucket = bucketOf(cellX, cellY);
+		if(bucketQueries[bucket] == queryNumber) {
+			return;
+		}
+		bucketQueries[bucket] = queryNumber;
+		for(int e = bucketHead[bucket]; e != -1; e = entryNext[e]) {
+			if(resultCount == results.length) {
+				results = Arrays.copyOf(results, resultCount * 2);
+			}
+			results[resultCount++] = entryId[e];
+		}
+	}
+
+	/**
+	 * This is an accessor method for the results of the last query.
+	 *
+	 * @param i is the position in the results, from 0 up to the count returned by query().
+	 *
+	 * @return The index of the object that was inserted into the grid.
+	 */
+	public int getResult(int i) {
+		return results[i];
+	}
+
+	/**
+	 * This is an accessor method for every result of the last query at once, for
+	 * kernels that read several of them at a time.
+	 *
+	 * @return The results, of which the first query() are valid. They must not be changed.
+	 */
+	int[] getResults() {
+		return results;
+	}
+
+	/**
+	 * This method converts a position on one axis into a cell coordinate.
+	 *
+	 * @param position is the position in pixels.
+	 *
+	 * @return The cell coordinate containing the position.
+	 */
+	private int cellOf(float position) {
+		return (int)Math.floor(position / cellSize);
+	}
+
+	/**
+	 * This method hashes a cell coordinate into one of the buckets.
+	 *
+	 * @param cellX is the cell coordinate on the x axis.
+	 * @param cellY is the cell coordinate on the y axis.
+	 *
+	 * @return The bucket the cell is stored in.
+	 */
+	private int bucketOf(int cellX, int cellY) {
+		return ((cellX * 73856093) ^ (cellY * 19349663)) & bucketMask;
+	}
+}
@@ -0,0 +1,53 @@
+import java.util.Arrays;
+
+/**
+ * This class holds the positions and directions of every visible sprite of one type for a single frame, so that
+ * they can all be handed to the Renderer in one call.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class SpriteBatch {
+	//Number of sprites in the batch.
+	int size = 0;
+	//Position of each sprite.
+	float[] x = new float[64];
+	float[] y = new float[64];
+	//Angle each sprite is facing.
+	float[] direction = new float[64];
+	
+	/**
+	 * This method adds a sprite to the end of the batch.
+	 * 
+	 * @param newX is the position on the x axis.
+	 * @param newY is the position on the y axis.
+	 * @param newDirection is the angle the sprite is facing.
+	 */
+	public void add(float newX, float newY, float newDirection) {
+		if(size == x.length) {
+			x = Arrays.copyOf(x, size * 2);
+			y = Arrays.copyOf(y, size * 2);
+			direction = Arrays.copyOf(direction, size * 2);
+		}
+		x[size] = newX;
+		y[size] = newY;
+		direction[size] = newDirection;
+		size++;
+	}
+	
+	/**
+	 * This method removes every sprite from the batch, keeping its arrays for the next frame.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * This is an accessor method for the number of sprites in the batch.
+	 * 
+	 * @return The number of sprites.
+	 */
+	public int size() {
+		return size;
+	}
+}
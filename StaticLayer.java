@@ -0,0 +1,214 @@
+import java.util.Arrays;
+
+/**
+ * This class holds sprites that do not move, such as pants, so that a Renderer can draw them once into an image of
+ * their own and then copy that whole image to the screen every frame instead of drawing every sprite again. The
+ * layer remembers the area around every sprite added or removed since the renderer last drew it, so the renderer
+ * only has to draw that area again. Too many changes at once, or clear(), mark the whole layer to be drawn again.
+ *
+ * Sprites are kept the same way as WaterSlots keeps water: each one has a handle that stays the same while it is
+ * in the layer, and the sprites in the layer are kept in a dense SpriteBatch. Any type of sprite that stops moving
+ * can be kept in a layer, by giving the layer to RenderPass.setLayer() for that type.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class StaticLayer {
+	//The most areas remembered before the whole layer is drawn again instead.
+	static final int MAX_CHANGES = 16;
+
+	//How far from its position a sprite can reach, so the area around it covers all of it.
+	private float reach;
+	//The sprites in the layer.
+	private SpriteBatch sprites = new SpriteBatch();
+	//The position in sprites of each handle, or -1 if the handle is free, and the handle of each sprite.
+	private int[] position = new int[64];
+	private int[] handles = new int[64];
+	//A stack of the free handles, and the number of handles ever used.
+	private int[] free = new int[64];
+	private int freeCount = 0;
+	private int handleCount = 0;
+
+	//The left, top, right and bottom of every area changed since the layer was last drawn.
+	private float[] changes = new float[MAX_CHANGES * 4];
+	private int changeCount = 0;
+	//Whether the whole layer has to be drawn again.
+	private boolean isFullyChanged = true;
+
+	/**
+	 * This constructor initializes a new empty StaticLayer.
+	 *
+	 * @param reach is how far in pixels from its position a sprite can be drawn.
+	 */
+	public StaticLayer(float reach) {
+		this.reach = reach;
+	}
+
+	/**
+	 * This method adds a sprite to the layer.
+	 *
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the sprite is facing.
+	 *
+	 * @return The sprite's handle, used to remove it.
+	 */
+	public int add(float x, float y, float direction) {
+		int handle;
+		if(freeCount > 0) {
+			handle = free[--freeCount];
+		} else {
+			if(handleCount == position.length) {
+				position = Arrays.copyOf(position, handleCount * 2);
+				free = Arrays.copyOf(free, handleCount * 2);
+			}
+			handle = handleCount++;
+		}
+		if(sprites.size == handles.length) {
+			handles = Arrays.copyOf(handles, sprites.size * 2);
+		}
+		position[handle] = sprites.size;
+		handles[sprites.size] = handle;
+		sprites.add(x, y, direction);
+		change(x, y);
+		return handle;
+	}
+
+	/**
+	 * This method removes a sprite from the layer.
+	 *
+	 * @param handle is the handle add() returned for the sprite.
+	 */
+	public void remove(int handle) {
+		int index = position[handle];
+		change(sprites.x[index], sprites.y[index]);
+		//Fill the gap with the last sprite.
+		int last = --sprites.size;
+		sprites.x[index] = sprites.x[last];
+		sprites.y[index] = sprites.y[last];
+		sprites.direction[index] = sprites.direction[last];
+		handles[index] = handles[last];
+		position[handles[index]] = index;
+		position[handle] = -1;
+		free[freeCount++] = handle;
+	}
+
+	/**
+	 * This method removes every sprite from the layer.
+	 */
+	public void clear() {
+		sprites.clear();
+		freeCount = 0;
+		handleCount = 0;
+		isFullyChanged = true;
+		changeCount = 0;
+	}
+
+	/**
+	 * This method remembers the area around a sprite as changed.
+	 *
+	 * @param x is the position of the sprite on the x axis.
+	 * @param y is the position of the sprite on the y axis.
+	 */
+	private void change(float x, float y) {
+		if(isFullyChanged) {
+			return;
+		}
+		if(changeCount == MAX_CHANGES) {
+			isFullyChanged = true;
+			changeCount = 0;
+			return;
+		}
+		changes[changeCount * 4] = x - reach;
+		changes[changeCount * 4 + 1] = y - reach;
+		changes[changeCount * 4 + 2] = x + reach;
+		changes[changeCount * 4 + 3] = y + reach;
+		changeCount++;
+	}
+
+	/**
+	 * This method tells the layer that the renderer has drawn every change.
+	 */
+	public void markDrawn() {
+		isFullyChanged = false;
+		changeCount = 0;
+	}
+
+	/**
+	 * This method marks the whole layer to be drawn again, such as when the
+	 * renderer's image of it is lost.
+	 */
+	public void markFullyChanged() {
+		isFullyChanged = true;
+		changeCount = 0;
+	}
+
+	/**
+	 * This method checks whether the whole layer has to be drawn again.
+	 *
+	 * @return Return true if every sprite has to be drawn again, otherwise return false.
+	 */
+	public boolean isFullyChanged() {
+		return isFullyChanged;
+	}
+
+	/**
+	 * This is an accessor method for the number of areas that have changed since
+	 * the layer was last drawn, when the whole layer has not.
+	 *
+	 * @return The number of areas.
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+
+	/**
+	 * This is an accessor method for the edges of a changed area.
+	 *
+	 * @param i is the area, from 0 to getChangeCount() - 1.
+	 * @param edge is 0 for the left, 1 for the top, 2 for the right and 3 for the bottom.
+	 *
+	 * @return The edge in pixels.
+	 */
+	public float getChange(int i, int edge) {
+		return changes[i * 4 + edge];
+	}
+
+	/**
+	 * This method finds every sprite that reaches into an area.
+	 *
+	 * @param left is the left edge of the area.
+	 * @param top is the top edge of the area.
+	 * @param right is the right edge of the area.
+	 * @param bottom is the bottom edge of the area.
+	 * @param found is emptied and then given every sprite found.
+	 */
+	public void findSprites(float left, float top, float right, float bottom, SpriteBatch found) {
+		found.clear();
+		float[] x = sprites.x;
+		float[] y = sprites.y;
+		for(int i = 0; i < sprites.size; i++) {
+			if(x[i] + reach >= left && x[i] - reach <= right && y[i] + reach >= top && y[i] - reach <= bottom) {
+				found.add(x[i], y[i], sprites.direction[i]);
+			}
+		}
+	}
+
+	/**
+	 * This is an accessor method for every sprite in the layer.
+	 *
+	 * @return The sprites, which must not be changed.
+	 */
+	public SpriteBatch getSprites() {
+		return sprites;
+	}
+
+	/**
+	 * This is an accessor method for the number of sprites in the layer.
+	 *
+	 * @return The number of sprites.
+	 */
+	public int size() {
+		return sprites.size;
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * This Input is what the Hero reads while Level runs several fixed simulation steps in one GameEngine frame. It
+ * reads the InputSnapshot captured at the start of the frame, so the keys are only looked up once per frame
+ * instead of once per step. Held keys and the mouse are passed straight through, but key presses are kept until
+ * a step has read them and then cleared, so one press of SPACE still shoots one water object however many steps
+ * the frame is split into. A press captured in a frame too short for any step is kept for the next step.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class StepInput implements Input {
+	//The input captured at the start of the frame.
+	private InputSnapshot input;
+	//The keys pressed since the last step, one bit for each key as in InputSnapshot.
+	private int pressed = 0;
+
+	/**
+	 * This constructor initializes a new StepInput.
+	 *
+	 * @param input is the captured input to pass through.
+	 */
+	public StepInput(InputSnapshot input) {
+		this.input = input;
+	}
+
+	/**
+	 * This is an accessor method for the keys held down, one bit for each key as in
+	 * InputSnapshot, such as InputSnapshot.W.
+	 *
+	 * @return The bits of the held keys.
+	 */
+	public int getHeld() {
+		return input.held;
+	}
+
+	/**
+	 * This method keeps the keys pressed in the input that was just captured, until
+	 * a step has read them. It is called after every capture.
+	 */
+	void addPresses() {
+		pressed |= input.pressed;
+	}
+
+	/**
+	 * This method clears the kept presses once a step has read them.
+	 */
+	void endStep() {
+		pressed = 0;
+	}
+
+	/**
+	 * This is an accessor method for the keys pressed since the last step.
+	 *
+	 * @return The bits of the pressed keys.
+	 */
+	public int getPressed() {
+		return pressed;
+	}
+
+	public boolean isKeyHeld(String key) {
+		return input.isKeyHeld(key);
+	}
+
+	public boolean isKeyPressed(String key) {
+		return (pressed & InputSnapshot.bit(key)) != 0;
+	}
+
+	public int getMouseX() {
+		return input.mouseX;
+	}
+
+	public int getMouseY() {
+		return input.mouseY;
+	}
+}
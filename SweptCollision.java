@@ -0,0 +1,58 @@
+/**
+ * This class tests collisions between objects that both moved during the last step. Instead of only checking 
+ * where the two objects ended up, it finds the moment during the step when they were closest together and runs
+ * Graphic.isCollidingWith there. Fast water and fireballs can then no longer pass straight through something 
+ * between one step and the next.
+ * 
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class SweptCollision {
+	/**
+	 * This method checks whether two graphics touched at any point while moving in a 
+	 * straight line from their previous positions to their current ones. Both graphics 
+	 * are left at their current positions afterwards.
+	 * 
+	 * @param a is the first graphic, at its current position.
+	 * @param aPreviousX is where the first graphic was on the x axis before the step.
+	 * @param aPreviousY is where the first graphic was on the y axis before the step.
+	 * @param b is the second graphic, at its current position.
+	 * @param bPreviousX is where the second graphic was on the x axis before the step.
+	 * @param bPreviousY is where the second graphic was on the y axis before the step.
+	 * 
+	 * @return Return true if the graphics collided during the step, otherwise return false.
+	 */
+	public static boolean isColliding(Graphic a, float aPreviousX, float aPreviousY, 
+									  Graphic b, float bPreviousX, float bPreviousY) {
+		float aX = a.getX();
+		float aY = a.getY();
+		float bX = b.getX();
+		float bY = b.getY();
+		
+		//Position of a relative to b at the start of the step, and how that changed over the step.
+		float startX = aPreviousX - bPreviousX;
+		float startY = aPreviousY - bPreviousY;
+		float moveX = (aX - bX) - startX;
+		float moveY = (aY - bY) - startY;
+		
+		//Find how far through the step the two were closest together.
+		float lengthSquared = moveX * moveX + moveY * moveY;
+		float t = 1;
+		if(lengthSquared > 0) {
+			t = Math.max(0, Math.min(1, -(startX * moveX + startY * moveY) / lengthSquared));
+		}
+		
+		//If they were closest at the end of the step this is the ordinary collision test.
+		if(t == 1) {
+			return a.isCollidingWith(b);
+		}
+		
+		//Otherwise test with both graphics moved back to that moment, then put them back.
+		a.setPosition(aPreviousX + (aX - aPreviousX) * t, aPreviousY + (aY - aPreviousY) * t);
+		b.setPosition(bPreviousX + (bX - bPreviousX) * t, bPreviousY + (bY - bPreviousY) * t);
+		boolean isColliding = a.isCollidingWith(b);
+		a.setPosition(aX, aY);
+		b.setPosition(bX, bY);
+		return isColliding;
+	}
+}
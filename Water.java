@@ -13,6 +13,9 @@ public class Water {
 	private float distanceTraveled = 0;
 	//Distance the object has traveled since the last time the update method was called.
 	private float distanceChange; 
+	//Position of the water object before the last update, used to draw it between updates.
+	private float previousX;
+	private float previousY;
 	 
 	/**
 	 * This constructor initializes a new Water object. It sets the position in 
@@ -27,6 +30,68 @@ public class Water {
 		graphic.setX(x);
 		graphic.setY(y);
 		graphic.setDirection(direction);
+		previousX = x;
+		previousY = y;
+	}
+	
+	/**
+	 * This method puts a water object that came from EntityPools back into the 
+	 * state of a brand new water object.
+	 * 
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the water is facing.
+	 */
+	void reset(float x, float y, float direction) {
+		graphic.setX(x);
+		graphic.setY(y);
+		graphic.setDirection(direction);
+		previousX = x;
+		previousY = y;
+		distanceTraveled = 0;
+	}
+
+	/**
+	 * This method sets where the water object was before the last update and how far
+	 * it has gone, when a level is restored from a LevelSnapshot.
+	 *
+	 * @param previousX is the previous position on the x axis.
+	 * @param previousY is the previous position on the y axis.
+	 * @param distanceTraveled is the distance the water object had traveled.
+	 */
+	void restore(float previousX, float previousY, float distanceTraveled) {
+		this.previousX = previousX;
+		this.previousY = previousY;
+		this.distanceTraveled = distanceTraveled;
+	}
+
+	/**
+	 * This is an accessor method for the distance the water object has traveled.
+	 *
+	 * @return The distance in pixels.
+	 */
+	public float getDistanceTraveled() {
+		return distanceTraveled;
+	}
+
+	/**
+	 * This is an accessor method for where the water object was on the x axis before the 
+	 * last update.
+	 * 
+	 * @return The previous position on the x axis.
+	 */
+	public float getPreviousX() {
+		return previousX;
+	}
+	
+	/**
+	 * This is an accessor method for where the water object was on the y axis before the 
+	 * last update.
+	 * 
+	 * @return The previous position on the y axis.
+	 */
+	public float getPreviousY() {
+		return previousY;
 	}
 	
 	/**
@@ -40,8 +105,7 @@ public class Water {
 	}
 	
 	/**
-	 * This method updates the water object. It draws the graphic and keeps the
-	 * object moving forward.
+	 * This method updates the water object. It keeps the object moving forward.
 	 * 
 	 * @param time How much time has passed since the last time this method was 
 	 * called.
@@ -49,6 +113,9 @@ public class Water {
 	 * @return It returns itself if it is still alive or null if it is not.
 	 */
 	public Water update(int time) {	
+		previousX = graphic.getX();
+		previousY = graphic.getY();
+		
 		//Distance the water object has moved since the last time the update method was called.
 		distanceChange = (float) Math.sqrt(graphic.getDirectionX() * (speed * time) * 
 									       graphic.getDirectionX() * (speed * time) + 
@@ -65,8 +132,19 @@ public class Water {
 			return null;
 		}
 		
-		graphic.draw();
-		
 		return this;
 	}
+	
+	/**
+	 * This method draws the water object part of the way between where it was before the 
+	 * last simulation step and where it is now, so that movement looks smooth even 
+	 * though the simulation runs in fixed steps.
+	 * 
+	 * @param pass is the render pass the water object is added to.
+	 * @param alpha is how far through the next step the game is, from 0 to 1.
+	 */
+	public void draw(RenderPass pass, float alpha) {
+		pass.add(RenderPass.WATER, previousX + (graphic.getX() - previousX) * alpha, 
+				 previousY + (graphic.getY() - previousY) * alpha, graphic.getDirection());
+	}
 }
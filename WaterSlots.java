@@ -0,0 +1,148 @@
+/**
+ * This class holds the water objects in a Level in a fixed number of slots. Free slots are kept on a stack, so
+ * finding one for a new water object takes the same time however many slots there are, and the slots in use are
+ * kept in a dense list, so going through the water objects only touches the ones that exist. Removing a water
+ * object moves the last slot in the list into its place.
+ *
+ * A slot keeps the same index for as long as its water object exists, so the index can be stored elsewhere, such
+ * as in the level's water grid. The hero has 8 slots by default, and a level can be given more with
+ * Level.setWaterCapacity.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class WaterSlots {
+	//The number of slots a level starts with.
+	static final int DEFAULT_CAPACITY = 8;
+
+	//The water object in each slot, or null if the slot is free.
+	private Water[] slots;
+	//A stack of the free slots. The next slot to be used is on top.
+	private int[] free;
+	private int freeCount;
+	//The slots in use, in no particular order.
+	private int[] live;
+	private int liveCount;
+	//Where each slot in use is in the live list.
+	private int[] livePosition;
+
+	/**
+	 * This constructor initializes a new WaterSlots object with every slot free.
+	 *
+	 * @param capacity is the number of slots, at least 1.
+	 */
+	public WaterSlots(int capacity) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException("There must be at least one water slot");
+		}
+		slots = new Water[capacity];
+		free = new int[capacity];
+		live = new int[capacity];
+		livePosition = new int[capacity];
+		clear();
+	}
+
+	/**
+	 * This method frees every slot. The water objects in them are dropped, not
+	 * released to the pools.
+	 */
+	public void clear() {
+		for(int i = 0; i < liveCount; i++) {
+			slots[live[i]] = null;
+		}
+		liveCount = 0;
+		//Stack the slots so that slot 0 is used first.
+		freeCount = slots.length;
+		for(int i = 0; i < freeCount; i++) {
+			free[i] = freeCount - 1 - i;
+		}
+	}
+
+	/**
+	 * This method puts a water object in a free slot.
+	 *
+	 * @param water is the water object to add.
+	 *
+	 * @return The index of its slot, or -1 if every slot is in use.
+	 */
+	public int add(Water water) {
+		if(freeCount == 0) {
+			return -1;
+		}
+		int slot = free[--freeCount];
+		slots[slot] = water;
+		livePosition[slot] = liveCount;
+		live[liveCount++] = slot;
+		return slot;
+	}
+
+	/**
+	 * This method frees a slot.
+	 *
+	 * @param slot is the index of a slot in use.
+	 *
+	 * @return The water object that was in it.
+	 */
+	public Water remove(int slot) {
+		Water water = slots[slot];
+		slots[slot] = null;
+		//Fill the gap in the live list with the last slot in it.
+		int position = livePosition[slot];
+		int last = live[--liveCount];
+		live[position] = last;
+		livePosition[last] = position;
+		free[freeCount++] = slot;
+		return water;
+	}
+
+	/**
+	 * This is an accessor method for the water object in a slot.
+	 *
+	 * @param slot is the index of the slot.
+	 *
+	 * @return The water object, or null if the slot is free.
+	 */
+	public Water get(int slot) {
+		return slots[slot];
+	}
+
+	/**
+	 * This method finds the slot of one of the water objects. Going from size() - 1
+	 * down to 0 visits every water object once, even if the ones already visited are
+	 * removed along the way.
+	 *
+	 * @param index is the position in the live list, from 0 to size() - 1.
+	 *
+	 * @return The index of the slot.
+	 */
+	public int getLiveSlot(int index) {
+		return live[index];
+	}
+
+	/**
+	 * This is an accessor method for the number of water objects.
+	 *
+	 * @return The number of slots in use.
+	 */
+	public int size() {
+		return liveCount;
+	}
+
+	/**
+	 * This is an accessor method for the number of slots.
+	 *
+	 * @return The number of slots.
+	 */
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * This method checks whether another water object can be added.
+	 *
+	 * @return Return true if every slot is in use, otherwise return false.
+	 */
+	public boolean isFull() {
+		return freeCount == 0;
+	}
+}
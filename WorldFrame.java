@@ -0,0 +1,100 @@
+/**
+ * This class holds everything needed to draw one step of a Level that is simulated on a SimulationThread: where
+ * every sprite was before the step and where it is after it, and the numbers shown in the HUD. The simulation
+ * thread fills in a frame after each step and hands it over whole, so the thread drawing the game reads a frame
+ * that is never being changed while it draws it, and never has to touch the level itself.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class WorldFrame {
+	//Where the sprites of each type are after the step, and where they were before it, by RenderPass type.
+	private SpriteBatch[] current = new SpriteBatch[RenderPass.TYPES.length];
+	private SpriteBatch[] previous = new SpriteBatch[RenderPass.TYPES.length];
+	//The number of frames published before this one, so the newest frame can be told apart from older ones.
+	long sequence;
+	//The System.nanoTime() at which the game reached this frame, used to draw it part of the way to the next.
+	long time;
+	//What the step returned, the same as Level.update().
+	String result = "CONTINUE";
+	//The level number and the numbers of pants and fires left, for the HUD.
+	int level;
+	int pantCount;
+	int fireCount;
+
+	/**
+	 * This constructor initializes a new empty WorldFrame.
+	 */
+	public WorldFrame() {
+		for(int i = 0; i < current.length; i++) {
+			current[i] = new SpriteBatch();
+			previous[i] = new SpriteBatch();
+		}
+	}
+
+	/**
+	 * This method empties the frame so it can be filled with a new step.
+	 */
+	public void clear() {
+		for(int i = 0; i < current.length; i++) {
+			current[i].clear();
+			previous[i].clear();
+		}
+	}
+
+	/**
+	 * This method adds a sprite that moves.
+	 *
+	 * @param type is the sprite type, such as RenderPass.FIREBALL.
+	 * @param previousX is the position on the x axis before the step.
+	 * @param previousY is the position on the y axis before the step.
+	 * @param x is the position on the x axis after the step.
+	 * @param y is the position on the y axis after the step.
+	 * @param direction is the angle the sprite is facing.
+	 */
+	public void add(int type, float previousX, float previousY, float x, float y, float direction) {
+		current[type].add(x, y, direction);
+		previous[type].add(previousX, previousY, direction);
+	}
+
+	/**
+	 * This method adds a sprite that does not move.
+	 *
+	 * @param type is the sprite type, such as RenderPass.PANT.
+	 * @param x is the position on the x axis.
+	 * @param y is the position on the y axis.
+	 * @param direction is the angle the sprite is facing.
+	 */
+	public void add(int type, float x, float y, float direction) {
+		add(type, x, y, x, y, direction);
+	}
+
+	/**
+	 * This method draws every sprite part of the way between where it was before the
+	 * step and where it is after it.
+	 *
+	 * @param pass is the render pass the sprites are added to.
+	 * @param alpha is how far through the next step the game is, from 0 to 1.
+	 */
+	public void draw(RenderPass pass, float alpha) {
+		for(int type = 0; type < current.length; type++) {
+			SpriteBatch to = current[type];
+			SpriteBatch from = previous[type];
+			for(int i = 0; i < to.size; i++) {
+				pass.add(type, from.x[i] + (to.x[i] - from.x[i]) * alpha, from.y[i] + (to.y[i] - from.y[i]) * alpha,
+						 to.direction[i]);
+			}
+		}
+	}
+
+	/**
+	 * This is an accessor method for the number of sprites of one type in the frame.
+	 *
+	 * @param type is the sprite type, such as RenderPass.PANT.
+	 *
+	 * @return The number of sprites.
+	 */
+	public int getCount(int type) {
+		return current[type].size;
+	}
+}
@@ -0,0 +1,48 @@
+import benchmarks.Workload;
+
+/**
+ * This workload plays a batch of random levels with a BatchSimulator on the given number of threads. The results
+ * of every batch are checked against the same batch played on one thread, since a batch should play out the same
+ * however many threads it uses.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class BatchSimulatorWorkloads {
+	//The number of levels in a batch.
+	private static final int LEVELS = 400;
+
+	/**
+	 * This workload plays a batch of levels on the given number of threads.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload play() {
+		return new Workload() {
+			private String[] levels = {"RANDOM"};
+			private BatchSimulator simulator;
+			private BatchResult expected;
+			private int threads;
+
+			public void setup(int param) {
+				threads = param;
+				BatchSimulator oneThread = new BatchSimulator(1);
+				expected = oneThread.run(levels, 1, LEVELS);
+				oneThread.shutdown();
+				simulator = new BatchSimulator(threads);
+			}
+
+			public int run() {
+				BatchResult result = simulator.run(levels, 1, LEVELS);
+				for(int i = 0; i < LEVELS; i++) {
+					if(!result.getResult(i).equals(expected.getResult(i))
+							|| result.getFrames(i) != expected.getFrames(i)) {
+						throw new IllegalStateException("Level " + i + " played differently on " + threads
+								+ " threads.");
+					}
+				}
+				return result.getFrames(0);
+			}
+		};
+	}
+}
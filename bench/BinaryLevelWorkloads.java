@@ -0,0 +1,70 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads compare loading a level from its text contents with Level's constructor against loading the
+ * same level from a compiled binary file with BinaryLevel.load.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class BinaryLevelWorkloads {
+	//Every level is loaded with these.
+	private static Renderer renderer = new NullRenderer();
+	private static Input input = new NullInput();
+	private static Random randGen = new Random(1);
+
+	/**
+	 * This workload loads a level with the given number of lines from its text.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload text() {
+		return new Workload() {
+			private String text;
+			
+			public void setup(int param) {
+				text = LevelWorkloads.levelText(new Random(1), param * 3 / 4, param / 4, 400, 300);
+			}
+			
+			public int run() {
+				return new Level(randGen, text, renderer, input).getPantCount();
+			}
+		};
+	}
+
+	/**
+	 * This workload loads a level with the given number of lines from a compiled binary file, which is deleted
+	 * when the JVM exits.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload binary() {
+		return new Workload() {
+			private Path file;
+
+			public void setup(int param) {
+				try {
+					file = Files.createTempFile("level", ".plvl");
+					file.toFile().deleteOnExit();
+					BinaryLevel.compile(LevelWorkloads.levelText(new Random(1), param * 3 / 4, param / 4, 400, 300), file);
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			
+			public int run() {
+				try {
+					return BinaryLevel.load(file, randGen, renderer, input).getPantCount();
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads time the collision passes of one frame at growing entity counts, once with the old linear
+ * scans and once through the SpatialGrid. The world grows with the entity count so that the density of objects
+ * stays the same, which is how our large stress levels are laid out.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class CollisionWorkloads {
+	//Lets Graphic objects be created without opening the game window.
+	private static Renderer renderer = new NullRenderer();
+	//Where the pants get their new fires from.
+	private static EntityPools pools = new EntityPools();
+
+	/**
+	 * This workload runs the collision checks of one frame by testing every pant against every fireball.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload linear() {
+		return new Frame(false);
+	}
+
+	/**
+	 * This workload runs the collision checks of one frame through a SpatialGrid.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload grid() {
+		return new Frame(true);
+	}
+
+	/**
+	 * This workload runs the hero and pant collision checks of one frame, in a world with the given number of
+	 * pants and a tenth as many fireballs.
+	 */
+	private static class Frame implements Workload {
+		private boolean usesGrid;
+		private ArrayList<Pant> pants = new ArrayList<Pant>();
+		private ArrayList<Fireball> fireballs = new ArrayList<Fireball>();
+		private Hero hero;
+		private SpatialGrid grid = new SpatialGrid(Level.COLLISION_CELL_SIZE, 1024);
+
+		Frame(boolean usesGrid) {
+			this.usesGrid = usesGrid;
+		}
+
+		public void setup(int param) {
+			Random randGen = new Random(42);
+			int fireballCount = param / 10;
+			//Keep roughly 1 pant per 40x40 pixel area.
+			int size = (int)Math.sqrt(param * 1600.0);
+
+			pants.clear();
+			for(int i = 0; i < param; i++) {
+				pants.add(new Pant(randGen.nextInt(size), randGen.nextInt(size), randGen));
+			}
+			fireballs.clear();
+			for(int i = 0; i < fireballCount; i++) {
+				fireballs.add(new Fireball(randGen.nextInt(size), randGen.nextInt(size), 0));
+			}
+			hero = new Hero(size / 2, size / 2, 1);
+		}
+
+		public int run() {
+			return usesGrid ? gridFrame(hero, pants, fireballs, grid) : linearFrame(hero, pants, fireballs);
+		}
+	}
+
+	/**
+	 * This method runs the hero and pant collision checks the way Level did before the grid, by testing
+	 * every pant against every fireball.
+	 *
+	 * @return The number of collisions found, so the work cannot be optimized away.
+	 */
+	private static int linearFrame(Hero hero, ArrayList<Pant> pants, ArrayList<Fireball> fireballs) {
+		int hits = 0;
+		for(int i = 0; i < fireballs.size(); i++) {
+			if(fireballs.get(i).getGraphic().isCollidingWith(hero.getGraphic())) {
+				hits++;
+			}
+		}
+		for(int p = 0; p < pants.size(); p++) {
+			for(int i = 0; i < fireballs.size(); i++) {
+				if(fireballs.get(i).getGraphic().isCollidingWith(pants.get(p).getGraphic())) {
+					hits++;
+					break;
+				}
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * This method rebuilds the grid and runs the same collision checks through it, the way Level.update does.
+	 *
+	 * @return The number of collisions found, so the work cannot be optimized away.
+	 */
+	private static int gridFrame(Hero hero, ArrayList<Pant> pants, ArrayList<Fireball> fireballs, SpatialGrid grid) {
+		int hits = 0;
+		grid.clear();
+		for(int i = 0; i < fireballs.size(); i++) {
+			Graphic graphic = fireballs.get(i).getGraphic();
+			grid.insert(i, graphic.getX(), graphic.getY());
+		}
+		if(hero.handleFireballCollisions(fireballs, grid)) {
+			hits++;
+		}
+		for(int p = 0; p < pants.size(); p++) {
+			if(pants.get(p).handleFireballCollisions(fireballs, grid, pools) != null) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+}
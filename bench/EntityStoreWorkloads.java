@@ -0,0 +1,66 @@
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads compare Level.update with pants, fires and fireballs kept as objects in array lists against
+ * the same level moved into an EntityStore, at 10k entities and up.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class EntityStoreWorkloads {
+	/**
+	 * This workload updates a level that keeps its entities as objects.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload objects() {
+		return new LevelUpdate(false);
+	}
+
+	/**
+	 * This workload updates a level that keeps its entities in an EntityStore.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload store() {
+		return new LevelUpdate(true);
+	}
+
+	/**
+	 * This workload updates a level with the given number of pants, and a tenth as many fires.
+	 */
+	private static class LevelUpdate implements Workload {
+		private Renderer renderer = new NullRenderer();
+		private Input input = new NullInput();
+		private boolean useStore;
+		private String text;
+		private Level level;
+		
+		LevelUpdate(boolean useStore) {
+			this.useStore = useStore;
+		}
+		
+		public void setup(int param) {
+			//Keep the hero off the screen so fireballs never end the level.
+			text = LevelWorkloads.levelText(new Random(1), param, param / 10, -1000, -1000);
+			restart();
+		}
+		
+		public int run() {
+			//Start the level again once every pant has burned.
+			if(!level.update(16).equals("CONTINUE")) {
+				restart();
+			}
+			return level.getPantCount();
+		}
+		
+		private void restart() {
+			level = new Level(new Random(1), text, renderer, input);
+			if(useStore) {
+				level.useEntityStore();
+			}
+		}
+	}
+}
@@ -0,0 +1,143 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads compare the two ways of deciding which fires shoot in a step: counting down a timer for every 
+ * fire, the way each fire counted down its own timer before fires were scheduled, and advancing a FireScheduler 
+ * so that only the fires that are due are looked at. Each run is one 4 ms step. The fireballs shot are released 
+ * straight back to the pools. The store workload runs the same step for fires kept in an EntityStore, along with 
+ * removing its dead entities.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class FireSchedulerWorkloads {
+	//Sets up Graphic without a window, so fires and fireballs can be created.
+	private static Renderer renderer = new NullRenderer();
+
+	/**
+	 * This workload counts down a timer for each of the given number of fires, and shoots a fireball from every 
+	 * fire whose timer has run out.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload polling() {
+		return new Workload() {
+			private ArrayList<Fire> fires;
+			//The timer of each fire, which the fires no longer count down themselves.
+			private int[] countdowns;
+			private ArrayList<Fireball> fireballs = new ArrayList<Fireball>();
+			private EntityPools pools = new EntityPools();
+			
+			public void setup(int param) {
+				fires = fires(param);
+				countdowns = new int[param];
+				for(int i = 0; i < param; i++) {
+					countdowns[i] = fires.get(i).getFireballCountdown();
+				}
+			}
+			
+			public int run() {
+				for(int i = 0; i < fires.size(); i++) {
+					Fire fire = fires.get(i);
+					//Each fire also checked whether it had been put out before counting down.
+					if(fire.getHeat() <= 0) {
+						fire.isAlive = false;
+					}
+					countdowns[i] -= Level.STEP_TIME;
+					if(countdowns[i] <= 0) {
+						fireballs.add(fire.shoot(pools));
+						countdowns[i] = fire.getFireballCountdown();
+					}
+				}
+				return release(fireballs, pools);
+			}
+		};
+	}
+	
+	/**
+	 * This workload advances a FireScheduler holding the given number of fires.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload scheduler() {
+		return new Workload() {
+			private FireScheduler scheduler;
+			private ArrayList<Fireball> fireballs = new ArrayList<Fireball>();
+			private EntityPools pools = new EntityPools();
+			
+			public void setup(int param) {
+				scheduler = new FireScheduler();
+				ArrayList<Fire> fires = fires(param);
+				for(int i = 0; i < fires.size(); i++) {
+					scheduler.schedule(fires.get(i));
+				}
+			}
+			
+			public int run() {
+				scheduler.advance(Level.STEP_TIME, fireballs, pools);
+				return release(fireballs, pools);
+			}
+		};
+	}
+	
+	/**
+	 * This workload updates the fires of an EntityStore holding the given number of fires.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload store() {
+		return new Workload() {
+			private EntityStore store;
+			
+			public void setup(int param) {
+				Random randGen = new Random(1);
+				store = new EntityStore(randGen, param);
+				for(int i = 0; i < param; i++) {
+					store.addFire(randGen.nextInt(800), randGen.nextInt(600), Fire.nextFireballCountdown(randGen), 
+							Fire.STARTING_HEAT);
+				}
+			}
+			
+			public int run() {
+				store.updateFires(Level.STEP_TIME);
+				int count = store.fireballs.size;
+				store.fireballs.size = 0;
+				store.removeDead();
+				return count;
+			}
+		};
+	}
+	
+	/**
+	 * This method creates randomly placed fires.
+	 * 
+	 * @param count is the number of fires.
+	 * 
+	 * @return The fires.
+	 */
+	private static ArrayList<Fire> fires(int count) {
+		Random randGen = new Random(1);
+		ArrayList<Fire> fires = new ArrayList<Fire>();
+		for(int i = 0; i < count; i++) {
+			fires.add(new Fire(randGen.nextInt(800), randGen.nextInt(600), randGen));
+		}
+		return fires;
+	}
+	
+	/**
+	 * This method puts every fireball shot back into the pools.
+	 * 
+	 * @return The number of fireballs that were shot.
+	 */
+	private static int release(ArrayList<Fireball> fireballs, EntityPools pools) {
+		int count = fireballs.size();
+		for(int i = 0; i < count; i++) {
+			pools.releaseFireball(fireballs.get(i));
+		}
+		fireballs.clear();
+		return count;
+	}
+}
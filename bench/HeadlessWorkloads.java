@@ -0,0 +1,39 @@
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * This workload steps random levels headless, with a NullRenderer and NullInput, to show how many updates per
+ * second a plain JVM can run. A new level is created whenever one ends.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class HeadlessWorkloads {
+	/**
+	 * This workload updates random levels by the given number of milliseconds at a time.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload update() {
+		return new Workload() {
+			private Renderer renderer = new NullRenderer();
+			private Input input = new NullInput();
+			private Random randGen = new Random(42);
+			private Level level;
+			private int frameTime;
+
+			public void setup(int param) {
+				frameTime = param;
+				level = new Level(randGen, "RANDOM", renderer, input);
+			}
+
+			public int run() {
+				if(!level.update(frameTime).equals("CONTINUE")) {
+					level = new Level(randGen, "RANDOM", renderer, input);
+				}
+				return level.pants.size();
+			}
+		};
+	}
+}
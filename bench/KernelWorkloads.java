@@ -0,0 +1,170 @@
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads compare the scalar EntityKernels against VectorKernels at every vector size. They measure moving
+ * every fireball and testing it against the edges of the screen, a swept collision test against the few fireballs
+ * a SpatialGrid finds near an object, and the same test against every fireball at once. Each one is given the
+ * vector size of the kernels it measures in bits, where 0 is the scalar kernels.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class KernelWorkloads {
+	//Sets up Graphic without a window, so the collision distance can be read from its sizes.
+	private static Renderer renderer = new NullRenderer();
+
+	/**
+	 * This workload moves the given number of fireballs.
+	 *
+	 * @param bits is the vector size of the kernels in bits, or 0 for the scalar kernels.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload advance(int bits) {
+		return new Advance(kernels(bits));
+	}
+
+	/**
+	 * This workload tests a pant against the given number of fireballs picked at random.
+	 *
+	 * @param bits is the vector size of the kernels in bits, or 0 for the scalar kernels.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload findHitNearby(int bits) {
+		return new FindHit(kernels(bits), false);
+	}
+
+	/**
+	 * This workload tests a pant against the given number of fireballs, in order.
+	 *
+	 * @param bits is the vector size of the kernels in bits, or 0 for the scalar kernels.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload findHitAll(int bits) {
+		return new FindHit(kernels(bits), true);
+	}
+
+	/**
+	 * This method creates the kernels of one vector size.
+	 *
+	 * @param bits is the vector size of the kernels in bits, or 0 for the scalar kernels.
+	 *
+	 * @return The kernels.
+	 *
+	 * @throws IllegalStateException if the Vector API kernels cannot be loaded.
+	 */
+	private static EntityKernels kernels(int bits) {
+		EntityKernels kernels = bits == 0 ? new EntityKernels() : EntityKernels.load(bits);
+		if(bits != 0 && kernels.getClass() == EntityKernels.class) {
+			throw new IllegalStateException("The " + bits + "-bit kernels could not be loaded");
+		}
+		return kernels;
+	}
+
+	/**
+	 * This method fills a table with fireballs spread over the screen, moving in
+	 * random directions, with one in five of them already dead.
+	 *
+	 * @param randGen is where the positions and directions are picked from.
+	 * @param count is the number of fireballs.
+	 *
+	 * @return The table.
+	 */
+	static EntityTable fireballs(Random randGen, int count) {
+		EntityTable table = new EntityTable(count);
+		for(int i = 0; i < count; i++) {
+			table.add(randGen.nextFloat() * renderer.getWidth(), randGen.nextFloat() * renderer.getHeight(),
+					randGen.nextFloat() * 6.28f, 0);
+			table.alive[i] = randGen.nextInt(5) != 0;
+			table.previousX[i] = table.x[i] - table.directionX[i] * Fireball.SPEED * Level.STEP_TIME;
+			table.previousY[i] = table.y[i] - table.directionY[i] * Fireball.SPEED * Level.STEP_TIME;
+		}
+		return table;
+	}
+
+	/**
+	 * This workload moves every fireball one step, back and forth so that none of
+	 * them ever leave the screen.
+	 */
+	private static class Advance implements Workload {
+		private EntityKernels kernels;
+		private EntityTable table;
+		private float step = Fireball.SPEED * Level.STEP_TIME;
+
+		Advance(EntityKernels kernels) {
+			this.kernels = kernels;
+		}
+
+		public void setup(int param) {
+			table = fireballs(new Random(1), param);
+		}
+
+		public int run() {
+			step = -step;
+			kernels.advance(table, step, -Fireball.OFF_SCREEN_MARGIN, renderer.getWidth() + Fireball.OFF_SCREEN_MARGIN,
+					renderer.getHeight() + Fireball.OFF_SCREEN_MARGIN);
+			return table.alive[0] ? 1 : 0;
+		}
+	}
+
+	/**
+	 * This workload tests a pant against some fireballs, either a few picked at
+	 * random the way a SpatialGrid query finds them, or every fireball in order.
+	 * The pant is somewhere different each time, and usually nothing hits it, the
+	 * same as in a game.
+	 */
+	private static class FindHit implements Workload {
+		//Most positions are tried this many times to find one that nothing hits.
+		private static final int TRIES = 1000;
+
+		private EntityKernels kernels;
+		private boolean testsAll;
+		private EntityTable table;
+		private int[] candidates;
+		private int count;
+		//Positions to test, cycled through so each test is different.
+		private float[] targetX = new float[64];
+		private float[] targetY = new float[64];
+		private int next = 0;
+		private float radius;
+
+		FindHit(EntityKernels kernels, boolean testsAll) {
+			this.kernels = kernels;
+			this.testsAll = testsAll;
+		}
+
+		public void setup(int param) {
+			Random randGen = new Random(1);
+			table = fireballs(randGen, testsAll ? param : 4096);
+			count = param;
+			candidates = new int[param];
+			for(int i = 0; i < param; i++) {
+				candidates[i] = testsAll ? i : randGen.nextInt(table.size);
+			}
+			radius = EntityKernels.getHitRadius(new Graphic("FIREBALL"), new Graphic("PANT"));
+
+			//One position in eight is hit by something, and the rest are not if a place can be found.
+			for(int i = 0; i < targetX.length; i++) {
+				for(int tries = 0; tries < TRIES; tries++) {
+					targetX[i] = randGen.nextFloat() * renderer.getWidth();
+					targetY[i] = randGen.nextFloat() * renderer.getHeight();
+					boolean isHit = EntityKernels.findHitFrom(table, candidates, 0, count, targetX[i], targetY[i],
+							targetX[i], targetY[i], radius, -1) != -1;
+					if(isHit == (i % 8 == 0)) {
+						break;
+					}
+				}
+			}
+		}
+
+		public int run() {
+			next = (next + 1) & (targetX.length - 1);
+			return kernels.findHit(table, candidates, count, targetX[next], targetY[next], targetX[next],
+					targetY[next], radius);
+		}
+	}
+}
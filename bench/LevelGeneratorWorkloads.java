@@ -0,0 +1,71 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+
+import benchmarks.Workload;
+
+/**
+ * This workload generates a level with LevelGenerator on the given number of threads. The level is square, 10000
+ * pixels wide, and the spacing is 20 pixels, so it fits about 150 thousand objects. The level made by every run is
+ * checked against the same level made on one thread, since it should be the same however many threads make it.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelGeneratorWorkloads {
+	//The width and height of the level.
+	private static final int WIDTH = 10000;
+	//The smallest distance between two objects.
+	private static final float SPACING = 20;
+	//About as many objects as fit, so that running out of room is not what is being timed.
+	private static final int PANTS = (int)((double)WIDTH * WIDTH / (SPACING * SPACING) * 0.4);
+
+	/**
+	 * This workload generates a level on the given number of threads.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload generate() {
+		return new Workload() {
+			private ForkJoinPool pool;
+			private String expected;
+
+			public void setup(int param) {
+				ForkJoinPool oneThread = new ForkJoinPool(1);
+				expected = levelFile(oneThread);
+				oneThread.shutdown();
+				pool = new ForkJoinPool(param);
+			}
+
+			public int run() {
+				String level = levelFile(pool);
+				if(!level.equals(expected)) {
+					throw new IllegalStateException("The level was different on " + pool.getParallelism()
+							+ " threads.");
+				}
+				return level.length();
+			}
+		};
+	}
+
+	/**
+	 * This method generates the level and writes it as text.
+	 *
+	 * @param pool is the pool to generate it on.
+	 *
+	 * @return The level file.
+	 */
+	private static String levelFile(ForkJoinPool pool) {
+		LevelGenerator generator = new LevelGenerator(WIDTH, WIDTH, SPACING, 1);
+		generator.setPool(pool);
+		generator.generate(PANTS, 0);
+		StringWriter out = new StringWriter();
+		try {
+			generator.write(out);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toString();
+	}
+}
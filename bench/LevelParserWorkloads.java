@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads compare reading the text level format the way Level.loadLevel used to (a Scanner, substring,
+ * split and Double.parseDouble for every line) against LevelParser reading the same text from a Reader and from
+ * a ByteBuffer. Only the parsing is measured: each line's values are added up instead of creating objects.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelParserWorkloads {
+	/**
+	 * This workload reads a level with the given number of lines with a Scanner.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload scanner() {
+		return new Workload() {
+			private String text;
+
+			public void setup(int param) {
+				text = text(param);
+			}
+
+			public int run() {
+				Sum sum = new Sum();
+				scan(text, sum);
+				return sum.total;
+			}
+		};
+	}
+
+	/**
+	 * This workload reads a level with the given number of lines with a LevelParser from a Reader.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload reader() {
+		return new Workload() {
+			private String text;
+			private LevelParser parser = new LevelParser();
+			private Sum sum = new Sum();
+
+			public void setup(int param) {
+				text = text(param);
+			}
+
+			public int run() {
+				sum.total = 0;
+				try {
+					parser.parse(new StringReader(text), sum);
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return sum.total;
+			}
+		};
+	}
+
+	/**
+	 * This workload reads a level with the given number of lines with a LevelParser from a ByteBuffer.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload byteBuffer() {
+		return new Workload() {
+			private ByteBuffer bytes;
+			private LevelParser parser = new LevelParser();
+			private Sum sum = new Sum();
+
+			public void setup(int param) {
+				bytes = ByteBuffer.wrap(text(param).getBytes(StandardCharsets.US_ASCII));
+			}
+
+			public int run() {
+				sum.total = 0;
+				bytes.rewind();
+				parser.parse(bytes, sum);
+				return sum.total;
+			}
+		};
+	}
+
+	/**
+	 * This method writes a level with three pants for every fire.
+	 *
+	 * @param lines is the number of pant and fire lines in the level.
+	 *
+	 * @return The contents of the level file.
+	 */
+	private static String text(int lines) {
+		return LevelWorkloads.levelText(new Random(1), lines * 3 / 4, lines / 4, 400.5f, 300.25f);
+	}
+
+	/**
+	 * This method reads a level the same way Level.loadLevel did before LevelParser.
+	 *
+	 * @param level is the contents of the level file.
+	 * @param handler is given the contents of each line.
+	 */
+	private static void scan(String level, LevelHandler handler) {
+		final String HERO = "HERO @";
+		final String PANT = "PANT @";
+		final String FIRE = "FIRE @";
+		final String CONTROL_TYPE = "ControlType:";
+
+		Scanner scnr = new Scanner(level);
+		while(scnr.hasNextLine()) {
+			String line = scnr.nextLine();
+			if(line.startsWith(CONTROL_TYPE)) {
+				handler.controlType(Integer.parseInt(line.substring(CONTROL_TYPE.length()).trim()));
+			} else if(line.startsWith(FIRE)) {
+				String[] coordsArray = line.substring(FIRE.length()).trim().split(",");
+				handler.fire((float)Double.parseDouble(coordsArray[0]), (float)Double.parseDouble(coordsArray[1]));
+			} else if(line.startsWith(HERO)) {
+				String[] coordsArray = line.substring(HERO.length()).trim().split(",");
+				handler.hero((float)Double.parseDouble(coordsArray[0]), (float)Double.parseDouble(coordsArray[1]));
+			} else if(line.startsWith(PANT)) {
+				String[] coordsArray = line.substring(PANT.length()).trim().split(",");
+				handler.pant((float)Double.parseDouble(coordsArray[0]), (float)Double.parseDouble(coordsArray[1]));
+			}
+		}
+		scnr.close();
+	}
+
+	/**
+	 * This handler adds up everything it is given, so the parsing cannot be optimized away.
+	 */
+	private static class Sum implements LevelHandler {
+		int total = 0;
+
+		public void controlType(int controlType) {
+			total += controlType;
+		}
+
+		public void hero(float x, float y) {
+			total += (int)(x + y);
+		}
+
+		public void pant(float x, float y) {
+			total += (int)(x + y);
+		}
+
+		public void fire(float x, float y) {
+			total += (int)(x + y);
+		}
+	}
+}
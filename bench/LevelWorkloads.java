@@ -0,0 +1,303 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads measure Level.update, Level.loadLevel, Level.createRandomLevel and each of the collision
+ * handlers on their own, at a range of entity counts. Every level runs headless through a NullRenderer and
+ * NullInput. Run benchmarks.LevelBenchmarks before and after a performance change to compare against the
+ * baseline.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LevelWorkloads {
+	//Every workload draws and reads input through these, so no window is needed.
+	private static Renderer renderer = new NullRenderer();
+	private static Input input = new NullInput();
+	//Pools for the collision handlers. Water they remove is put back by the workload itself, so it is not kept.
+	private static EntityPools pools = new EntityPools() {
+		public void releaseWater(Water water) {
+		}
+	};
+
+	/**
+	 * This workload updates a level with the given number of pants, and a tenth as many fires. The level
+	 * is started again once every pant has burned.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload update() {
+		return new Workload() {
+			private String text;
+			private Level level;
+
+			public void setup(int param) {
+				//Keep the hero off the screen so fireballs never end the level.
+				text = levelText(new Random(1), param, Math.max(param / 10, 1), -1000, -1000);
+				level = new Level(new Random(1), text, renderer, input);
+			}
+
+			public int run() {
+				String result = level.update(16);
+				//Start the level again once every pant has burned.
+				if(!result.equals("CONTINUE")) {
+					level = new Level(new Random(1), text, renderer, input);
+				}
+				return level.fireballs.size();
+			}
+		};
+	}
+
+	/**
+	 * This workload loads a level with the given number of lines, three pants for every fire.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload loadLevel() {
+		return new Workload() {
+			private String text;
+			private Random randGen = new Random(1);
+
+			public void setup(int param) {
+				text = levelText(new Random(1), param * 3 / 4, param / 4, 400, 300);
+			}
+
+			public int run() {
+				return new Level(randGen, text, renderer, input).pants.size();
+			}
+		};
+	}
+
+	/**
+	 * This workload fills a level with the given number of random pants, and three tenths as many fires.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload createRandomLevel() {
+		return new Workload() {
+			private Level level;
+
+			public void setup(int param) {
+				level = new Level(new Random(1), "ControlType: 1\nHERO @ 400, 300", renderer, input);
+				level.startingPantNumber = param;
+				level.startingFireNumber = Math.max(param * 3 / 10, 1);
+			}
+
+			public int run() {
+				level.pants.clear();
+				level.fires.clear();
+				level.fireScheduler.clear();
+				level.createRandomLevel();
+				return level.pants.size();
+			}
+		};
+	}
+
+	/**
+	 * This workload checks the hero against the given number of fireballs.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload heroFireballCollisions() {
+		return new Workload() {
+			private Hero hero = new Hero(400, 300, 1);
+			private ArrayList<Fireball> fireballs;
+			private SpatialGrid grid = new SpatialGrid(Level.COLLISION_CELL_SIZE, 1024);
+
+			public void setup(int param) {
+				fireballs = fireballs(new Random(1), param, grid);
+			}
+
+			public int run() {
+				return hero.handleFireballCollisions(fireballs, grid) ? 1 : 0;
+			}
+		};
+	}
+
+	/**
+	 * This workload moves a hero with the given control type for one frame of four steps.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload heroUpdate() {
+		return new Workload() {
+			private Hero hero;
+			private InputSnapshot keys = new InputSnapshot();
+			private StepInput stepInput = new StepInput(keys);
+			private WaterSlots water = new WaterSlots(WaterSlots.DEFAULT_CAPACITY);
+			private int frame = 0;
+
+			public void setup(int param) {
+				hero = new Hero(400, 300, param);
+				keys.held = InputSnapshot.W | InputSnapshot.D;
+			}
+
+			public int run() {
+				//One frame of four steps, with the mouse moving every other frame and the hero kept on the screen.
+				frame++;
+				keys.mouseX = 400 + (frame >> 1) % 200;
+				keys.mouseY = 300;
+				if(frame % 1000 == 0) {
+					hero.restore(400, 300, 0, 400, 300, 0);
+				}
+				for(int i = 0; i < 4; i++) {
+					hero.update(Level.STEP_TIME, water, stepInput, pools);
+				}
+				return (int)hero.getGraphic().getX();
+			}
+		};
+	}
+
+	/**
+	 * This workload checks one of a thousand pants against the given number of fireballs.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload pantFireballCollisions() {
+		return new Workload() {
+			private ArrayList<Pant> pants = new ArrayList<Pant>();
+			private ArrayList<Fireball> fireballs;
+			private SpatialGrid grid = new SpatialGrid(Level.COLLISION_CELL_SIZE, 1024);
+			private int next = 0;
+
+			public void setup(int param) {
+				Random randGen = new Random(1);
+				fireballs = fireballs(randGen, param, grid);
+				pants.clear();
+				for(int i = 0; i < 1000; i++) {
+					pants.add(new Pant(randGen.nextInt(800), randGen.nextInt(600), randGen));
+				}
+			}
+
+			public int run() {
+				//Check a different pant each time, the way Level cycles through all of them.
+				next = (next + 1) % pants.size();
+				return pants.get(next).handleFireballCollisions(fireballs, grid, pools) == null ? 0 : 1;
+			}
+		};
+	}
+
+	/**
+	 * This workload checks one of the given number of fireballs against a full set of water.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload fireballWaterCollisions() {
+		return new Workload() {
+			private ArrayList<Fireball> fireballs;
+			private SpatialGrid grid = new SpatialGrid(Level.COLLISION_CELL_SIZE, 1024);
+			private WaterSlots water = new WaterSlots(WaterSlots.DEFAULT_CAPACITY);
+			private Water[] startingWater = new Water[WaterSlots.DEFAULT_CAPACITY];
+			private SpatialGrid waterGrid = new SpatialGrid(Level.COLLISION_CELL_SIZE, 64);
+			private int next = 0;
+
+			public void setup(int param) {
+				Random randGen = new Random(1);
+				fireballs = fireballs(randGen, param, grid);
+				water(randGen, startingWater, waterGrid);
+			}
+
+			public int run() {
+				//Put back any water that the last check removed.
+				refill(water, startingWater);
+				next = (next + 1) % fireballs.size();
+				fireballs.get(next).handleWaterCollisions(water, waterGrid, pools);
+				return fireballs.get(next).shouldRemove() ? 1 : 0;
+			}
+		};
+	}
+
+	/**
+	 * This workload checks one of the given number of fires against a full set of water.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload fireWaterCollisions() {
+		return new Workload() {
+			private ArrayList<Fire> fires = new ArrayList<Fire>();
+			private WaterSlots water = new WaterSlots(WaterSlots.DEFAULT_CAPACITY);
+			private Water[] startingWater = new Water[WaterSlots.DEFAULT_CAPACITY];
+			private SpatialGrid waterGrid = new SpatialGrid(Level.COLLISION_CELL_SIZE, 64);
+			private int next = 0;
+
+			public void setup(int param) {
+				Random randGen = new Random(1);
+				fires.clear();
+				for(int i = 0; i < param; i++) {
+					fires.add(new Fire(randGen.nextInt(800), randGen.nextInt(600), randGen));
+				}
+				water(randGen, startingWater, waterGrid);
+			}
+
+			public int run() {
+				//Put back any water that the last check removed.
+				refill(water, startingWater);
+				next = (next + 1) % fires.size();
+				fires.get(next).handleWaterCollisions(water, waterGrid, pools);
+				return water.get(0) == null ? 1 : 0;
+			}
+		};
+	}
+
+	/**
+	 * This method writes a level in the text format read by Level.loadLevel.
+	 *
+	 * @param randGen is used to place the pants and fires.
+	 * @param pantCount is the number of pants in the level.
+	 * @param fireCount is the number of fires in the level.
+	 * @param heroX is the position of the hero on the x axis.
+	 * @param heroY is the position of the hero on the y axis.
+	 *
+	 * @return The contents of the level file.
+	 */
+	static String levelText(Random randGen, int pantCount, int fireCount, float heroX, float heroY) {
+		StringBuilder text = new StringBuilder("ControlType: 1\n");
+		text.append("HERO @ ").append(heroX).append(", ").append(heroY).append('\n');
+		for(int i = 0; i < pantCount; i++) {
+			text.append("PANT @ ").append(randGen.nextInt(800)).append(", ").append(randGen.nextInt(600)).append('\n');
+		}
+		for(int i = 0; i < fireCount; i++) {
+			text.append("FIRE @ ").append(randGen.nextInt(800)).append(", ").append(randGen.nextInt(600)).append('\n');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * This method creates randomly placed fireballs on the screen and adds them to a grid.
+	 *
+	 * @return The array list of fireballs.
+	 */
+	static ArrayList<Fireball> fireballs(Random randGen, int count, SpatialGrid grid) {
+		ArrayList<Fireball> fireballs = new ArrayList<Fireball>();
+		grid.clear();
+		for(int i = 0; i < count; i++) {
+			Fireball fireball = new Fireball(randGen.nextInt(800), randGen.nextInt(600), randGen.nextFloat() * 6);
+			fireballs.add(fireball);
+			grid.insert(i, fireball.getGraphic().getX(), fireball.getGraphic().getY());
+		}
+		return fireballs;
+	}
+
+	/**
+	 * This method fills a water array with randomly placed water objects and adds them to a grid.
+	 */
+	static void water(Random randGen, Water[] water, SpatialGrid grid) {
+		grid.clear();
+		for(int i = 0; i < water.length; i++) {
+			water[i] = new Water(randGen.nextInt(800), randGen.nextInt(600), randGen.nextFloat() * 6);
+			grid.insert(i, water[i].getGraphic().getX(), water[i].getGraphic().getY());
+		}
+	}
+
+	/**
+	 * This method empties water slots and puts water objects back in them, so that water object i is in slot i.
+	 */
+	static void refill(WaterSlots water, Water[] startingWater) {
+		water.clear();
+		for(int i = 0; i < startingWater.length; i++) {
+			water.add(startingWater[i]);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+
+/**
+ * This load generator connects many players to a GameServer over localhost and has each of them send random
+ * input every 16 ms, the way a real player's client would. It reads back every status the server sends, and at
+ * the end prints how many statuses each player received per second along with the server's tick latency.
+ *
+ * If no host is given, a GameServer using every core is started in this program on a free port, so its tick
+ * latency can be printed. Otherwise only the client side is measured, and the server prints its own.
+ *
+ * Build it with bench/pom.xml, and run it from the project folder with:
+ * java -cp bench/target/benchmarks.jar LoadGenerator [sessions] [seconds] [host] [port]
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class LoadGenerator {
+	public static void main(String[] args) throws Exception {
+		int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		GameServer server = null;
+		String host = "localhost";
+		int port;
+		if(args.length > 2) {
+			host = args[2];
+			port = args.length > 3 ? Integer.parseInt(args[3]) : GameServer.DEFAULT_PORT;
+		} else {
+			server = new GameServer(0, Runtime.getRuntime().availableProcessors());
+			server.start();
+			port = server.getPort();
+		}
+
+		//Connect every player. The channels are non-blocking, so one thread can drive all of them.
+		SocketChannel[] players = new SocketChannel[sessionCount];
+		ByteBuffer[] statuses = new ByteBuffer[sessionCount];
+		for(int i = 0; i < sessionCount; i++) {
+			players[i] = SocketChannel.open(new InetSocketAddress(host, port));
+			players[i].configureBlocking(false);
+			players[i].socket().setTcpNoDelay(true);
+			statuses[i] = ByteBuffer.allocate(GameSession.STATUS_SIZE * 256);
+		}
+		System.out.printf("Connected %d players%n", sessionCount);
+
+		//Let the server settle, then throw away what was sent so far and measure.
+		Thread.sleep(1000);
+		if(server != null) {
+			server.resetStats();
+		}
+		for(int i = 0; i < sessionCount; i++) {
+			readStatuses(players[i], statuses[i]);
+		}
+
+		Random randGen = new Random(1);
+		ByteBuffer message = ByteBuffer.allocate(GameSession.MESSAGE_SIZE);
+		long received = 0;
+		long lost = 0;
+		long start = System.nanoTime();
+		long end = start + seconds * 1000000000L;
+		long nextSend = start;
+		while(System.nanoTime() < end) {
+			for(int i = 0; i < sessionCount; i++) {
+				received += readStatuses(players[i], statuses[i]);
+			}
+			if(System.nanoTime() >= nextSend) {
+				for(int i = 0; i < sessionCount; i++) {
+					//Hold the mouse down some of the time and press space now and then.
+					message.clear();
+					message.put((byte)(randGen.nextInt(64) & ~16)).put((byte)(randGen.nextInt(8) == 0 ? 16 : 0));
+					message.putShort((short)randGen.nextInt(800)).putShort((short)randGen.nextInt(600));
+					message.flip();
+					if(players[i].write(message) < GameSession.MESSAGE_SIZE) {
+						lost++;
+					}
+				}
+				nextSend += GameServer.TICK_TIME * 1000000L;
+			} else {
+				Thread.sleep(1);
+			}
+		}
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%.1f statuses per player per second (%.0f expected), %d input messages not sent%n",
+				received / elapsed / sessionCount, 1000.0 / GameServer.TICK_TIME, lost);
+		if(server != null) {
+			System.out.println(server.getStats());
+		}
+		for(int i = 0; i < sessionCount; i++) {
+			players[i].close();
+		}
+		if(server != null) {
+			server.stop();
+		}
+	}
+
+	/**
+	 * This method reads every whole status a player has been sent.
+	 *
+	 * @param player is the player's connection.
+	 * @param buffer holds any part of a status that has been read.
+	 *
+	 * @return The number of statuses read.
+	 *
+	 * @throws IOException if the connection fails.
+	 */
+	private static int readStatuses(SocketChannel player, ByteBuffer buffer) throws IOException {
+		player.read(buffer);
+		int count = buffer.position() / GameSession.STATUS_SIZE;
+		buffer.flip();
+		buffer.position(count * GameSession.STATUS_SIZE);
+		buffer.compact();
+		return count;
+	}
+}
@@ -0,0 +1,49 @@
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * This workload measures how many bytes a steady-state Level.update allocates. A thousand fires shoot fireballs 
+ * across the screen while the hero sprays water every frame, so fireballs and water are created and removed 
+ * continuously. The hero and pants are kept where fireballs cannot reach them so the level never ends.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class PoolingWorkloads {
+	/**
+	 * This workload updates a level with the given number of fires.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload steadyState() {
+		return new Workload() {
+			private Level level;
+			
+			public void setup(int param) {
+				StringBuilder text = new StringBuilder("ControlType: 2\nHERO @ -1000, -1000\n");
+				text.append("PANT @ -2000, -2000\n");
+				Random randGen = new Random(1);
+				for(int i = 0; i < param; i++) {
+					text.append("FIRE @ ").append(randGen.nextInt(800)).append(", ").append(randGen.nextInt(600));
+					text.append('\n');
+				}
+				level = new Level(new Random(1), text.toString(), new NullRenderer(), new SprayInput());
+			}
+			
+			public int run() {
+				level.update(16);
+				return level.fireballs.size();
+			}
+		};
+	}
+	
+	/**
+	 * This Input holds the mouse button down the whole time so the hero keeps spraying water.
+	 */
+	private static class SprayInput extends NullInput {
+		public boolean isKeyHeld(String key) {
+			return key.equals("MOUSE");
+		}
+	}
+}
@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads time the removal stage of a frame after a mass extinction, where a chain fire has burned every
+ * pant at once and used up the fireball that hit each one. The old way of calling remove(index) inside a forward
+ * loop is compared with Level.removeDeadObjects.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class RemovalWorkloads {
+	/**
+	 * This workload removes the dead objects with remove(index) loops.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload removeByIndex() {
+		return new Extinction(false);
+	}
+
+	/**
+	 * This workload removes the dead objects with Level.removeDeadObjects.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload removeDeadObjects() {
+		return new Extinction(true);
+	}
+
+	/**
+	 * This workload refills the level's array lists with the same burned pants, used fireballs and new fires 
+	 * and then removes the dead ones.
+	 */
+	private static class Extinction implements Workload {
+		private boolean compact;
+		private Level level;
+		private ArrayList<Pant> burnedPants = new ArrayList<Pant>();
+		private ArrayList<Fireball> usedFireballs = new ArrayList<Fireball>();
+		private ArrayList<Fire> newFires = new ArrayList<Fire>();
+		
+		Extinction(boolean compact) {
+			this.compact = compact;
+		}
+		
+		public void setup(int param) {
+			Random randGen = new Random(1);
+			level = new Level(randGen, "ControlType: 1\nHERO @ 400, 300", new NullRenderer(), new NullInput());
+			//The objects are reused every time, so they must not be kept by the pools.
+			level.pools = new EntityPools() {
+				public void releaseFireball(Fireball fireball) {
+				}
+				
+				public void releaseFire(Fire fire) {
+				}
+			};
+			burnedPants.clear();
+			usedFireballs.clear();
+			newFires.clear();
+			for(int i = 0; i < param; i++) {
+				Pant pant = new Pant(randGen.nextInt(800), randGen.nextInt(600), randGen);
+				pant.destroy();
+				burnedPants.add(pant);
+				Fireball fireball = new Fireball(pant.getGraphic().getX(), pant.getGraphic().getY(), 0);
+				fireball.destroy();
+				usedFireballs.add(fireball);
+				newFires.add(new Fire(pant.getGraphic().getX(), pant.getGraphic().getY(), randGen));
+			}
+		}
+		
+		public int run() {
+			level.pants.clear();
+			level.pants.addAll(burnedPants);
+			level.fireballs.clear();
+			level.fireballs.addAll(usedFireballs);
+			level.fires.clear();
+			level.fires.addAll(newFires);
+			
+			if(compact) {
+				level.removeDeadObjects();
+			} else {
+				removeInLoops(level);
+			}
+			return level.pants.size() + level.fireballs.size();
+		}
+	}
+	
+	/**
+	 * This method removes dead objects the way Level.update used to.
+	 */
+	private static void removeInLoops(Level level) {
+		for(int p = 0; p < level.fireballs.size(); p++) {
+			if(level.fireballs.get(p).shouldRemove() == false) {
+				level.fireballs.remove(p);
+			}
+		}
+		for(int q = 0; q < level.fires.size(); q++) {
+			if(level.fires.get(q).shouldRemove() == false) {
+				level.fires.remove(q);
+			}
+		}
+		for(int r = 0; r < level.pants.size(); r++) {
+			if(level.pants.get(r).shouldRemove() == false) {
+				level.pants.remove(r);
+			}
+		}
+	}
+}
@@ -0,0 +1,232 @@
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * These workloads time saving and restoring a level with LevelSnapshot, in levels where the parameter is the number
+ * of pants, fires and fireballs together. Deltas are taken after 25 frames of play from their full snapshot, about
+ * how far apart the saves of a game rolling back a few frames would be. The size of each kind of snapshot is
+ * printed when its workload is set up. The SnapshotRing workloads save a delta into a memory-mapped file, with a
+ * full snapshot every 8 saves.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class SnapshotWorkloads {
+	//Number of frames played between the full snapshot and the delta.
+	private static final int DELTA_FRAMES = 25;
+	//Sets up Graphic without a window, and is the renderer of every level.
+	private static Renderer renderer = new NullRenderer();
+
+	/**
+	 * This workload writes a full snapshot of a level.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload writeFull() {
+		return new Workload() {
+			private Level level;
+			private LevelSnapshot snapshot = new LevelSnapshot();
+			private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+			public void setup(int param) {
+				level = createLevel(renderer, param);
+				System.out.printf("%d entities: full snapshot %d bytes%n", param, snapshot.writeFull(level, 1, buffer));
+			}
+
+			public int run() {
+				buffer.clear();
+				return snapshot.writeFull(level, 1, buffer);
+			}
+		};
+	}
+
+	/**
+	 * This workload writes a delta snapshot of a level 25 frames after its full snapshot.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload writeDelta() {
+		return new Workload() {
+			private Level level;
+			private LevelSnapshot snapshot = new LevelSnapshot();
+			private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+			public void setup(int param) {
+				level = createLevel(renderer, param);
+				snapshot.writeFull(level, 1, buffer);
+				play(level);
+				buffer.clear();
+				System.out.printf("%d entities: delta after %d frames %d bytes%n", param, DELTA_FRAMES,
+						snapshot.writeDelta(level, 2, buffer));
+			}
+
+			public int run() {
+				buffer.clear();
+				return snapshot.writeDelta(level, 2, buffer);
+			}
+		};
+	}
+
+	/**
+	 * This workload restores a level from a full snapshot.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload restoreFull() {
+		return new Workload() {
+			private Level level;
+			private LevelSnapshot snapshot = new LevelSnapshot();
+			private ByteBuffer full = ByteBuffer.allocateDirect(1 << 20);
+
+			public void setup(int param) {
+				level = createLevel(renderer, param);
+				full.clear();
+				snapshot.writeFull(level, 1, full);
+				full.flip();
+				play(level);
+			}
+
+			public int run() {
+				snapshot.restore(level, full.duplicate());
+				return level.getFireballCount();
+			}
+		};
+	}
+
+	/**
+	 * This workload restores a level from a full snapshot and a delta.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload restoreFullAndDelta() {
+		return new Workload() {
+			private Level level;
+			private LevelSnapshot snapshot = new LevelSnapshot();
+			private ByteBuffer full = ByteBuffer.allocateDirect(1 << 20);
+			private ByteBuffer delta = ByteBuffer.allocateDirect(1 << 20);
+
+			public void setup(int param) {
+				level = createLevel(renderer, param);
+				full.clear();
+				snapshot.writeFull(level, 1, full);
+				full.flip();
+				play(level);
+				delta.clear();
+				snapshot.writeDelta(level, 2, delta);
+				delta.flip();
+				play(level);
+			}
+
+			public int run() {
+				snapshot.restore(level, full.duplicate(), delta.duplicate());
+				return level.getFireballCount();
+			}
+		};
+	}
+
+	/**
+	 * This workload saves a level into a SnapshotRing.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload ringSave() {
+		return new Workload() {
+			private Level level;
+			private SnapshotRing ring;
+
+			public void setup(int param) {
+				level = createLevel(renderer, param);
+				ring = createRing();
+			}
+
+			public int run() {
+				return (int)ring.save(level);
+			}
+		};
+	}
+
+	/**
+	 * This workload restores a level from the newest snapshot in a SnapshotRing.
+	 *
+	 * @return The workload.
+	 */
+	public static Workload ringRestoreLatest() {
+		return new Workload() {
+			private Level level;
+			private SnapshotRing ring;
+
+			public void setup(int param) {
+				level = createLevel(renderer, param);
+				ring = createRing();
+				ring.save(level);
+				play(level);
+				ring.save(level);
+			}
+
+			public int run() {
+				ring.restoreLatest(level);
+				return level.getFireballCount();
+			}
+		};
+	}
+
+	/**
+	 * This method creates a level with a hero in the middle, and the given number of
+	 * pants, fires and fireballs in random places: 40% pants, 30% fires and 30%
+	 * fireballs.
+	 *
+	 * @param renderer is the renderer the level uses.
+	 * @param entityCount is the number of pants, fires and fireballs together.
+	 *
+	 * @return The level.
+	 */
+	private static Level createLevel(Renderer renderer, int entityCount) {
+		Random randGen = new Random(1);
+		Level level = new Level(randGen, renderer, new NullInput());
+		level.controlType = 1;
+		level.hero = new Hero(level.heroX, level.heroY, 1);
+		int pantCount = entityCount * 4 / 10;
+		int fireCount = entityCount * 3 / 10;
+		for(int i = 0; i < pantCount; i++) {
+			level.pants.add(new Pant(randGen.nextInt(800), randGen.nextInt(600), randGen));
+		}
+		for(int i = 0; i < fireCount; i++) {
+			level.addFire(new Fire(randGen.nextInt(800), randGen.nextInt(600), randGen));
+		}
+		for(int i = pantCount + fireCount; i < entityCount; i++) {
+			level.fireballs.add(level.pools.acquireFireball(randGen.nextInt(800), randGen.nextInt(600),
+					randGen.nextFloat() * (float)Math.PI * 2));
+		}
+		return level;
+	}
+
+	/**
+	 * This method creates a SnapshotRing of 16 snapshots in a new file, which is deleted when the JVM exits.
+	 *
+	 * @return The ring.
+	 */
+	private static SnapshotRing createRing() {
+		try {
+			Path file = Files.createTempFile("snapshots", ".ring");
+			file.toFile().deleteOnExit();
+			return new SnapshotRing(file, 16, 1 << 20, 8);
+		} catch(Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * This method plays DELTA_FRAMES frames of a level, ignoring whether it is won or lost.
+	 *
+	 * @param level is the level to play.
+	 */
+	private static void play(Level level) {
+		for(int i = 0; i < DELTA_FRAMES; i++) {
+			level.update(16);
+		}
+	}
+}
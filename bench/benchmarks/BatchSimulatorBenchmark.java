@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark times playing a batch of 400 random levels with a BatchSimulator on different numbers of
+ * threads, using the workload in BatchSimulatorWorkloads. Each batch takes long enough to be timed on its own.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchSimulatorBenchmark extends WorkloadState {
+	@Param({"1", "2", "4", "8"})
+	public int threads;
+
+	public BatchSimulatorBenchmark() {
+		super("BatchSimulatorWorkloads");
+	}
+
+	protected int getParam() {
+		return threads;
+	}
+
+	@Benchmark
+	public int play() {
+		return run();
+	}
+}
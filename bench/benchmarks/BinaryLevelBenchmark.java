@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare loading a level from its text contents against loading it from a compiled binary
+ * file, using the workloads in BinaryLevelWorkloads.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryLevelBenchmark extends WorkloadState {
+	@Param({"10000", "100000", "1000000"})
+	public int lines;
+
+	public BinaryLevelBenchmark() {
+		super("BinaryLevelWorkloads");
+	}
+
+	protected int getParam() {
+		return lines;
+	}
+
+	@Benchmark
+	public int text() {
+		return run();
+	}
+
+	@Benchmark
+	public int binary() {
+		return run();
+	}
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare the collision checks of one frame done with linear scans against the same checks done
+ * through a SpatialGrid, using the workloads in CollisionWorkloads. There is a tenth of a fireball for every pant.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark extends WorkloadState {
+	@Param({"1000", "2000", "4000", "8000", "16000"})
+	public int pants;
+
+	public CollisionBenchmark() {
+		super("CollisionWorkloads");
+	}
+
+	protected int getParam() {
+		return pants;
+	}
+
+	@Benchmark
+	public int linear() {
+		return run();
+	}
+
+	@Benchmark
+	public int grid() {
+		return run();
+	}
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare Level.update with entities kept as objects against the same level moved into an
+ * EntityStore, using the workloads in EntityStoreWorkloads.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityStoreBenchmark extends WorkloadState {
+	@Param({"10000", "20000", "40000"})
+	public int count;
+
+	public EntityStoreBenchmark() {
+		super("EntityStoreWorkloads");
+	}
+
+	protected int getParam() {
+		return count;
+	}
+
+	@Benchmark
+	public int objects() {
+		return run();
+	}
+
+	@Benchmark
+	public int store() {
+		return run();
+	}
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare one 4 ms step of counting down every fire against advancing a FireScheduler, and
+ * time the same step for the fires of an EntityStore, using the workloads in FireSchedulerWorkloads.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FireSchedulerBenchmark extends WorkloadState {
+	@Param({"1000", "50000"})
+	public int fires;
+
+	public FireSchedulerBenchmark() {
+		super("FireSchedulerWorkloads");
+	}
+
+	protected int getParam() {
+		return fires;
+	}
+
+	@Benchmark
+	public int polling() {
+		return run();
+	}
+
+	@Benchmark
+	public int scheduler() {
+		return run();
+	}
+
+	@Benchmark
+	public int store() {
+		return run();
+	}
+}
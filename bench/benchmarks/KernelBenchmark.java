@@ -0,0 +1,103 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare the scalar EntityKernels against VectorKernels at every vector size, using the
+ * workloads in KernelWorkloads. The bits parameter is the vector size, where 0 is the scalar kernels.
+ *
+ * Every vector size runs in a fork of its own, which matters here: the JIT compiles the Vector API worse once it
+ * has seen more than one vector size, and a game only ever uses one. A vector size the CPU does not have is still
+ * measured, but runs without SIMD. To see how a CPU with AVX2 but not AVX-512 would do, add -jvmArgs -XX:UseAVX=2.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark {
+	/**
+	 * This is the state of a benchmark of the kernels of one vector size.
+	 */
+	@State(Scope.Thread)
+	public abstract static class Kernels extends WorkloadState {
+		@Param({"0", "128", "256", "512"})
+		public int bits;
+
+		protected Kernels() {
+			super("KernelWorkloads");
+		}
+
+		protected Workload create(Class<?> source, String name) throws ReflectiveOperationException {
+			return (Workload)source.getMethod(name, int.class).invoke(null, bits);
+		}
+	}
+
+	/**
+	 * This is the state of the advance benchmark, parameterized by the number of fireballs.
+	 */
+	@State(Scope.Thread)
+	public static class Advance extends Kernels {
+		@Param({"1000", "100000"})
+		public int count;
+
+		protected int getParam() {
+			return count;
+		}
+	}
+
+	/**
+	 * This is the state of the findHitNearby benchmark, parameterized by the number of fireballs tested.
+	 */
+	@State(Scope.Thread)
+	public static class Nearby extends Kernels {
+		@Param({"4", "16", "64"})
+		public int count;
+
+		protected int getParam() {
+			return count;
+		}
+	}
+
+	/**
+	 * This is the state of the findHitAll benchmark, parameterized by the number of fireballs tested.
+	 */
+	@State(Scope.Thread)
+	public static class All extends Kernels {
+		@Param({"1000", "4096"})
+		public int count;
+
+		protected int getParam() {
+			return count;
+		}
+	}
+
+	@Benchmark
+	public int advance(Advance state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int findHitNearby(Nearby state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int findHitAll(All state) {
+		return state.run();
+	}
+}
@@ -0,0 +1,137 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks measure Level.update, Level.loadLevel, Level.createRandomLevel and each of the collision
+ * handlers on their own, at a range of entity counts, using the workloads in LevelWorkloads. Run them before and
+ * after a performance change to compare against the baseline.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmarks {
+	/**
+	 * This is the state of the benchmarks parameterized by the number of pants or fireballs.
+	 */
+	@State(Scope.Thread)
+	public static class Entities extends WorkloadState {
+		@Param({"100", "1000", "10000"})
+		public int count;
+
+		public Entities() {
+			super("LevelWorkloads");
+		}
+
+		protected int getParam() {
+			return count;
+		}
+	}
+
+	/**
+	 * This is the state of the loadLevel benchmark, parameterized by the number of lines in the level.
+	 */
+	@State(Scope.Thread)
+	public static class Lines extends WorkloadState {
+		@Param({"10", "100000"})
+		public int lines;
+
+		public Lines() {
+			super("LevelWorkloads");
+		}
+
+		protected int getParam() {
+			return lines;
+		}
+	}
+
+	/**
+	 * This is the state of the createRandomLevel benchmark, parameterized by the number of pants.
+	 */
+	@State(Scope.Thread)
+	public static class Pants extends WorkloadState {
+		@Param({"20", "10000"})
+		public int pants;
+
+		public Pants() {
+			super("LevelWorkloads");
+		}
+
+		protected int getParam() {
+			return pants;
+		}
+	}
+
+	/**
+	 * This is the state of the heroUpdate benchmark, parameterized by the hero's control type.
+	 */
+	@State(Scope.Thread)
+	public static class ControlType extends WorkloadState {
+		@Param({"1", "2", "3"})
+		public int controlType;
+
+		public ControlType() {
+			super("LevelWorkloads");
+		}
+
+		protected int getParam() {
+			return controlType;
+		}
+	}
+
+	@Benchmark
+	public int update(Entities state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int loadLevel(Lines state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int createRandomLevel(Pants state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int heroFireballCollisions(Entities state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int heroUpdate(ControlType state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int pantFireballCollisions(Entities state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int fireballWaterCollisions(Entities state) {
+		return state.run();
+	}
+
+	@Benchmark
+	public int fireWaterCollisions(Entities state) {
+		return state.run();
+	}
+}
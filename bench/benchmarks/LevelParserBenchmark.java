@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare reading the text level format with a Scanner against reading it with LevelParser from
+ * a Reader and from a ByteBuffer, using the workloads in LevelParserWorkloads.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LevelParserBenchmark extends WorkloadState {
+	@Param({"1000", "1000000"})
+	public int lines;
+
+	public LevelParserBenchmark() {
+		super("LevelParserWorkloads");
+	}
+
+	protected int getParam() {
+		return lines;
+	}
+
+	@Benchmark
+	public int scanner() {
+		return run();
+	}
+
+	@Benchmark
+	public int reader() {
+		return run();
+	}
+
+	@Benchmark
+	public int byteBuffer() {
+		return run();
+	}
+}
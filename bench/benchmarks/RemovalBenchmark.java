@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks compare removing every dead object after a mass extinction with remove(index) loops against
+ * Level.removeDeadObjects, using the workloads in RemovalWorkloads.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RemovalBenchmark extends WorkloadState {
+	@Param({"100", "1000", "10000", "50000"})
+	public int count;
+
+	public RemovalBenchmark() {
+		super("RemovalWorkloads");
+	}
+
+	protected int getParam() {
+		return count;
+	}
+
+	@Benchmark
+	public int removeByIndex() {
+		return run();
+	}
+
+	@Benchmark
+	public int removeDeadObjects() {
+		return run();
+	}
+}
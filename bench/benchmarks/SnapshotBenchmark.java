@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * These benchmarks time saving and restoring a level with LevelSnapshot and SnapshotRing, using the workloads in
+ * SnapshotWorkloads.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark extends WorkloadState {
+	@Param({"1000", "10000"})
+	public int entities;
+
+	public SnapshotBenchmark() {
+		super("SnapshotWorkloads");
+	}
+
+	protected int getParam() {
+		return entities;
+	}
+
+	@Benchmark
+	public int writeFull() {
+		return run();
+	}
+
+	@Benchmark
+	public int writeDelta() {
+		return run();
+	}
+
+	@Benchmark
+	public int restoreFull() {
+		return run();
+	}
+
+	@Benchmark
+	public int restoreFullAndDelta() {
+		return run();
+	}
+
+	@Benchmark
+	public int ringSave() {
+		return run();
+	}
+
+	@Benchmark
+	public int ringRestoreLatest() {
+		return run();
+	}
+}
@@ -0,0 +1,26 @@
+package benchmarks;
+
+/**
+ * This interface is the work a benchmark times. JMH only runs benchmarks that are in a package, and a class in a
+ * package cannot use the game's classes, which are all in the default package. So the work itself is written in
+ * the default package, in the classes in the bench folder whose names end in Workloads, and each of their public
+ * static methods returns one of these. WorkloadState finds them by name.
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public interface Workload {
+	/**
+	 * This method builds whatever state the workload needs before it is timed.
+	 *
+	 * @param param is the parameter value being measured, such as an entity count.
+	 */
+	public void setup(int param);
+
+	/**
+	 * This method performs one operation of the workload.
+	 *
+	 * @return Any value that depends on the work done, so that the work cannot be optimized away.
+	 */
+	public int run();
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * This class is the state of a benchmark that times a Workload. Before the benchmark runs, it calls the public
+ * static method with the same name as the benchmark method on a class in the default package, and sets up the
+ * Workload it returns with the benchmark's parameter. A benchmark method that takes a subclass of this as its
+ * state only has to call run().
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public abstract class WorkloadState {
+	//The name of the class in the default package that creates the workloads.
+	private String source;
+	//The workload being timed.
+	private Workload workload;
+
+	/**
+	 * This constructor initializes a new WorkloadState.
+	 *
+	 * @param source is the name of the class in the default package that creates the workloads.
+	 */
+	protected WorkloadState(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * This is an accessor method for the parameter value the workload is set up with.
+	 *
+	 * @return The parameter value.
+	 */
+	protected abstract int getParam();
+
+	/**
+	 * This method creates a workload by calling the public static method that returns it.
+	 *
+	 * @param source is the class in the default package that creates the workloads.
+	 * @param name is the name of the method to call, which is the name of the benchmark method.
+	 *
+	 * @return The workload.
+	 *
+	 * @throws ReflectiveOperationException if there is no such method or it throws an exception.
+	 */
+	protected Workload create(Class<?> source, String name) throws ReflectiveOperationException {
+		return (Workload)source.getMethod(name).invoke(null);
+	}
+
+	/**
+	 * This method creates and sets up the workload of the benchmark that is about to run.
+	 *
+	 * @param params describes the benchmark, including the name of its method.
+	 *
+	 * @throws ReflectiveOperationException if the workload cannot be created.
+	 */
+	@Setup(Level.Trial)
+	public void setup(BenchmarkParams params) throws ReflectiveOperationException {
+		String benchmark = params.getBenchmark();
+		workload = create(Class.forName(source), benchmark.substring(benchmark.lastIndexOf('.') + 1));
+		workload.setup(getParam());
+	}
+
+	/**
+	 * This method performs one operation of the workload.
+	 *
+	 * @return The value returned by the workload.
+	 */
+	public int run() {
+		return workload.run();
+	}
+}
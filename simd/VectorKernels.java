@@ -0,0 +1,458 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * These are the EntityKernels run over several entities at once in the SIMD lanes of the CPU, using the incubating
+ * Vector API: 4 floats at a time with 128-bit vectors (SSE, NEON), 8 with 256-bit vectors (AVX2) and 16 with
+ * 512-bit vectors (AVX-512). Each lane does the same float operations in the same order as the scalar kernels, so
+ * the results are the same bit for bit, and whatever is left over after the last whole vector is run one entity at
+ * a time. A vector size the CPU does not have still works, but the JIT runs it without SIMD and far more slowly.
+ *
+ * The JIT only turns vector operations into SIMD instructions when it knows the vector size while compiling the
+ * loop they are in, and a loop that is given the size as a parameter is compiled on its own before it can be
+ * inlined where the size is known. So each loop is written out once for each size, each reading its own constant.
+ *
+ * This class needs the jdk.incubator.vector module, so it is kept in its own folder and compiled separately:
+ *
+ * javac --add-modules jdk.incubator.vector -cp out:PantsOnFire.jar -d out simd/*.java
+ *
+ * @author Matt Derzay
+ * @version 1.0
+ */
+public class VectorKernels extends EntityKernels {
+	//Every vector size, as constants the JIT can see.
+	private static final VectorSpecies<Float> SPECIES_128 = FloatVector.SPECIES_128;
+	private static final VectorSpecies<Float> SPECIES_256 = FloatVector.SPECIES_256;
+	private static final VectorSpecies<Float> SPECIES_512 = FloatVector.SPECIES_512;
+	//The most lanes a vector has, which is 16 floats in 512 bits.
+	private static final int MAX_LANES = 16;
+	//The size of the vectors used, in bits.
+	private int bits;
+	/*
+	 * The positions of one vector of candidates, copied here before they are loaded into vectors: x from 0, y
+	 * from MAX_LANES, then the previous x and y. The Vector API can gather them straight from the tables, but not
+	 * every JIT compiles that into SIMD instructions for every vector size, and copying them is never slow.
+	 */
+	private float[] gathered = new float[4 * MAX_LANES];
+
+	/**
+	 * This constructor initializes new VectorKernels.
+	 *
+	 * @param bits is the size of a vector in bits (128, 256 or 512), or 0 for the size the CPU prefers.
+	 *
+	 * @throws IllegalArgumentException if there are no vectors of that size.
+	 */
+	public VectorKernels(int bits) {
+		if(bits == 0) {
+			bits = Math.max(128, FloatVector.SPECIES_PREFERRED.vectorBitSize());
+		}
+		if(bits != 128 && bits != 256 && bits != 512) {
+			throw new IllegalArgumentException("There are no " + bits + "-bit kernels");
+		}
+		this.bits = bits;
+	}
+
+	public String getName() {
+		return bits + "-bit";
+	}
+
+	public void advance(EntityTable table, float step, float minimum, float maxX, float maxY) {
+		int i;
+		if(bits == 128) {
+			i = advance128(table, step, minimum, maxX, maxY);
+		} else if(bits == 256) {
+			i = advance256(table, step, minimum, maxX, maxY);
+		} else {
+			i = advance512(table, step, minimum, maxX, maxY);
+		}
+		//Move whatever is left over one entity at a time.
+		advanceFrom(table, i, step, minimum, maxX, maxY);
+	}
+
+	public int findHit(EntityTable movers, int[] candidates, int count, float x, float y, float previousX,
+					   float previousY, float radius) {
+		int lanes = bits / Float.SIZE;
+		int wholeVectors = count - count % lanes;
+		int hit = -1;
+		//Skip to each vector with a hit in it, and find which lanes hit one at a time.
+		for(int j = nextHit(movers, candidates, 0, count, x, y, previousX, previousY, radius); j < wholeVectors;
+				j = nextHit(movers, candidates, j + lanes, count, x, y, previousX, previousY, radius)) {
+			hit = findHitFrom(movers, candidates, j, j + lanes, x, y, previousX, previousY, radius, hit);
+		}
+		//Test whatever is left over one candidate at a time.
+		return findHitFrom(movers, candidates, wholeVectors, count, x, y, previousX, previousY, radius, hit);
+	}
+
+	/**
+	 * This method finds the next vector of candidates with a hit in it, with
+	 * vectors of the size these kernels use.
+	 *
+	 * @param movers holds the entities.
+	 * @param candidates holds the index in movers of each entity to test.
+	 * @param start is the index in candidates of the first vector to test.
+	 * @param count is the number of candidates.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at.
+	 *
+	 * @return The index in candidates of the vector, or the index after the last whole vector if none hit.
+	 */
+	private int nextHit(EntityTable movers, int[] candidates, int start, int count, float x, float y,
+						float previousX, float previousY, float radius) {
+		if(bits == 128) {
+			return nextHit128(movers, candidates, start, count, x, y, previousX, previousY, radius);
+		} else if(bits == 256) {
+			return nextHit256(movers, candidates, start, count, x, y, previousX, previousY, radius);
+		}
+		return nextHit512(movers, candidates, start, count, x, y, previousX, previousY, radius);
+	}
+
+	/**
+	 * This method moves the entities of a table in 128-bit vectors, for as many
+	 * whole vectors as there are.
+	 *
+	 * @param table holds the entities.
+	 * @param step is how far each entity moves.
+	 * @param minimum is the smallest position on either axis that is not too far off the screen.
+	 * @param maxX is the largest position on the x axis that is not too far off the screen.
+	 * @param maxY is the largest position on the y axis that is not too far off the screen.
+	 *
+	 * @return The index of the first entity that was not moved.
+	 */
+	private static int advance128(EntityTable table, float step, float minimum, float maxX, float maxY) {
+		VectorSpecies<Float> species = SPECIES_128;
+		float[] x = table.x;
+		float[] y = table.y;
+		float[] directionX = table.directionX;
+		float[] directionY = table.directionY;
+		float[] previousX = table.previousX;
+		float[] previousY = table.previousY;
+		boolean[] alive = table.alive;
+
+		int i = 0;
+		for(int bound = species.loopBound(table.size); i < bound; i += species.length()) {
+			VectorMask<Float> living = VectorMask.fromArray(species, alive, i);
+			FloatVector vectorX = FloatVector.fromArray(species, x, i);
+			FloatVector vectorY = FloatVector.fromArray(species, y, i);
+			//Only the living entities change, so every other lane keeps what was already there.
+			FloatVector.fromArray(species, previousX, i).blend(vectorX, living).intoArray(previousX, i);
+			FloatVector.fromArray(species, previousY, i).blend(vectorY, living).intoArray(previousY, i);
+
+			//If the entity is too far off the screen, remove it from the game.
+			VectorMask<Float> offScreen = vectorX.compare(VectorOperators.LE, minimum)
+					.or(vectorX.compare(VectorOperators.GE, maxX))
+					.or(vectorY.compare(VectorOperators.LE, minimum))
+					.or(vectorY.compare(VectorOperators.GE, maxY));
+			VectorMask<Float> dying = living.and(offScreen);
+			if(dying.anyTrue()) {
+				for(long lanes = dying.toLong(); lanes != 0; lanes &= lanes - 1) {
+					alive[i + Long.numberOfTrailingZeros(lanes)] = false;
+				}
+			}
+
+			//Move forward.
+			vectorX.blend(vectorX.add(FloatVector.fromArray(species, directionX, i).mul(step)), living).intoArray(x, i);
+			vectorY.blend(vectorY.add(FloatVector.fromArray(species, directionY, i).mul(step)), living).intoArray(y, i);
+		}
+		return i;
+	}
+
+	/**
+	 * This method moves the entities of a table in 256-bit vectors, for as many
+	 * whole vectors as there are.
+	 *
+	 * @param table holds the entities.
+	 * @param step is how far each entity moves.
+	 * @param minimum is the smallest position on either axis that is not too far off the screen.
+	 * @param maxX is the largest position on the x axis that is not too far off the screen.
+	 * @param maxY is the largest position on the y axis that is not too far off the screen.
+	 *
+	 * @return The index of the first entity that was not moved.
+	 */
+	private static int advance256(EntityTable table, float step, float minimum, float maxX, float maxY) {
+		VectorSpecies<Float> species = SPECIES_256;
+		float[] x = table.x;
+		float[] y = table.y;
+		float[] directionX = table.directionX;
+		float[] directionY = table.directionY;
+		float[] previousX = table.previousX;
+		float[] previousY = table.previousY;
+		boolean[] alive = table.alive;
+
+		int i = 0;
+		for(int bound = species.loopBound(table.size); i < bound; i += species.length()) {
+			//The JIT cannot load 8 flags straight into this mask, but it can load them as bytes and widen them.
+			VectorMask<Float> living = ByteVector.fromBooleanArray(ByteVector.SPECIES_64, alive, i)
+					.convertShape(VectorOperators.B2F, species, 0).compare(VectorOperators.NE, 0);
+			FloatVector vectorX = FloatVector.fromArray(species, x, i);
+			FloatVector vectorY = FloatVector.fromArray(species, y, i);
+			//Only the living entities change, so every other lane keeps what was already there.
+			FloatVector.fromArray(species, previousX, i).blend(vectorX, living).intoArray(previousX, i);
+			FloatVector.fromArray(species, previousY, i).blend(vectorY, living).intoArray(previousY, i);
+
+			//If the entity is too far off the screen, remove it from the game.
+			VectorMask<Float> offScreen = vectorX.compare(VectorOperators.LE, minimum)
+					.or(vectorX.compare(VectorOperators.GE, maxX))
+					.or(vectorY.compare(VectorOperators.LE, minimum))
+					.or(vectorY.compare(VectorOperators.GE, maxY));
+			VectorMask<Float> dying = living.and(offScreen);
+			if(dying.anyTrue()) {
+				for(long lanes = dying.toLong(); lanes != 0; lanes &= lanes - 1) {
+					alive[i + Long.numberOfTrailingZeros(lanes)] = false;
+				}
+			}
+
+			//Move forward.
+			vectorX.blend(vectorX.add(FloatVector.fromArray(species, directionX, i).mul(step)), living).intoArray(x, i);
+			vectorY.blend(vectorY.add(FloatVector.fromArray(species, directionY, i).mul(step)), living).intoArray(y, i);
+		}
+		return i;
+	}
+
+	/**
+	 * This method moves the entities of a table in 512-bit vectors, for as many
+	 * whole vectors as there are.
+	 *
+	 * @param table holds the entities.
+	 * @param step is how far each entity moves.
+	 * @param minimum is the smallest position on either axis that is not too far off the screen.
+	 * @param maxX is the largest position on the x axis that is not too far off the screen.
+	 * @param maxY is the largest position on the y axis that is not too far off the screen.
+	 *
+	 * @return The index of the first entity that was not moved.
+	 */
+	private static int advance512(EntityTable table, float step, float minimum, float maxX, float maxY) {
+		VectorSpecies<Float> species = SPECIES_512;
+		float[] x = table.x;
+		float[] y = table.y;
+		float[] directionX = table.directionX;
+		float[] directionY = table.directionY;
+		float[] previousX = table.previousX;
+		float[] previousY = table.previousY;
+		boolean[] alive = table.alive;
+
+		int i = 0;
+		for(int bound = species.loopBound(table.size); i < bound; i += species.length()) {
+			VectorMask<Float> living = VectorMask.fromArray(species, alive, i);
+			FloatVector vectorX = FloatVector.fromArray(species, x, i);
+			FloatVector vectorY = FloatVector.fromArray(species, y, i);
+			//Only the living entities change, so every other lane keeps what was already there.
+			FloatVector.fromArray(species, previousX, i).blend(vectorX, living).intoArray(previousX, i);
+			FloatVector.fromArray(species, previousY, i).blend(vectorY, living).intoArray(previousY, i);
+
+			//If the entity is too far off the screen, remove it from the game.
+			VectorMask<Float> offScreen = vectorX.compare(VectorOperators.LE, minimum)
+					.or(vectorX.compare(VectorOperators.GE, maxX))
+					.or(vectorY.compare(VectorOperators.LE, minimum))
+					.or(vectorY.compare(VectorOperators.GE, maxY));
+			VectorMask<Float> dying = living.and(offScreen);
+			if(dying.anyTrue()) {
+				for(long lanes = dying.toLong(); lanes != 0; lanes &= lanes - 1) {
+					alive[i + Long.numberOfTrailingZeros(lanes)] = false;
+				}
+			}
+
+			//Move forward.
+			vectorX.blend(vectorX.add(FloatVector.fromArray(species, directionX, i).mul(step)), living).intoArray(x, i);
+			vectorY.blend(vectorY.add(FloatVector.fromArray(species, directionY, i).mul(step)), living).intoArray(y, i);
+		}
+		return i;
+	}
+
+	/**
+	 * This method runs the swept collision test between an object and the
+	 * candidates in 128-bit vectors, until a vector has a hit in it. It makes
+	 * no calls, so the JIT never has to turn its vectors back into objects.
+	 *
+	 * @param movers holds the entities.
+	 * @param candidates holds the index in movers of each entity to test.
+	 * @param start is the index in candidates of the first vector to test.
+	 * @param count is the number of candidates.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at.
+	 *
+	 * @return The index in candidates of the vector, or the index after the last whole vector if none hit.
+	 */
+	private int nextHit128(EntityTable movers, int[] candidates, int start, int count, float x, float y,
+						   float previousX, float previousY, float radius) {
+		VectorSpecies<Float> species = SPECIES_128;
+		float moveX = x - previousX;
+		float moveY = y - previousY;
+		float radiusSquared = radius * radius;
+
+		int j = start;
+		for(int bound = species.loopBound(count); j < bound; j += species.length()) {
+			//Gather the candidates into the lanes.
+			for(int k = 0; k < species.length(); k++) {
+				int f = candidates[j + k];
+				gathered[k] = movers.x[f];
+				gathered[MAX_LANES + k] = movers.y[f];
+				gathered[2 * MAX_LANES + k] = movers.previousX[f];
+				gathered[3 * MAX_LANES + k] = movers.previousY[f];
+			}
+			FloatVector aX = FloatVector.fromArray(species, gathered, 0);
+			FloatVector aY = FloatVector.fromArray(species, gathered, MAX_LANES);
+			FloatVector aPreviousX = FloatVector.fromArray(species, gathered, 2 * MAX_LANES);
+			FloatVector aPreviousY = FloatVector.fromArray(species, gathered, 3 * MAX_LANES);
+
+			//Find how far through the step each pair was closest together, as SweptCollision does.
+			FloatVector startX = aPreviousX.sub(previousX);
+			FloatVector startY = aPreviousY.sub(previousY);
+			FloatVector relativeX = aX.sub(x).sub(startX);
+			FloatVector relativeY = aY.sub(y).sub(startY);
+			FloatVector lengthSquared = relativeX.mul(relativeX).add(relativeY.mul(relativeY));
+			FloatVector t = startX.mul(relativeX).add(startY.mul(relativeY)).neg().div(lengthSquared)
+					.min(1f).max(0f);
+			t = t.blend(1f, lengthSquared.compare(VectorOperators.GT, 0f).not());
+			VectorMask<Float> atEnd = t.compare(VectorOperators.EQ, 1f);
+
+			//The distance between them at that moment, or at the end of the step.
+			FloatVector dx = aPreviousX.add(aX.sub(aPreviousX).mul(t)).sub(t.mul(moveX).add(previousX))
+					.blend(aX.sub(x), atEnd);
+			FloatVector dy = aPreviousY.add(aY.sub(aPreviousY).mul(t)).sub(t.mul(moveY).add(previousY))
+					.blend(aY.sub(y), atEnd);
+			VectorMask<Float> hits = dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LE, radiusSquared);
+
+			if(hits.anyTrue()) {
+				return j;
+			}
+		}
+		return j;
+	}
+
+	/**
+	 * This method runs the swept collision test between an object and the
+	 * candidates in 256-bit vectors, until a vector has a hit in it. It makes
+	 * no calls, so the JIT never has to turn its vectors back into objects.
+	 *
+	 * @param movers holds the entities.
+	 * @param candidates holds the index in movers of each entity to test.
+	 * @param start is the index in candidates of the first vector to test.
+	 * @param count is the number of candidates.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at.
+	 *
+	 * @return The index in candidates of the vector, or the index after the last whole vector if none hit.
+	 */
+	private int nextHit256(EntityTable movers, int[] candidates, int start, int count, float x, float y,
+						   float previousX, float previousY, float radius) {
+		VectorSpecies<Float> species = SPECIES_256;
+		float moveX = x - previousX;
+		float moveY = y - previousY;
+		float radiusSquared = radius * radius;
+
+		int j = start;
+		for(int bound = species.loopBound(count); j < bound; j += species.length()) {
+			//Gather the candidates into the lanes.
+			for(int k = 0; k < species.length(); k++) {
+				int f = candidates[j + k];
+				gathered[k] = movers.x[f];
+				gathered[MAX_LANES + k] = movers.y[f];
+				gathered[2 * MAX_LANES + k] = movers.previousX[f];
+				gathered[3 * MAX_LANES + k] = movers.previousY[f];
+			}
+			FloatVector aX = FloatVector.fromArray(species, gathered, 0);
+			FloatVector aY = FloatVector.fromArray(species, gathered, MAX_LANES);
+			FloatVector aPreviousX = FloatVector.fromArray(species, gathered, 2 * MAX_LANES);
+			FloatVector aPreviousY = FloatVector.fromArray(species, gathered, 3 * MAX_LANES);
+
+			//Find how far through the step each pair was closest together, as SweptCollision does.
+			FloatVector startX = aPreviousX.sub(previousX);
+			FloatVector startY = aPreviousY.sub(previousY);
+			FloatVector relativeX = aX.sub(x).sub(startX);
+			FloatVector relativeY = aY.sub(y).sub(startY);
+			FloatVector lengthSquared = relativeX.mul(relativeX).add(relativeY.mul(relativeY));
+			FloatVector t = startX.mul(relativeX).add(startY.mul(relativeY)).neg().div(lengthSquared)
+					.min(1f).max(0f);
+			t = t.blend(1f, lengthSquared.compare(VectorOperators.GT, 0f).not());
+			VectorMask<Float> atEnd = t.compare(VectorOperators.EQ, 1f);
+
+			//The distance between them at that moment, or at the end of the step.
+			FloatVector dx = aPreviousX.add(aX.sub(aPreviousX).mul(t)).sub(t.mul(moveX).add(previousX))
+					.blend(aX.sub(x), atEnd);
+			FloatVector dy = aPreviousY.add(aY.sub(aPreviousY).mul(t)).sub(t.mul(moveY).add(previousY))
+					.blend(aY.sub(y), atEnd);
+			VectorMask<Float> hits = dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LE, radiusSquared);
+
+			if(hits.anyTrue()) {
+				return j;
+			}
+		}
+		return j;
+	}
+
+	/**
+	 * This method runs the swept collision test between an object and the
+	 * candidates in 512-bit vectors, until a vector has a hit in it. It makes
+	 * no calls, so the JIT never has to turn its vectors back into objects.
+	 *
+	 * @param movers holds the entities.
+	 * @param candidates holds the index in movers of each entity to test.
+	 * @param start is the index in candidates of the first vector to test.
+	 * @param count is the number of candidates.
+	 * @param x is the position of the object on the x axis.
+	 * @param y is the position of the object on the y axis.
+	 * @param previousX is where the object was on the x axis before the step.
+	 * @param previousY is where the object was on the y axis before the step.
+	 * @param radius is the distance they collide at.
+	 *
+	 * @return The index in candidates of the vector, or the index after the last whole vector if none hit.
+	 */
+	private int nextHit512(EntityTable movers, int[] candidates, int start, int count, float x, float y,
+						   float previousX, float previousY, float radius) {
+		VectorSpecies<Float> species = SPECIES_512;
+		float moveX = x - previousX;
+		float moveY = y - previousY;
+		float radiusSquared = radius * radius;
+
+		int j = start;
+		for(int bound = species.loopBound(count); j < bound; j += species.length()) {
+			//Gather the candidates into the lanes.
+			for(int k = 0; k < species.length(); k++) {
+				int f = candidates[j + k];
+				gathered[k] = movers.x[f];
+				gathered[MAX_LANES + k] = movers.y[f];
+				gathered[2 * MAX_LANES + k] = movers.previousX[f];
+				gathered[3 * MAX_LANES + k] = movers.previousY[f];
+			}
+			FloatVector aX = FloatVector.fromArray(species, gathered, 0);
+			FloatVector aY = FloatVector.fromArray(species, gathered, MAX_LANES);
+			FloatVector aPreviousX = FloatVector.fromArray(species, gathered, 2 * MAX_LANES);
+			FloatVector aPreviousY = FloatVector.fromArray(species, gathered, 3 * MAX_LANES);
+
+			//Find how far through the step each pair was closest together, as SweptCollision does.
+			FloatVector startX = aPreviousX.sub(previousX);
+			FloatVector startY = aPreviousY.sub(previousY);
+			FloatVector relativeX = aX.sub(x).sub(startX);
+			FloatVector relativeY = aY.sub(y).sub(startY);
+			FloatVector lengthSquared = relativeX.mul(relativeX).add(relativeY.mul(relativeY));
+			FloatVector t = startX.mul(relativeX).add(startY.mul(relativeY)).neg().div(lengthSquared)
+					.min(1f).max(0f);
+			t = t.blend(1f, lengthSquared.compare(VectorOperators.GT, 0f).not());
+			VectorMask<Float> atEnd = t.compare(VectorOperators.EQ, 1f);
+
+			//The distance between them at that moment, or at the end of the step.
+			FloatVector dx = aPreviousX.add(aX.sub(aPreviousX).mul(t)).sub(t.mul(moveX).add(previousX))
+					.blend(aX.sub(x), atEnd);
+			FloatVector dy = aPreviousY.add(aY.sub(aPreviousY).mul(t)).sub(t.mul(moveY).add(previousY))
+					.blend(aY.sub(y), atEnd);
+			VectorMask<Float> hits = dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LE, radiusSquared);
+
+			if(hits.anyTrue()) {
+				return j;
+			}
+		}
+		return j;
+	}
+}